@@ -0,0 +1,75 @@
+package com.ss.batch.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ss.batch.entity.BulkPassEntity;
+import com.ss.batch.entity.BulkPassStatus;
+import com.ss.batch.job.pass.AddPassesTasklet;
+
+// AddPassesTasklet.addPass - 그룹 사용자 userCount 명에게 이용권을 저장하는 시간 (H2 MySQL 모드)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AddPassBenchmark {
+	@Param({ "100", "1000" })
+	private int userCount;
+
+	private BenchmarkContext context;
+	private AddPassesTasklet tasklet;
+	private TransactionTemplate transactionTemplate;
+	private List<String> userIds;
+	private BulkPassEntity bulkPassEntity;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new BenchmarkContext(Map.of());
+		tasklet = context.getBean(AddPassesTasklet.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+
+		userIds = new ArrayList<String>(userCount);
+		for (int i = 0; i < userCount; i++) {
+			userIds.add("U" + i);
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		bulkPassEntity = new BulkPassEntity();
+		bulkPassEntity.setPackageSeq(1L);
+		bulkPassEntity.setUserGroupId("GROUP");
+		bulkPassEntity.setStatus(BulkPassStatus.READY);
+		bulkPassEntity.setCount(10);
+		bulkPassEntity.setStartedAt(now);
+		bulkPassEntity.setEndedAt(now.plusDays(60));
+	}
+
+	@TearDown(Level.Iteration)
+	public void clear() {
+		context.clear();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	// tasklet은 step 트랜잭션 안에서 실행되므로 같은 조건으로 트랜잭션 하나에서 측정
+	@Benchmark
+	public Integer addPass() {
+		return transactionTemplate.execute(status -> tasklet.addPass(userIds, bulkPassEntity));
+	}
+}
@@ -0,0 +1,22 @@
+package com.ss.batch.benchmark;
+
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+// 성능 측정용 스프링 설정
+// TestBatchConfig와 같은 구성에 Job 설정, 메시지 발송기만 추가로 올린다. (웹 서버, 스케줄러는 제외)
+@Configuration
+@EnableJpaAuditing
+@EnableAutoConfiguration
+@EnableBatchProcessing
+@EntityScan("com.ss.batch.entity")
+@EnableJpaRepositories("com.ss.batch.repository")
+@ComponentScan({ "com.ss.batch.job", "com.ss.batch.adapter" })
+public class BenchmarkConfig {
+
+}
@@ -0,0 +1,134 @@
+package com.ss.batch.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 벤치마크마다 내장 H2 DB(MySQL 모드)로 스프링 컨텍스트를 띄우고 데이터를 넣어주는 도우미
+// 테이블은 애플리케이션과 같은 Flyway 마이그레이션(common + h2)으로 만든다.
+public class BenchmarkContext implements AutoCloseable {
+	// Hibernate가 id_sequence로 발급하는 순번과 겹치지 않도록 JDBC로 직접 넣는 데이터는 큰 순번부터 사용
+	private static final long SEED_SEQ = 1_000_000_000L;
+	private static final AtomicInteger DATABASES = new AtomicInteger();
+	private static final int INSERT_BATCH_SIZE = 10_000;
+
+	private final ConfigurableApplicationContext context;
+	private final JdbcTemplate jdbcTemplate;
+	private long nextSeq = SEED_SEQ;
+
+	public BenchmarkContext(Map<String, Object> properties) {
+		this(properties, new Class<?>[0]);
+	}
+
+	// sources - BenchmarkConfig 에 더 올릴 설정 (SQL 실행 횟수 측정 등)
+	public BenchmarkContext(Map<String, Object> properties, Class<?>... sources) {
+		Map<String, Object> defaults = new HashMap<String, Object>();
+		defaults.put("spring.datasource.url", "jdbc:h2:mem:bench" + DATABASES.incrementAndGet()
+				+ ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1");
+		defaults.put("spring.datasource.driver-class-name", "org.h2.Driver");
+		defaults.put("spring.datasource.username", "sa");
+		defaults.put("spring.datasource.password", "");
+		defaults.put("spring.jpa.database", "h2");
+		defaults.put("spring.jpa.show-sql", "false");
+		defaults.put("spring.batch.job.enabled", "false");
+		defaults.put("logging.level.root", "warn");
+		defaults.put("logging.level.org.hibernate.type.descriptor.sql", "warn");
+		defaults.put("batch.notification.stub.latency-ms", "0");
+		defaults.put("batch.notification.rate-limit.default.permits-per-second", "1000000");
+		defaults.put("batch.notification.rate-limit.kakaotalk.permits-per-second", "1000000");
+		defaults.put("batch.notification.rate-limit.kakaotalk.burst", "1000000");
+		defaults.putAll(properties);
+
+		// application.properties (MySQL) 보다 우선하도록 커맨드라인 인자로 넘긴다.
+		String[] args = defaults.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+		this.context = new SpringApplicationBuilder(BenchmarkConfig.class).sources(sources).web(WebApplicationType.NONE).run(args);
+		this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	public <T> T getBean(String name, Class<T> type) {
+		return context.getBean(name, type);
+	}
+
+	public JdbcTemplate getJdbcTemplate() {
+		return jdbcTemplate;
+	}
+
+	public JobExecution launch(String jobName) throws Exception {
+		return context.getBean(JobLauncher.class).run(context.getBean(jobName, Job.class),
+				new JobParametersBuilder().addLong("run.id", System.nanoTime()).toJobParameters());
+	}
+
+	// 만료 대상 이용권 (진행 중, 종료일 지남)
+	// 100만 건도 넣을 수 있도록 INSERT_BATCH_SIZE 건씩 나눠서 넣는다.
+	public void insertExpiredPasses(int size) {
+		LocalDateTime now = LocalDateTime.now();
+		for (int start = 0; start < size; start += INSERT_BATCH_SIZE) {
+			List<Object[]> rows = new ArrayList<Object[]>(INSERT_BATCH_SIZE);
+			for (int i = start; i < Math.min(size, start + INSERT_BATCH_SIZE); i++) {
+				rows.add(new Object[] { nextSeq++, "U" + i, now.minusDays(60), now.minusDays(1) });
+			}
+			jdbcTemplate.batchUpdate("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+					+ " values (?, 1, ?, 'PROGRESSED', 10, ?, ?)", rows);
+		}
+	}
+
+	// 그룹 사용자 size명과 그 그룹으로 발급할 대량 이용권 하나
+	public void insertBulkPass(int size) {
+		LocalDateTime now = LocalDateTime.now();
+		String userGroupId = "G" + nextSeq;
+		List<Object[]> rows = new ArrayList<Object[]>(size);
+		for (int i = 0; i < size; i++) {
+			rows.add(new Object[] { userGroupId, "U" + i, now, now });
+		}
+		jdbcTemplate.batchUpdate("insert into user_group_mapping (user_group_id, user_id, create_at, modified_at) values (?, ?, ?, ?)", rows);
+		jdbcTemplate.update("insert into bulk_pass (bulk_pass_seq, package_seq, user_group_id, status, count, started_at, ended_at)"
+				+ " values (?, 1, ?, 'READY', 10, ?, ?)", nextSeq++, userGroupId, now.plusDays(1), now.plusDays(60));
+	}
+
+	// 10분 안에 시작하는 예약 size건 (사용자 100명에게 나눠서)
+	public void insertBookings(int size) {
+		LocalDateTime now = LocalDateTime.now();
+		if (jdbcTemplate.queryForObject("select count(*) from user", Integer.class) == 0) {
+			List<Object[]> users = new ArrayList<Object[]>();
+			for (int i = 0; i < 100; i++) {
+				users.add(new Object[] { "U" + i, "{\"uuid\":\"uuid-" + i + "\"}", now, now });
+			}
+			jdbcTemplate.batchUpdate("insert into user (user_id, user_name, status, meta, create_at, modified_at)"
+					+ " values (?, 'user', 'ACTIVE', ?, ?, ?)", users);
+		}
+		List<Object[]> rows = new ArrayList<Object[]>(size);
+		for (int i = 0; i < size; i++) {
+			rows.add(new Object[] { nextSeq++, "U" + (i % 100), now.plusMinutes(5), now.plusMinutes(65), now, now });
+		}
+		jdbcTemplate.batchUpdate("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+				+ " values (?, 1, ?, 'READY', false, false, ?, ?, ?, ?)", rows);
+	}
+
+	// expiredPassJob이 매번 같은 양을 처리하도록 이전 실행의 watermark도 같이 지운다.
+	public void clear() {
+		for (String table : new String[] { "pass", "bulk_pass", "user_group_mapping", "booking", "notification", "job_watermark" }) {
+			jdbcTemplate.update("delete from " + table);
+		}
+	}
+
+	@Override
+	public void close() {
+		context.close();
+	}
+}
@@ -0,0 +1,84 @@
+package com.ss.batch.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import com.ss.batch.entity.PassEntity;
+import com.ss.batch.entity.PassStatus;
+import com.ss.batch.job.pass.CursorItemReaders;
+
+// expiredPassItemReader와 같은 조회로 rowCount 건을 끝까지 읽는 시간 (JPA 커서 vs StatelessSession 커서)
+// JPA 모드는 읽은 엔티티가 모두 영속성 컨텍스트에 남아서 건수만큼 힙이 늘어난다.
+// 메모리 비교는 -prof gc (gc.alloc.rate.norm, gc.count) 또는 힙 한도를 줄여서(-Xmx256m) 실행해서 확인한다.
+// ./gradlew jmh -PjmhIncludes=CursorReaderBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class CursorReaderBenchmark {
+	@Param({ "JPA", "STATELESS" })
+	private CursorItemReaders.Mode mode;
+
+	@Param({ "1000000" })
+	private int rowCount;
+
+	@Param({ "1000" })
+	private int fetchSize;
+
+	private BenchmarkContext context;
+	private EntityManagerFactory entityManagerFactory;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new BenchmarkContext(Map.of());
+		entityManagerFactory = context.getBean(EntityManagerFactory.class);
+		context.clear();
+		context.insertExpiredPasses(rowCount);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int read() throws Exception {
+		AbstractItemCountingItemStreamItemReader<PassEntity> reader = CursorItemReaders.create(mode, "benchmarkReader",
+				entityManagerFactory,
+				"select p from PassEntity p where p.status = :status and p.ended_at > :watermark and p.ended_at <= :cutoff",
+				Map.of("status", PassStatus.PROGRESSED, "watermark", LocalDateTime.of(1970, 1, 1, 0, 0), "cutoff", LocalDateTime.now()),
+				fetchSize);
+		reader.open(new ExecutionContext());
+		int count = 0;
+		try {
+			while (reader.read() != null) {
+				count++;
+			}
+		} finally {
+			reader.close();
+		}
+		if (count != rowCount) {
+			throw new IllegalStateException("읽은 건수가 다름: " + count);
+		}
+		return count;
+	}
+}
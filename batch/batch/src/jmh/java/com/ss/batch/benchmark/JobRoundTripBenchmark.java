@@ -0,0 +1,81 @@
+package com.ss.batch.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+
+// Job 하나를 처음부터 끝까지 실행하는 시간 (reader → processor → writer 왕복)
+// 청크 크기마다 스프링 컨텍스트를 새로 띄우고, 매 실행 전에 rowCount 건의 데이터를 넣는다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class JobRoundTripBenchmark {
+	@Param({ "expiredPassJob", "addPassesJob", "sendNotificationClassJob" })
+	private String jobName;
+
+	@Param({ "10", "100", "1000" })
+	private int chunkSize;
+
+	@Param({ "5000" })
+	private int rowCount;
+
+	private BenchmarkContext context;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// 청크 크기 자동 조절은 끄고(min = max) 고정 크기로 비교한다.
+		context = new BenchmarkContext(Map.of(
+				"batch.expired-pass.chunk-size", chunkSize,
+				"batch.expired-pass.adaptive-chunk.min-size", chunkSize,
+				"batch.expired-pass.adaptive-chunk.max-size", chunkSize,
+				"batch.add-passes.chunk-size", chunkSize,
+				"batch.notification.chunk-size", chunkSize,
+				"batch.notification.adaptive-chunk.min-size", chunkSize,
+				"batch.notification.adaptive-chunk.max-size", chunkSize));
+	}
+
+	@Setup(Level.Invocation)
+	public void insertRows() {
+		context.clear();
+		switch (jobName) {
+		case "expiredPassJob":
+			context.insertExpiredPasses(rowCount);
+			break;
+		case "addPassesJob":
+			context.insertBulkPass(rowCount);
+			break;
+		default:
+			context.insertBookings(rowCount);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public JobExecution run() throws Exception {
+		JobExecution jobExecution = context.launch(jobName);
+		if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+			throw new IllegalStateException(jobName + " 실패: " + jobExecution.getAllFailureExceptions());
+		}
+		return jobExecution;
+	}
+}
@@ -0,0 +1,42 @@
+package com.ss.batch.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ss.batch.entity.BulkPassEntity;
+import com.ss.batch.entity.BulkPassStatus;
+import com.ss.batch.entity.PassEntity;
+import com.ss.batch.modelmapper.PassModelMapper;
+
+// BulkPassEntity → PassEntity 변환 한 건에 걸리는 시간
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PassModelMapperBenchmark {
+	private BulkPassEntity bulkPassEntity;
+
+	@Setup
+	public void setUp() {
+		LocalDateTime now = LocalDateTime.now();
+		bulkPassEntity = new BulkPassEntity();
+		bulkPassEntity.setPackageSeq(1L);
+		bulkPassEntity.setUserGroupId("GROUP");
+		bulkPassEntity.setStatus(BulkPassStatus.READY);
+		bulkPassEntity.setCount(10);
+		bulkPassEntity.setStartedAt(now);
+		bulkPassEntity.setEndedAt(now.plusDays(60));
+	}
+
+	@Benchmark
+	public PassEntity toPassEntity() {
+		return PassModelMapper.toPassEntity("A1000000", bulkPassEntity);
+	}
+}
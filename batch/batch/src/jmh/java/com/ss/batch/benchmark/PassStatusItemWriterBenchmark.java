@@ -0,0 +1,77 @@
+package com.ss.batch.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ss.batch.entity.PassEntity;
+import com.ss.batch.entity.PassStatus;
+import com.ss.batch.job.pass.PassStatusItemWriter;
+
+// PassStatusItemWriter.write - 만료 대상 이용권 chunkSize 건을 UPDATE ... IN 으로 만료시키는 시간 (H2 MySQL 모드)
+// expiredPassStep은 processor 없이 읽은 이용권을 바로 이 writer로 넘기므로 청크 하나의 처리 시간이다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PassStatusItemWriterBenchmark {
+	@Param({ "100", "1000" })
+	private int chunkSize;
+
+	private BenchmarkContext context;
+	private PassStatusItemWriter writer;
+	private TransactionTemplate transactionTemplate;
+	private List<PassEntity> items;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new BenchmarkContext(Map.of());
+		writer = new PassStatusItemWriter(context.getBean(NamedParameterJdbcTemplate.class), PassStatus.PROGRESSED, PassStatus.EXPIRED);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+
+		context.insertExpiredPasses(chunkSize);
+		items = new ArrayList<PassEntity>(chunkSize);
+		for (Long passSeq : context.getJdbcTemplate().queryForList("select pass_seq from pass order by pass_seq", Long.class)) {
+			PassEntity passEntity = new PassEntity();
+			passEntity.setPass_seq(passSeq);
+			items.add(passEntity);
+		}
+	}
+
+	// 매번 같은 행 수가 바뀌도록 측정 전에 다시 진행 중으로 돌려놓는다.
+	@Setup(Level.Invocation)
+	public void reset() {
+		context.getJdbcTemplate().update("update pass set status = 'PROGRESSED', expired_at = null");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	// writer는 청크 트랜잭션 안에서 실행되므로 같은 조건으로 트랜잭션 하나에서 측정
+	@Benchmark
+	public List<PassEntity> write() {
+		transactionTemplate.executeWithoutResult(status -> {
+			try {
+				writer.write(items);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		return items;
+	}
+}
@@ -0,0 +1,202 @@
+package com.ss.batch.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 운영과 비슷한 비율로 사용자, 사용자 그룹, 상품, 이용권, 대량 이용권, 예약 데이터를 만든다.
+// 같은 seed 면 같은 데이터가 만들어진다. (날짜는 실행 시각 기준이라 Job이 보는 대상 건수가 항상 같다)
+// 순번은 Hibernate가 id_sequence로 발급하는 순번과 겹치지 않도록 큰 값부터 사용한다.
+public class SyntheticDataGenerator {
+	private static final long SEED_SEQ = 1_000_000_000L;
+	private static final int INSERT_BATCH_SIZE = 10_000;
+
+	// insert_table.sql 의 상품 (이름, 횟수, 기간) - 횟수, 기간이 없는 상품도 섞여 있다.
+	private static final Object[][] PACKAGE_SHAPES = { { "Starter PT 10회", 10, 60 }, { "Starter PT 20회", 20, 120 },
+			{ "Starter PT 30회", 30, 180 }, { "바디 챌린지 PT 1회", 1, null }, { "바디 리핏 풀패키지 1회", null, 28 },
+			{ "바디 챌린지 PT 84회", null, null }, { "어드밴서 설립", null, null } };
+
+	// scale 1 기준 건수 (scale 을 곱해서 사용, 기본값만 쓰므로 getter, setter 는 두지 않는다)
+	public static class Volumes {
+		private int users = 100_000;
+		// 그룹마다 usersPerGroup 명, 그룹마다 대량 이용권 하나
+		private int userGroups = 100;
+		private int usersPerGroup = 1_000;
+		private int packages = 70;
+		private int passes = 1_000_000;
+		private int bookings = 1_000_000;
+		// 만료 대상(진행 중이고 종료일이 지난) 이용권 비율, 나머지는 진행 중 또는 이미 만료
+		private double expiredPassRatio = 0.3;
+		// 알림 대상(10분 안에 시작)인 예약 비율
+		private double upcomingBookingRatio = 0.1;
+		// meta 에 uuid가 없는 사용자 비율 (알림 대상에서 빠진다)
+		private double userWithoutUuidRatio = 0.05;
+
+		public Volumes scale(double scale) {
+			Volumes volumes = new Volumes();
+			volumes.users = Math.max(1, (int) (users * scale));
+			volumes.userGroups = Math.max(1, (int) (userGroups * scale));
+			volumes.usersPerGroup = Math.min(volumes.users, usersPerGroup);
+			volumes.packages = packages;
+			volumes.passes = (int) (passes * scale);
+			volumes.bookings = (int) (bookings * scale);
+			volumes.expiredPassRatio = expiredPassRatio;
+			volumes.upcomingBookingRatio = upcomingBookingRatio;
+			volumes.userWithoutUuidRatio = userWithoutUuidRatio;
+			return volumes;
+		}
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final SplittableRandom random;
+	private long nextSeq = SEED_SEQ;
+
+	public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, long seed) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.random = new SplittableRandom(seed);
+	}
+
+	// 테이블마다 넣은 건수와 Job마다 처리할 대상 건수를 돌려준다.
+	// expiredPassJob - 만료 대상 이용권, addPassesJob - 대량 이용권으로 발급할 이용권, sendNotificationClassJob - 알림 대상 예약
+	// passDeductionJob - 이용권을 사용한 완료 예약, bookingRollupJob - 전체 예약 (처음 실행이라 모두 집계 대상)
+	public Map<String, Long> generate(Volumes volumes) {
+		LocalDateTime now = LocalDateTime.now();
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+
+		// 1. 사용자 (일부는 uuid 없음)
+		boolean[] withUuid = new boolean[volumes.users];
+		List<Object[]> rows = new ArrayList<Object[]>(INSERT_BATCH_SIZE);
+		for (int i = 0; i < volumes.users; i++) {
+			withUuid[i] = random.nextDouble() >= volumes.userWithoutUuidRatio;
+			String meta = withUuid[i] ? "{\"uuid\":\"uuid-" + i + "\",\"grade\":\"" + (random.nextInt(10) == 0 ? "VIP" : "NORMAL") + "\"}"
+					: "{\"grade\":\"NORMAL\"}";
+			Timestamp createAt = Timestamp.valueOf(now.minusDays(random.nextInt(1_000)));
+			rows.add(new Object[] { userId(i), "user" + i, random.nextInt(50) == 0 ? "INACTIVE" : "ACTIVE",
+					"010-" + String.format("%04d-%04d", random.nextInt(10_000), random.nextInt(10_000)), meta, createAt, createAt });
+			flushIfFull("insert into user (user_id, user_name, status, phone, meta, create_at, modified_at) values (?, ?, ?, ?, ?, ?, ?)", rows);
+		}
+		flush("insert into user (user_id, user_name, status, phone, meta, create_at, modified_at) values (?, ?, ?, ?, ?, ?, ?)", rows);
+		counts.put("user", (long) volumes.users);
+
+		// 2. 상품 (insert_table.sql 과 같은 모양을 번호를 붙여서 반복)
+		for (int i = 0; i < volumes.packages; i++) {
+			Object[] shape = PACKAGE_SHAPES[i % PACKAGE_SHAPES.length];
+			rows.add(new Object[] { shape[0] + " #" + (i / PACKAGE_SHAPES.length + 1), shape[1], shape[2], Timestamp.valueOf(now),
+					Timestamp.valueOf(now) });
+		}
+		flush("insert into package (package_name, count, period, create_at, modified_at) values (?, ?, ?, ?, ?)", rows);
+		List<Long> packageSeqs = jdbcTemplate.queryForList("select pack_seq from package", Long.class);
+		counts.put("package", (long) packageSeqs.size());
+
+		// 3. 사용자 그룹 (그룹마다 임의의 사용자 usersPerGroup 명)
+		long mappings = 0;
+		for (int g = 0; g < volumes.userGroups; g++) {
+			String userGroupId = "G" + g;
+			int offset = random.nextInt(volumes.users);
+			for (int i = 0; i < volumes.usersPerGroup; i++) {
+				rows.add(new Object[] { userGroupId, userId((offset + i) % volumes.users), "group" + g, Timestamp.valueOf(now),
+						Timestamp.valueOf(now) });
+				flushIfFull("insert into user_group_mapping (user_group_id, user_id, user_group_name, create_at, modified_at) values (?, ?, ?, ?, ?)", rows);
+				mappings++;
+			}
+		}
+		flush("insert into user_group_mapping (user_group_id, user_id, user_group_name, create_at, modified_at) values (?, ?, ?, ?, ?)", rows);
+		counts.put("user_group_mapping", mappings);
+
+		// 4. 대량 이용권 (그룹마다 내일 시작하는 READY 하나)
+		for (int g = 0; g < volumes.userGroups; g++) {
+			rows.add(new Object[] { nextSeq++, packageSeqs.get(random.nextInt(packageSeqs.size())), "G" + g, 10 + random.nextInt(20),
+					Timestamp.valueOf(now.plusDays(1)), Timestamp.valueOf(now.plusDays(61)) });
+		}
+		flush("insert into bulk_pass (bulk_pass_seq, package_seq, user_group_id, status, count, started_at, ended_at) values (?, ?, ?, 'READY', ?, ?, ?)", rows);
+		counts.put("bulk_pass", (long) volumes.userGroups);
+
+		// 5. 이용권 (만료 대상 / 진행 중 / 이미 만료)
+		long expiredTargets = 0;
+		for (int i = 0; i < volumes.passes; i++) {
+			double r = random.nextDouble();
+			LocalDateTime startedAt = now.minusDays(30 + random.nextInt(300));
+			String status;
+			LocalDateTime endedAt;
+			LocalDateTime expiredAt = null;
+			if (r < volumes.expiredPassRatio) {
+				status = "PROGRESSED";
+				endedAt = now.minusMinutes(1 + random.nextInt(60 * 24 * 30));
+				expiredTargets++;
+			} else if (r < volumes.expiredPassRatio + (1 - volumes.expiredPassRatio) / 2) {
+				status = "PROGRESSED";
+				endedAt = now.plusDays(1 + random.nextInt(180));
+			} else {
+				status = "EXPIRED";
+				endedAt = now.minusDays(1 + random.nextInt(300));
+				expiredAt = endedAt.plusHours(1);
+			}
+			rows.add(new Object[] { nextSeq++, packageSeqs.get(random.nextInt(packageSeqs.size())), userId(random.nextInt(volumes.users)),
+					status, random.nextInt(31), Timestamp.valueOf(startedAt), Timestamp.valueOf(endedAt),
+					expiredAt == null ? null : Timestamp.valueOf(expiredAt) });
+			flushIfFull("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at, expired_at) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+		}
+		flush("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at, expired_at) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+		counts.put("pass", (long) volumes.passes);
+
+		// 6. 예약 (알림 대상은 10분 안에 시작하는 READY 예약, 나머지는 지난 예약이나 먼 미래 예약)
+		long notificationTargets = 0;
+		long usedBookings = 0;
+		for (int i = 0; i < volumes.bookings; i++) {
+			int user = random.nextInt(volumes.users);
+			LocalDateTime startedAt;
+			String status = "READY";
+			if (random.nextDouble() < volumes.upcomingBookingRatio) {
+				startedAt = now.plusMinutes(1 + random.nextInt(9));
+				if (withUuid[user]) {
+					notificationTargets++;
+				}
+			} else if (random.nextBoolean()) {
+				startedAt = now.minusDays(1 + random.nextInt(300));
+				status = "COMPLETED";
+				usedBookings++;
+			} else {
+				startedAt = now.plusDays(1 + random.nextInt(30));
+			}
+			Timestamp createAt = Timestamp.valueOf(startedAt.minusDays(7));
+			rows.add(new Object[] { nextSeq++, SEED_SEQ + random.nextInt(Math.max(1, volumes.passes)), userId(user), status,
+					"COMPLETED".equals(status), "COMPLETED".equals(status), Timestamp.valueOf(startedAt), Timestamp.valueOf(startedAt.plusHours(1)),
+					createAt, createAt });
+			flushIfFull("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+					+ " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+		}
+		flush("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+				+ " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+		counts.put("booking", (long) volumes.bookings);
+
+		counts.put("expiredPassJob", expiredTargets);
+		counts.put("addPassesJob", mappings);
+		counts.put("sendNotificationClassJob", notificationTargets);
+		counts.put("passDeductionJob", usedBookings);
+		counts.put("bookingRollupJob", (long) volumes.bookings);
+		return counts;
+	}
+
+	private static String userId(int i) {
+		return "U" + i;
+	}
+
+	private void flushIfFull(String sql, List<Object[]> rows) {
+		if (rows.size() >= INSERT_BATCH_SIZE) {
+			flush(sql, rows);
+		}
+	}
+
+	private void flush(String sql, List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(sql, rows);
+			rows.clear();
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package com.ss.batch.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+import com.ss.batch.metrics.BatchMetricsPostProcessor;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+// 합성 데이터를 넣고 Job마다 처리량(rows/sec), 최대 힙 사용량, JDBC 실행 수를 측정한다.
+// JDBC 실행 수는 애플리케이션과 같은 JdbcMetricsDataSource(batch.jdbc 타이머)로 센다. (BatchMetricsPostProcessor를 같이 올린다)
+// 기준값은 두 가지이고, tolerance 이상 나빠지면 종료 코드 1 로 끝나서 빌드를 실패시킨다.
+// - baseline (저장소에 포함) - 행 하나당 JDBC 실행 수(jdbcPerRow). 장비와 상관없는 비율이라 어디서든 비교한다.
+// - machine-baseline (선택) - rows/sec 절대값. 장비마다 다르므로 그 장비에서 만든 파일을 지정했을 때만 비교한다.
+// ./gradlew throughputTest -Pscale=0.1
+// ./gradlew throughputTest -Pscale=0.1 -PmachineBaseline=$HOME/.batch/throughput-baseline.properties
+// ./gradlew throughputTest -Pscale=0.1 -PupdateBaseline (현재 결과를 기준값으로 저장, machineBaseline 을 지정하면 그 파일도 저장)
+//
+// 인자 (--이름=값)
+// scale - SyntheticDataGenerator.Volumes 배율 (1 이면 이용권, 예약 각 100만 건)
+// seed - 데이터 생성 seed
+// jobs - 측정할 Job (쉼표 구분, 나열한 순서대로 실행)
+// baseline - 비율 기준값 파일, machine-baseline - 처리량 기준값 파일 (없으면 처리량은 비교하지 않음)
+// tolerance - 허용하는 감소(비율은 증가) 비율
+// report - 결과 파일, update-baseline - 결과를 기준값 파일에 저장하고 비교는 하지 않는다.
+public class ThroughputHarness {
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<String, String>();
+		options.put("scale", "0.1");
+		options.put("seed", "42");
+		options.put("jobs", "expiredPassJob,addPassesJob,sendNotificationClassJob,passDeductionJob,bookingRollupJob");
+		options.put("baseline", "src/jmh/resources/throughput-baseline.properties");
+		options.put("tolerance", "0.2");
+		options.put("report", "build/reports/throughput/results.properties");
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+
+		List<String> failures = run(options);
+		if (!failures.isEmpty()) {
+			failures.forEach(System.err::println);
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+
+	private static List<String> run(Map<String, String> options) throws Exception {
+		Properties results = new Properties();
+		try (BenchmarkContext context = new BenchmarkContext(Map.of(), BatchMetricsPostProcessor.class)) {
+			// 1. 데이터 생성
+			long started = System.nanoTime();
+			SyntheticDataGenerator.Volumes volumes = new SyntheticDataGenerator.Volumes().scale(Double.parseDouble(options.get("scale")));
+			Map<String, Long> counts = new SyntheticDataGenerator(context.getJdbcTemplate(), Long.parseLong(options.get("seed"))).generate(volumes);
+			System.out.printf("데이터 생성 %s (%d ms)%n", counts, (System.nanoTime() - started) / 1_000_000);
+
+			// 2. Job 실행 (데이터는 한 번만 만들고 Job을 차례대로 실행한다.)
+			System.out.printf("%-26s %10s %10s %12s %12s %12s %12s%n", "job", "rows", "ms", "rows/sec", "peakHeapMB", "jdbc",
+					"jdbcPerRow");
+			for (String jobName : options.get("jobs").split(",")) {
+				long rows = counts.getOrDefault(jobName, 0L);
+				System.gc();
+				resetPeakHeap();
+				long jdbcStarted = jdbcCount();
+
+				started = System.nanoTime();
+				JobExecution jobExecution = context.launch(jobName);
+				long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+				if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+					throw new IllegalStateException(jobName + " 실패: " + jobExecution.getAllFailureExceptions());
+				}
+
+				long writeCount = jobExecution.getStepExecutions().stream().mapToLong(StepExecution::getWriteCount).sum();
+				long rowsPerSec = rows * 1000 / elapsedMillis;
+				long peakHeapMb = peakHeap() / (1024 * 1024);
+				long jdbc = jdbcCount() - jdbcStarted;
+				String jdbcPerRow = String.format("%.4f", rows == 0 ? 0.0 : (double) jdbc / rows);
+				System.out.printf("%-26s %10d %10d %12d %12d %12d %12s%n", jobName, rows, elapsedMillis, rowsPerSec, peakHeapMb, jdbc,
+						jdbcPerRow);
+				results.setProperty(jobName + ".rows", String.valueOf(rows));
+				results.setProperty(jobName + ".writeCount", String.valueOf(writeCount));
+				results.setProperty(jobName + ".elapsedMillis", String.valueOf(elapsedMillis));
+				results.setProperty(jobName + ".rowsPerSec", String.valueOf(rowsPerSec));
+				results.setProperty(jobName + ".peakHeapMb", String.valueOf(peakHeapMb));
+				results.setProperty(jobName + ".jdbc", String.valueOf(jdbc));
+				results.setProperty(jobName + ".jdbcPerRow", jdbcPerRow);
+			}
+		}
+		store(results, Paths.get(options.get("report")), "throughput report scale=" + options.get("scale"));
+
+		// 3. 기준값 저장 또는 비교
+		Path baselinePath = Paths.get(options.get("baseline"));
+		Path machineBaselinePath = options.containsKey("machine-baseline") ? Paths.get(options.get("machine-baseline")) : null;
+		if (options.containsKey("update-baseline")) {
+			store(select(results, options, ".jdbcPerRow"), baselinePath,
+					"maximum JDBC executions per row, scale=" + options.get("scale") + " seed=" + options.get("seed"));
+			System.out.println("기준값 저장: " + baselinePath);
+			if (machineBaselinePath != null) {
+				store(select(results, options, ".rowsPerSec"), machineBaselinePath,
+						"minimum rows/sec per job on this machine, scale=" + options.get("scale") + " seed=" + options.get("seed"));
+				System.out.println("처리량 기준값 저장: " + machineBaselinePath);
+			}
+			return List.of();
+		}
+
+		String scale = options.get("scale");
+		double tolerance = Double.parseDouble(options.get("tolerance"));
+		List<String> failures = new ArrayList<String>();
+		failures.addAll(compare(results, load(baselinePath), ".jdbcPerRow", scale, tolerance));
+		if (machineBaselinePath != null) {
+			failures.addAll(compare(results, load(machineBaselinePath), ".rowsPerSec", scale, tolerance));
+		}
+		return failures;
+	}
+
+	private static Properties select(Properties results, Map<String, String> options, String suffix) {
+		Properties baseline = new Properties();
+		baseline.setProperty("scale", options.get("scale"));
+		for (String name : results.stringPropertyNames()) {
+			if (name.endsWith(suffix)) {
+				baseline.setProperty(name, results.getProperty(name));
+			}
+		}
+		return baseline;
+	}
+
+	// 기준값이 있는 Job만 비교한다. (기준값이 없는 Job은 측정만)
+	// 건수가 다르면 비율도 달라지므로 (Job 시작, 메타데이터 비용 비중) 기준값과 같은 scale 로 실행해야 한다.
+	// rowsPerSec 는 낮아지면, jdbcPerRow 는 높아지면 실패
+	private static List<String> compare(Properties results, Properties baseline, String suffix, String scale, double tolerance) {
+		List<String> failures = new ArrayList<String>();
+		String baselineScale = baseline.getProperty("scale");
+		if (baselineScale != null && Double.parseDouble(baselineScale) != Double.parseDouble(scale)) {
+			failures.add(String.format("기준값 scale(%s)과 실행 scale(%s)이 다름", baselineScale, scale));
+			return failures;
+		}
+		boolean higherIsBetter = suffix.equals(".rowsPerSec");
+		for (String name : baseline.stringPropertyNames()) {
+			if (!name.endsWith(suffix) || results.getProperty(name) == null) {
+				continue;
+			}
+			double expected = Double.parseDouble(baseline.getProperty(name).trim());
+			double actual = Double.parseDouble(results.getProperty(name));
+			boolean regressed = higherIsBetter ? actual < expected * (1 - tolerance) : actual > expected * (1 + tolerance);
+			if (regressed) {
+				failures.add(String.format("성능 저하 %s: %s (기준값 %s, 허용 %.0f%%)", name, results.getProperty(name),
+						baseline.getProperty(name).trim(), tolerance * 100));
+			}
+		}
+		return failures;
+	}
+
+	// JdbcMetricsDataSource가 기록한 execute* 호출 수 합계 (query + update + batch, JDBC 배치 한 번은 한 번)
+	private static long jdbcCount() {
+		return Metrics.globalRegistry.find("batch.jdbc").timers().stream().mapToLong(Timer::count).sum();
+	}
+
+	private static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	// 힙 영역(Eden, Survivor, Old)마다의 최대 사용량 합 (영역마다 최대 시점이 달라서 실제 최대보다 조금 크게 나올 수 있다)
+	private static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	private static Properties load(Path path) throws IOException {
+		Properties properties = new Properties();
+		if (Files.exists(path)) {
+			try (InputStream in = Files.newInputStream(path)) {
+				properties.load(in);
+			}
+		}
+		return properties;
+	}
+
+	private static void store(Properties properties, Path path, String comment) throws IOException {
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		try (OutputStream out = Files.newOutputStream(path)) {
+			properties.store(out, comment);
+		}
+	}
+}
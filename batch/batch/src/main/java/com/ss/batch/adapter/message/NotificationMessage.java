@@ -0,0 +1,12 @@
+package com.ss.batch.adapter.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// 수신자 한 명에게 보낼 메시지 (여러 명에게 한 번에 보낼 때 사용)
+@Data
+@AllArgsConstructor
+public class NotificationMessage {
+	private String uuid;	// 카카오톡 수신자
+	private String text;	// 메시지 내용
+}
@@ -0,0 +1,29 @@
+package com.ss.batch.adapter.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 알림을 실제로 외부 메시지 API(카카오톡 등)로 보내는 역할
+// 배치 step은 이 인터페이스만 알고 있어서 실제 API 대신 테스트용 구현체로 바꿔 끼울 수 있다.
+public interface NotificationSender {
+	// 채널 이름 (채널마다 초당 발송 한도를 따로 건다)
+	String getChannel();
+
+	// 한 명에게 메시지 발송, 성공하면 true
+	boolean send(String uuid, String text);
+
+	// 요청 한 번에 보낼 수 있는 최대 수신자 수 (1이면 한 명씩만 보낼 수 있는 API)
+	default int getMaxBatchSize() {
+		return 1;
+	}
+
+	// 여러 명에게 요청 한 번으로 발송, 수신자 순서대로 성공 여부를 돌려준다.
+	// 한 번에 보내는 API가 없으면 한 명씩 보낸다.
+	default List<Boolean> sendBatch(List<NotificationMessage> messages) {
+		List<Boolean> results = new ArrayList<Boolean>(messages.size());
+		for (NotificationMessage message : messages) {
+			results.add(send(message.getUuid(), message.getText()));
+		}
+		return results;
+	}
+}
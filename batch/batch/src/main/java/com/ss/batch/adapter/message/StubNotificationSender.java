@@ -0,0 +1,93 @@
+package com.ss.batch.adapter.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 외부 API 없이 발송 step을 돌려볼 수 있는 테스트용 발송기
+// 실제 네트워크 호출처럼 지연 시간(latency)과 실패 비율을 흉내낸다.
+@Slf4j
+@Component
+public class StubNotificationSender implements NotificationSender {
+	private final String channel;
+	private final long latencyMillis;
+	private final double failureRate;
+	private final int maxBatchSize;
+
+	// 지금까지 보낸 메시지 수 / API 요청 수
+	private final AtomicLong sentCount = new AtomicLong();
+	private final AtomicLong requestCount = new AtomicLong();
+
+	public StubNotificationSender(@Value("${batch.notification.stub.channel:kakaotalk}") String channel,
+			@Value("${batch.notification.stub.latency-ms:50}") long latencyMillis,
+			@Value("${batch.notification.stub.failure-rate:0.0}") double failureRate,
+			@Value("${batch.notification.stub.max-batch-size:100}") int maxBatchSize) {
+		this.channel = channel;
+		this.latencyMillis = latencyMillis;
+		this.failureRate = failureRate;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	@Override
+	public String getChannel() {
+		return channel;
+	}
+
+	@Override
+	public boolean send(String uuid, String text) {
+		requestCount.incrementAndGet();
+		sleep();
+		return deliver(uuid, text);
+	}
+
+	@Override
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	// 여러 명에게 보내도 요청은 한 번이라 지연 시간도 한 번만 걸린다.
+	@Override
+	public List<Boolean> sendBatch(List<NotificationMessage> messages) {
+		requestCount.incrementAndGet();
+		sleep();
+		List<Boolean> results = new ArrayList<Boolean>(messages.size());
+		for (NotificationMessage message : messages) {
+			results.add(deliver(message.getUuid(), message.getText()));
+		}
+		return results;
+	}
+
+	public long getSentCount() {
+		return sentCount.get();
+	}
+
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	private boolean deliver(String uuid, String text) {
+		if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+			return false;
+		}
+		sentCount.incrementAndGet();
+		log.debug("stub send uuid: {} text: {}", uuid, text);
+		return true;
+	}
+
+	private void sleep() {
+		if (latencyMillis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(latencyMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.ss.batch.adapter.message;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+// 채널별 초당 발송 한도를 지키기 위한 토큰 버킷
+// 버킷에는 최대 burst 개의 토큰이 있고 초당 permitsPerSecond 개씩 다시 채워진다.
+// 발송 전에 토큰을 하나 가져가고, 토큰이 없으면 채워질 때까지 기다린다.
+//
+// 채널별 설정 (없으면 default 값 사용)
+// batch.notification.rate-limit.{채널}.permits-per-second
+// batch.notification.rate-limit.{채널}.burst
+@Component
+public class TokenBucketRateLimiter {
+	private final Environment environment;
+	private final Map<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+
+	public TokenBucketRateLimiter(Environment environment) {
+		this.environment = environment;
+	}
+
+	// 토큰을 하나 가져올 때까지 기다린다.
+	public void acquire(String channel) throws InterruptedException {
+		Bucket bucket = buckets.computeIfAbsent(channel, this::createBucket);
+		long waitNanos;
+		while ((waitNanos = bucket.tryAcquire()) > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+	}
+
+	private Bucket createBucket(String channel) {
+		double permitsPerSecond = environment.getProperty("batch.notification.rate-limit." + channel + ".permits-per-second",
+				Double.class, environment.getProperty("batch.notification.rate-limit.default.permits-per-second", Double.class, 50.0));
+		double burst = environment.getProperty("batch.notification.rate-limit." + channel + ".burst", Double.class,
+				environment.getProperty("batch.notification.rate-limit.default.burst", Double.class, permitsPerSecond));
+		return new Bucket(permitsPerSecond, burst);
+	}
+
+	private static class Bucket {
+		private final double permitsPerNano;
+		private final double capacity;
+		private double tokens;
+		private long lastRefillNanos;
+
+		Bucket(double permitsPerSecond, double capacity) {
+			this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+			this.capacity = Math.max(capacity, 1.0);
+			this.tokens = this.capacity;
+			this.lastRefillNanos = System.nanoTime();
+		}
+
+		// 토큰을 가져오면 0, 부족하면 다음 토큰까지 기다려야 하는 시간(ns)
+		synchronized long tryAcquire() {
+			long now = System.nanoTime();
+			tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+			lastRefillNanos = now;
+
+			if (tokens >= 1.0) {
+				tokens -= 1.0;
+				return 0L;
+			}
+			return Math.max(1L, (long) Math.ceil((1.0 - tokens) / permitsPerNano));
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.ss.batch.config;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+// 자주 실행되는 step 전용 JobRepository (StepBuilder.repository()로 step에만 지정)
+// 청크마다 하던 BATCH_STEP_EXECUTION, BATCH_STEP_EXECUTION_CONTEXT 갱신을 flushInterval 마다 한 번으로 합친다.
+// - step 시작 (첫 갱신)과 step 종료 (COMPLETED, FAILED ...) 상태는 항상 저장한다.
+// - 건너뛴 갱신은 메모리에만 남고, 다음에 저장할 때 그때까지의 값이 한 번에 저장된다.
+// - 중지 요청(stop)도 저장할 때 확인하기 때문에 최대 flushInterval 만큼 늦게 멈춘다.
+// - 서버가 죽으면 마지막으로 저장한 시점부터 다시 처리하므로 다시 처리해도 되는 step에만 사용한다.
+//   reader가 읽은 건수(ExecutionContext)도 늦게 저장되므로 건수만큼 건너뛰는 reader는 안 되고,
+//   키셋 reader나 처리한 행이 조회 조건에서 빠지는 reader(saveState=false)여야 한다.
+// Job 실행, step 생성 등 나머지는 그대로 위임한다.
+public class CoalescingJobRepository implements JobRepository {
+	private final JobRepository delegate;
+	private final long flushIntervalNanos;
+
+	// step 실행 ID → 마지막으로 저장한 시각 (System.nanoTime)
+	private final Map<Long, Long> lastFlushNanos = new ConcurrentHashMap<Long, Long>();
+
+	public CoalescingJobRepository(JobRepository delegate, long flushIntervalMillis) {
+		this.delegate = delegate;
+		this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+	}
+
+	@Override
+	public void update(StepExecution stepExecution) {
+		if (!stepExecution.getStatus().isRunning()) {
+			lastFlushNanos.remove(stepExecution.getId());
+			delegate.update(stepExecution);
+		} else if (isFlushDue(stepExecution)) {
+			lastFlushNanos.put(stepExecution.getId(), System.nanoTime());
+			delegate.update(stepExecution);
+		} else {
+			coalesced(stepExecution, "step");
+		}
+	}
+
+	// update(StepExecution) 보다 먼저 호출되므로 저장 시각은 update 에서 기록한다.
+	@Override
+	public void updateExecutionContext(StepExecution stepExecution) {
+		if (!stepExecution.getStatus().isRunning() || isFlushDue(stepExecution)) {
+			delegate.updateExecutionContext(stepExecution);
+		} else {
+			coalesced(stepExecution, "context");
+		}
+	}
+
+	private boolean isFlushDue(StepExecution stepExecution) {
+		Long last = lastFlushNanos.get(stepExecution.getId());
+		return last == null || System.nanoTime() - last >= flushIntervalNanos;
+	}
+
+	private void coalesced(StepExecution stepExecution, String type) {
+		Counter.builder("batch.metadata.coalesced").tag("step", stepExecution.getStepName()).tag("type", type)
+				.register(Metrics.globalRegistry).increment();
+	}
+
+	@Override
+	public boolean isJobInstanceExists(String jobName, JobParameters jobParameters) {
+		return delegate.isJobInstanceExists(jobName, jobParameters);
+	}
+
+	@Override
+	public JobInstance createJobInstance(String jobName, JobParameters jobParameters) {
+		return delegate.createJobInstance(jobName, jobParameters);
+	}
+
+	@Override
+	public JobExecution createJobExecution(JobInstance jobInstance, JobParameters jobParameters, String jobConfigurationLocation) {
+		return delegate.createJobExecution(jobInstance, jobParameters, jobConfigurationLocation);
+	}
+
+	@Override
+	public JobExecution createJobExecution(String jobName, JobParameters jobParameters)
+			throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+		return delegate.createJobExecution(jobName, jobParameters);
+	}
+
+	@Override
+	public void update(JobExecution jobExecution) {
+		delegate.update(jobExecution);
+	}
+
+	@Override
+	public void add(StepExecution stepExecution) {
+		delegate.add(stepExecution);
+	}
+
+	@Override
+	public void addAll(Collection<StepExecution> stepExecutions) {
+		delegate.addAll(stepExecutions);
+	}
+
+	@Override
+	public void updateExecutionContext(JobExecution jobExecution) {
+		delegate.updateExecutionContext(jobExecution);
+	}
+
+	@Override
+	public StepExecution getLastStepExecution(JobInstance jobInstance, String stepName) {
+		return delegate.getLastStepExecution(jobInstance, stepName);
+	}
+
+	@Override
+	public int getStepExecutionCount(JobInstance jobInstance, String stepName) {
+		return delegate.getStepExecutionCount(jobInstance, stepName);
+	}
+
+	@Override
+	public JobExecution getLastJobExecution(String jobName, JobParameters jobParameters) {
+		return delegate.getLastJobExecution(jobName, jobParameters);
+	}
+}
@@ -0,0 +1,41 @@
+package com.ss.batch.config;
+
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.PartitionHandler;
+import org.springframework.batch.integration.partition.MessageChannelPartitionHandler;
+import org.springframework.integration.core.MessagingTemplate;
+import org.springframework.messaging.MessageChannel;
+
+// 원격 파티션 매니저 쪽에서 사용하는 PartitionHandler를 만든다.
+// 파티션마다 StepExecutionRequest 메시지를 요청 채널로 보내고, 결과는 응답 메시지 대신
+// JobRepository(배치 메타 테이블)를 pollInterval 마다 조회해서 모든 워커 step이 끝났는지 확인한다.
+public class RemotePartitioning {
+	private final MessageChannel requestChannel;
+	private final JobExplorer jobExplorer;
+	private final long pollIntervalMillis;
+	private final long timeoutMillis;
+
+	public RemotePartitioning(MessageChannel requestChannel, JobExplorer jobExplorer, long pollIntervalMillis, long timeoutMillis) {
+		this.requestChannel = requestChannel;
+		this.jobExplorer = jobExplorer;
+		this.pollIntervalMillis = pollIntervalMillis;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	// workerStepName - 워커 JVM에서 실행할 step 빈 이름
+	public PartitionHandler partitionHandler(String workerStepName, int gridSize) {
+		MessageChannelPartitionHandler partitionHandler = new MessageChannelPartitionHandler();
+		partitionHandler.setMessagingOperations(new MessagingTemplate(requestChannel));
+		partitionHandler.setJobExplorer(jobExplorer);
+		partitionHandler.setPollInterval(pollIntervalMillis);
+		partitionHandler.setTimeout(timeoutMillis);
+		partitionHandler.setStepName(workerStepName);
+		partitionHandler.setGridSize(gridSize);
+		try {
+			partitionHandler.afterPropertiesSet();
+		} catch (Exception e) {
+			throw new IllegalStateException("원격 파티션 설정 오류 step: " + workerStepName, e);
+		}
+		return partitionHandler;
+	}
+}
@@ -0,0 +1,117 @@
+package com.ss.batch.config;
+
+import java.sql.DatabaseMetaData;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.integration.partition.BeanFactoryStepLocator;
+import org.springframework.batch.integration.partition.StepExecutionRequestHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.dsl.IntegrationFlows;
+import org.springframework.integration.dsl.Pollers;
+import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+import org.springframework.integration.jdbc.store.channel.H2ChannelMessageStoreQueryProvider;
+import org.springframework.integration.jdbc.store.channel.MySqlChannelMessageStoreQueryProvider;
+import org.springframework.integration.store.MessageGroupQueue;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 원격 파티션 설정 (expiredPassJob, addPassesJob)
+// 매니저 JVM이 파티션을 나눠서 요청 채널에 넣고, 워커 JVM들이 요청을 꺼내서 워커 step을 실행한다.
+// 실행 결과는 워커가 배치 메타 테이블에 저장하고 매니저는 그 테이블을 조회해서 끝났는지 확인한다.
+//
+// batch.remote-partitioning.manager - true 이면 Job의 파티션 step이 요청을 채널로 보낸다. (manager 프로필)
+// batch.remote-partitioning.worker - true 이면 채널에서 요청을 꺼내서 실행한다. (worker 프로필)
+// batch.remote-partitioning.transport
+//   jdbc - 요청 채널을 DB 테이블(INT_CHANNEL_MESSAGE)에 저장, 같은 DB를 보는 여러 JVM이 나눠서 처리 (브로커 대신 사용)
+//   memory - JVM 안의 큐 (매니저와 워커를 한 JVM에서 같이 띄울 때만 사용)
+@Slf4j
+@Configuration
+@ConditionalOnExpression("${batch.remote-partitioning.manager:false} or ${batch.remote-partitioning.worker:false}")
+public class RemotePartitioningConfig {
+	// 요청 메시지를 묶는 그룹 이름 (JDBC 큐에서 GROUP_KEY로 저장)
+	public static final String REQUEST_GROUP = "partitionRequests";
+
+	@Value("${batch.remote-partitioning.transport:jdbc}")
+	private String transport;
+
+	@Value("${batch.remote-partitioning.poll-interval-ms:1000}")
+	private long pollIntervalMillis;
+
+	@Bean
+	public QueueChannel partitionRequests(DataSource dataSource) {
+		if ("memory".equals(transport)) {
+			return new QueueChannel();
+		}
+		JdbcChannelMessageStore messageStore = new JdbcChannelMessageStore(dataSource);
+		messageStore.setChannelMessageStoreQueryProvider("H2".equals(databaseName(dataSource))
+				? new H2ChannelMessageStoreQueryProvider() : new MySqlChannelMessageStoreQueryProvider());
+		messageStore.afterPropertiesSet();
+		return new QueueChannel(new MessageGroupQueue(messageStore, REQUEST_GROUP));
+	}
+
+	// 매니저 - timeout-ms 안에 모든 파티션이 끝나지 않으면 파티션 step 실패 (-1 이면 제한 없음)
+	@Bean
+	@ConditionalOnProperty(name = "batch.remote-partitioning.manager", havingValue = "true")
+	public RemotePartitioning remotePartitioning(QueueChannel partitionRequests, JobExplorer jobExplorer,
+			@Value("${batch.remote-partitioning.timeout-ms:-1}") long timeoutMillis) {
+		log.info("원격 파티션 매니저 transport: {}", transport);
+		return new RemotePartitioning(partitionRequests, jobExplorer, pollIntervalMillis, timeoutMillis);
+	}
+
+	// 워커 - poll-interval-ms 마다 요청을 한 건씩 꺼내서 step 이름으로 찾은 워커 step을 실행한다.
+	// 동시에 실행하는 파티션은 concurrency 개까지, 모두 실행 중이면 그 주기는 꺼내지 않고 넘어간다. (요청은 큐에 남아서 다른 워커가 가져갈 수 있다.)
+	// 요청을 꺼낸 뒤 워커가 죽으면 그 파티션은 STARTED로 남고, 매니저가 timeout 후 실패 처리하면 Job 재시작 때 다시 요청된다.
+	@Bean
+	@ConditionalOnProperty(name = "batch.remote-partitioning.worker", havingValue = "true")
+	public IntegrationFlow partitionWorkerFlow(QueueChannel partitionRequests, JobExplorer jobExplorer, BeanFactory beanFactory,
+			@Qualifier("partitionWorkerTaskExecutor") ThreadPoolTaskExecutor partitionWorkerTaskExecutor) {
+		BeanFactoryStepLocator stepLocator = new BeanFactoryStepLocator();
+		stepLocator.setBeanFactory(beanFactory);
+
+		StepExecutionRequestHandler handler = new StepExecutionRequestHandler();
+		handler.setJobExplorer(jobExplorer);
+		handler.setStepLocator(stepLocator);
+
+		log.info("원격 파티션 워커 transport: {} concurrency: {}", transport, partitionWorkerTaskExecutor.getMaxPoolSize());
+		return IntegrationFlows.from(partitionRequests)
+				.handle(handler, "handle", e -> e.poller(Pollers.fixedDelay(pollIntervalMillis).maxMessagesPerPoll(1)
+						.taskExecutor(partitionWorkerTaskExecutor)))
+				.nullChannel();
+	}
+
+	// 대기 큐 없이 concurrency 개 스레드만 사용, 스레드가 모두 바쁘면 이번 poll은 버린다.
+	@Bean
+	@ConditionalOnProperty(name = "batch.remote-partitioning.worker", havingValue = "true")
+	public ThreadPoolTaskExecutor partitionWorkerTaskExecutor(@Value("${batch.remote-partitioning.worker.concurrency:2}") int concurrency) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(concurrency);
+		executor.setMaxPoolSize(concurrency);
+		executor.setQueueCapacity(0);
+		executor.setRejectedExecutionHandler((task, pool) -> {
+		});
+		executor.setThreadNamePrefix("partition-worker-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+
+	private static String databaseName(DataSource dataSource) {
+		try {
+			return JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+		} catch (MetaDataAccessException e) {
+			throw new IllegalStateException("DB 종류를 확인할 수 없음", e);
+		}
+	}
+}
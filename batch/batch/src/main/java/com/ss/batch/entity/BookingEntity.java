@@ -30,6 +30,7 @@ public class BookingEntity extends BaseEntity{
 	
 	private boolean usedPass;		// 이용권 사용 여부
 	private boolean attended;		// 참석 여부(통계, 분석)
+	private boolean deducted;		// 이용권 잔여 횟수 차감 반영 여부 (passDeductionJob)
 	
 	private LocalDateTime startedAt;	// 시작 시간
 	private LocalDateTime endedAt;		// 종료 시간
@@ -38,6 +39,6 @@ public class BookingEntity extends BaseEntity{
 	// 예약한 사람의 메시지를 보내기 위해서 user 테이블과 조인
 	// 여러 예약이 하나의 사용자에게 저장될 수 있다.
 	@ManyToOne(fetch = FetchType.LAZY)
-	@JoinColumn(name = "userId")
+	@JoinColumn(name = "userId", insertable = false, updatable = false) // userId 필드가 값을 관리하고 조인은 읽기 전용
 	private UserEntity userEntity;
 }
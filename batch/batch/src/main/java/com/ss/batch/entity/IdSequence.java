@@ -0,0 +1,18 @@
+package com.ss.batch.entity;
+
+// 엔티티 순번을 미리 블록 단위로 받아오는 테이블 기반 ID 생성기 설정
+// IDENTITY 전략은 INSERT를 해야 ID를 알 수 있어서 Hibernate가 JDBC batch insert를 꺼버린다.
+// id_sequence 테이블에서 ALLOCATION_SIZE 만큼 한 번에 받아오면(pooled-lo) 여러 건을 한 번에 INSERT 할 수 있다.
+// 블록을 받아올 때는 별도 트랜잭션에서 SELECT ... FOR UPDATE 로 행을 잠그기 때문에 여러 Job이 동시에 실행되어도 겹치지 않는다.
+public final class IdSequence {
+	public static final String TABLE = "id_sequence";
+	public static final String NAME_COLUMN = "sequence_name";
+	public static final String VALUE_COLUMN = "next_val";
+
+	// 대량으로 만들어지는 이용권, 알림은 청크 하나에 몇 번만 받아오도록 크게 잡는다.
+	// 예약(booking), 대량 이용권(bulk_pass)은 배치가 INSERT 하지 않고 외부에서 순번 없이 넣으므로 IDENTITY(AUTO_INCREMENT)를 쓴다.
+	public static final int LARGE_ALLOCATION_SIZE = 500;
+
+	private IdSequence() {
+	}
+}
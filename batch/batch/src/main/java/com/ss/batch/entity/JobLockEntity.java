@@ -0,0 +1,23 @@
+package com.ss.batch.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.Data;
+
+// 스케줄러가 Job을 실행하기 전에 잡는 잠금
+// lockUntil 이 지나지 않았으면 다른 서버는 같은 Job을 실행하지 않는다.
+@Data
+@Entity
+@Table(name = "batch_job_lock")
+public class JobLockEntity extends BaseEntity {
+	@Id
+	private String jobName;					// Job 이름
+	private String lockedBy;				// 잠금을 잡은 서버 (pid@host)
+	private LocalDateTime lockedAt;			// 잠금을 잡은 시각
+	private LocalDateTime lockUntil;		// 잠금 만료 시각
+	private LocalDateTime lastFireTime;		// 마지막으로 실행한 cron 실행 시각
+}
@@ -0,0 +1,20 @@
+package com.ss.batch.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.Data;
+
+// Job 마다 마지막으로 처리한 기준 시각(high watermark)을 저장하는 테이블
+// 다음 실행은 watermark 이후 데이터만 읽어서 처리한다.
+@Data
+@Entity
+@Table(name = "job_watermark")
+public class JobWatermarkEntity extends BaseEntity {
+	@Id
+	private String jobName;				// Job 이름
+	private LocalDateTime watermark;	// 이 시각까지 처리 완료
+}
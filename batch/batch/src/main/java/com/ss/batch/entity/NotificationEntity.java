@@ -16,8 +16,11 @@ import lombok.Data;
 @Table(name = "notification")
 public class NotificationEntity extends BaseEntity{
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_generator")
+	@TableGenerator(name = "notification_generator", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+			valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "notification", allocationSize = IdSequence.LARGE_ALLOCATION_SIZE)
 	private Long notificationSeq;		// 알람 순서
+	private Long bookingSeq;			// 알림을 만든 예약 순번 (예약, 이벤트마다 한 번만 만든다)
 	private String uuid;				// 카카오톡
 	
 	private NotificationEvent event;	// 수업 전 알림을 보내기 위해서 event
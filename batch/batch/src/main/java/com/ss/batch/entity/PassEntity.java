@@ -10,6 +10,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.TableGenerator;
 
 import lombok.Data;
 
@@ -22,7 +23,9 @@ import lombok.Data;
 @Table(name = "pass")
 public class PassEntity {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "pass_generator")
+	@TableGenerator(name = "pass_generator", table = IdSequence.TABLE, pkColumnName = IdSequence.NAME_COLUMN,
+			valueColumnName = IdSequence.VALUE_COLUMN, pkColumnValue = "pass", allocationSize = IdSequence.LARGE_ALLOCATION_SIZE)
 //	@Column(name = "pass_seq")
 	private Long pass_seq; // 이용권 순번
 	private Long package_seq;
@@ -37,6 +40,7 @@ public class PassEntity {
 	private LocalDateTime started_at;
 	private LocalDateTime ended_at;
 	private LocalDateTime expired_at; // 만료일자
+	private Long bulk_pass_seq; // 대량 이용권으로 발급했을 때 대량 이용권 순번 ((bulk_pass_seq, user_id) 유니크)
 //	private LocalDateTime created_at;
 //	private LocalDateTime modified_at;
 }
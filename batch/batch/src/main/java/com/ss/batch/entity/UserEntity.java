@@ -28,5 +28,8 @@ public class UserEntity extends BaseEntity{
 	private Map<String, Object> meta; // 세부정보
 	
 	// 후반에 일괄적으로 고객한테 배포하기 위해서 카카오톡 메시지 보낼 때 UUID를 메타 데이터에서 추출해서 저장
-	
+	// DB가 meta 의 uuid 값으로 채우는 생성 컬럼이라 읽기만 한다.
+	@Column(insertable = false, updatable = false)
+	private String uuid;
+
 }
@@ -0,0 +1,109 @@
+package com.ss.batch.job.daily;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.job.flow.support.SimpleFlow;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.step.job.DefaultJobParametersExtractor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// 하루 배치를 한 번에 실행하는 Job
+// 각 Job을 JobStep으로 감싸서 (Job의 step, listener, 재시작 정보는 그대로) 서로 다른 행을 다루는 흐름끼리 동시에 실행한다.
+// 전체 시간은 모든 Job 시간의 합이 아니라 가장 긴 흐름의 시간이 된다.
+//  ┌ 이용권 흐름: 만료(expiredPassJob) → 잔여 횟수 차감(passDeductionJob) - 같은 이용권 행을 다뤄서 순서대로
+//  ├ 발급 흐름: 대량 이용권 발급(addPassesJob) → 성공하면 알림(sendNotificationClassJob)
+//  └ 집계 흐름: 예약 집계(bookingRollupJob)
+// 앞 단계가 실패한 흐름은 뒤 단계를 실행하지 않고, 모든 흐름이 끝나면 하나라도 실패했으면 Job도 실패한다.
+// 재시작하면 완료된 JobStep은 건너뛰고 실패한 Job만 다시 실행한다.
+@Configuration
+public class DailyBatchJobConfig {
+	private final JobBuilderFactory jobBuilderFactory;
+	private final StepBuilderFactory stepBuilderFactory;
+	private final JobLauncher jobLauncher;
+
+	private final Job expiredPassJob;
+	private final Job passDeductionJob;
+	private final Job addPassesJob;
+	private final Job sendNotificationClassJob;
+	private final Job bookingRollupJob;
+
+	// 흐름을 동시에 실행할 스레드 수 (흐름 개수보다 적으면 남는 흐름은 앞 흐름이 끝날 때까지 기다린다)
+	private final int poolSize;
+
+	public DailyBatchJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory, JobLauncher jobLauncher,
+			@Qualifier("expiredPassJob") Job expiredPassJob,
+			@Qualifier("passDeductionJob") Job passDeductionJob,
+			@Qualifier("addPassesJob") Job addPassesJob,
+			@Qualifier("sendNotificationClassJob") Job sendNotificationClassJob,
+			@Qualifier("bookingRollupJob") Job bookingRollupJob,
+			@Value("${batch.daily.pool-size:3}") int poolSize) {
+		this.jobBuilderFactory = jobBuilderFactory;
+		this.stepBuilderFactory = stepBuilderFactory;
+		this.jobLauncher = jobLauncher;
+		this.expiredPassJob = expiredPassJob;
+		this.passDeductionJob = passDeductionJob;
+		this.addPassesJob = addPassesJob;
+		this.sendNotificationClassJob = sendNotificationClassJob;
+		this.bookingRollupJob = bookingRollupJob;
+		this.poolSize = poolSize;
+	}
+
+	@Bean
+	public Job dailyBatchJob() {
+		Flow split = new FlowBuilder<SimpleFlow>("dailyBatchSplitFlow")
+				.split(dailyBatchTaskExecutor())
+				.add(dailyPassFlow(), dailyIssueFlow(), dailyRollupFlow())
+				.build();
+		return this.jobBuilderFactory.get("dailyBatchJob").start(split).end().build();
+	}
+
+	// 만료가 실패하면 차감하지 않는다.
+	private Flow dailyPassFlow() {
+		Step expiredPassJobStep = jobStep("expiredPassJobStep", expiredPassJob);
+		return new FlowBuilder<SimpleFlow>("dailyPassFlow")
+				.start(expiredPassJobStep).on("FAILED").fail()
+				.from(expiredPassJobStep).on("*").to(jobStep("passDeductionJobStep", passDeductionJob))
+				.end();
+	}
+
+	// 발급이 실패하면 알림을 보내지 않는다.
+	private Flow dailyIssueFlow() {
+		Step addPassesJobStep = jobStep("addPassesJobStep", addPassesJob);
+		return new FlowBuilder<SimpleFlow>("dailyIssueFlow")
+				.start(addPassesJobStep).on("FAILED").fail()
+				.from(addPassesJobStep).on("*").to(jobStep("sendNotificationClassJobStep", sendNotificationClassJob))
+				.end();
+	}
+
+	private Flow dailyRollupFlow() {
+		return new FlowBuilder<SimpleFlow>("dailyRollupFlow").start(jobStep("bookingRollupJobStep", bookingRollupJob)).build();
+	}
+
+	// dailyBatchJob의 JobParameter(스케줄 실행 시각 등)를 그대로 넘겨서 실행마다 각 Job의 새 인스턴스를 만든다.
+	private Step jobStep(String name, Job job) {
+		DefaultJobParametersExtractor parametersExtractor = new DefaultJobParametersExtractor();
+		parametersExtractor.setUseAllParentParameters(true);
+		return this.stepBuilderFactory.get(name).job(job).launcher(jobLauncher).parametersExtractor(parametersExtractor).build();
+	}
+
+	// 흐름마다 스레드 하나 (각 Job 안의 파티션, 발송 스레드풀은 Job 설정을 그대로 사용)
+	@Bean
+	public TaskExecutor dailyBatchTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setThreadNamePrefix("daily-batch-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.initialize();
+		return executor;
+	}
+}
@@ -0,0 +1,78 @@
+package com.ss.batch.job.export;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import org.springframework.jdbc.core.RowMapper;
+
+// 행 하나를 CSV 한 줄(줄바꿈 제외)로 바꾸는 RowMapper
+// 엔티티를 만들지 않고 바로 문자열로 바꿔서 청크 하나 동안만 메모리에 둔다.
+// NULL은 빈 값, 일시는 ISO-8601(2024-01-01T10:00), 불리언은 true / false, 쉼표 / 따옴표 / 줄바꿈이 있는 값은 따옴표로 감싼다. (RFC 4180)
+public class CsvRowMapper implements RowMapper<String> {
+	// 컬럼 타입 (첫 행에서 한 번만 읽는다)
+	private int[] types;
+
+	private final StringBuilder line = new StringBuilder(256);
+
+	@Override
+	public String mapRow(ResultSet rs, int rowNum) throws SQLException {
+		if (types == null) {
+			ResultSetMetaData metaData = rs.getMetaData();
+			types = new int[metaData.getColumnCount()];
+			for (int i = 0; i < types.length; i++) {
+				types[i] = metaData.getColumnType(i + 1);
+			}
+		}
+
+		line.setLength(0);
+		for (int i = 0; i < types.length; i++) {
+			if (i > 0) {
+				line.append(',');
+			}
+			if (types[i] == Types.TIMESTAMP) {
+				Timestamp timestamp = rs.getTimestamp(i + 1);
+				if (timestamp != null) {
+					line.append(timestamp.toLocalDateTime());
+				}
+				continue;
+			}
+			// MySQL BOOLEAN(TINYINT(1))은 BIT로 읽혀서 DB와 상관없이 true / false 로 쓴다.
+			if (types[i] == Types.BOOLEAN || types[i] == Types.BIT) {
+				boolean value = rs.getBoolean(i + 1);
+				if (!rs.wasNull()) {
+					line.append(value);
+				}
+				continue;
+			}
+			String value = rs.getString(i + 1);
+			if (value != null) {
+				appendEscaped(value);
+			}
+		}
+		return line.toString();
+	}
+
+	private void appendEscaped(String value) {
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			line.append(value);
+			return;
+		}
+		line.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				line.append('"');
+			}
+			line.append(c);
+		}
+		line.append('"');
+	}
+}
@@ -0,0 +1,46 @@
+package com.ss.batch.job.export;
+
+// 월별 추출 대상 테이블
+// 순번(기본키) 순서로 읽고, 수업/이용 시작 일시(started_at)가 그 달인 행만 내보낸다.
+// 파일의 컬럼 순서는 columns 순서와 같다. (컬럼을 추가할 때는 뒤에 붙여서 받는 쪽이 깨지지 않도록 한다)
+public enum ExportTable {
+	PASS("pass", "pass_seq", "pass_seq", "package_seq", "bulk_pass_seq", "user_id", "status", "remaining_count", "started_at",
+			"ended_at", "expired_at"),
+	BOOKING("booking", "booking_seq", "booking_seq", "pass_seq", "user_id", "status", "used_pass", "attended", "deducted",
+			"started_at", "ended_at", "cancelend_at", "create_at", "modified_at");
+
+	private final String tableName;
+	private final String seqColumn;
+	private final String[] columns;
+
+	ExportTable(String tableName, String seqColumn, String... columns) {
+		this.tableName = tableName;
+		this.seqColumn = seqColumn;
+		this.columns = columns;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public String getSeqColumn() {
+		return seqColumn;
+	}
+
+	// CSV 첫 줄
+	public String header() {
+		return String.join(",", columns);
+	}
+
+	// 그 달에 시작한 행의 순번 범위 (SeqRangePartitioner, started_at 인덱스로 바로 찾는다)
+	public String rangeSql() {
+		return "select min(" + seqColumn + ") min_seq, max(" + seqColumn + ") max_seq from " + tableName
+				+ " where started_at >= ? and started_at < ?";
+	}
+
+	// 기본키 범위를 읽으면서 걸러내기 때문에 started_at 인덱스 없이도 정렬 없이 앞으로만 읽는다.
+	public String selectSql() {
+		return "select " + String.join(", ", columns) + " from " + tableName + " where " + seqColumn + " between ? and ?"
+				+ " and started_at >= ? and started_at < ? order by " + seqColumn;
+	}
+}
@@ -0,0 +1,254 @@
+package com.ss.batch.job.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+// CSV 줄을 gzip으로 압축해서 FileChannel에 바로 쓰는 writer
+// 문자열 → (UTF-8) 입력 direct buffer → Deflater → 출력 direct buffer → FileChannel 순서로 흘려보내서
+// 몇 억 행을 써도 힙에는 청크 하나의 줄과 고정 크기 버퍼 두 개만 있다.
+// - 청크가 커밋될 때(update)마다 gzip 멤버 하나를 닫고 파일 위치를 ExecutionContext에 저장한다.
+//   gzip 파일은 멤버를 이어 붙여도 하나의 파일로 풀리므로(gunzip, GZIPInputStream), 재시작하면 저장된 위치로 잘라내고 새 멤버를 이어 쓴다.
+// - 파일이 rollSize 이상이 되면 청크 경계에서 다음 파일({prefix}-00001.csv.gz)로 넘어간다. 파일마다 첫 줄은 헤더
+@Slf4j
+public class GzipCsvFileItemWriter implements ItemStreamWriter<String> {
+	// 헤더(ID1, ID2, CM=deflate, FLG, MTIME 4바이트, XFL, OS=unknown)
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+	private static final int GZIP_TRAILER_SIZE = 8;
+	private static final byte[] NO_INPUT = new byte[0];
+
+	private static final String PART_KEY = "export.part";
+	private static final String POSITION_KEY = "export.position";
+	private static final String ROWS_KEY = "export.rows";
+
+	private final Path directory;
+	private final String prefix;
+	private final String header;
+	private final long rollSize;
+	private final int bufferSize;
+	private final int level;
+
+	private ByteBuffer input;
+	private ByteBuffer output;
+	private Deflater deflater;
+	private CRC32 crc;
+	private CharsetEncoder encoder;
+
+	private FileChannel channel;
+	// 지금 쓰는 파일 번호 / 마지막으로 커밋된 파일 위치 / 쓴 행 수 (ExecutionContext에 저장)
+	private int part;
+	private long position;
+	private long rows;
+	// 지금 쓰는 gzip 멤버의 압축 전 크기 (트레일러의 ISIZE)
+	private long memberSize;
+	private boolean memberStarted;
+
+	public GzipCsvFileItemWriter(Path directory, String prefix, String header, long rollSize, int bufferSize, int level) {
+		this.directory = directory;
+		this.prefix = prefix;
+		this.header = header;
+		this.rollSize = rollSize;
+		this.bufferSize = bufferSize;
+		this.level = level;
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		input = ByteBuffer.allocateDirect(bufferSize);
+		output = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+		// 헤더, 트레일러는 직접 쓰고 deflate 데이터만 Deflater로 만든다.
+		deflater = new Deflater(level, true);
+		crc = new CRC32();
+		encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		part = executionContext.getInt(PART_KEY, 0);
+		position = executionContext.getLong(POSITION_KEY, 0L);
+		rows = executionContext.getLong(ROWS_KEY, 0L);
+
+		// 재시작 - 마지막 커밋 이후에 쓴 내용(닫히지 않은 멤버)을 잘라낸다.
+		if (position > 0) {
+			Path path = path(part);
+			try {
+				channel = FileChannel.open(path, StandardOpenOption.WRITE);
+				if (channel.size() < position) {
+					throw new ItemStreamException("추출 파일이 저장된 위치보다 짧음: " + path + " " + channel.size() + " < " + position);
+				}
+				channel.truncate(position);
+				channel.position(position);
+			} catch (IOException e) {
+				throw new ItemStreamException("추출 파일을 열 수 없음: " + path, e);
+			}
+			log.info("추출 파일 이어 쓰기: {} ({} 바이트부터)", path, position);
+		}
+	}
+
+	@Override
+	public void write(List<? extends String> items) throws Exception {
+		if (channel == null) {
+			openPart();
+		}
+		if (!memberStarted) {
+			startMember();
+		}
+		for (String item : items) {
+			encode(item);
+			if (!input.hasRemaining()) {
+				deflateInput();
+			}
+			input.put((byte) '\n');
+		}
+		rows += items.size();
+	}
+
+	// 청크가 커밋되기 직전에 호출된다. 멤버를 닫아서 저장한 위치까지는 항상 온전한 gzip이 되도록 한다.
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		if (memberStarted) {
+			try {
+				finishMember();
+				position = channel.position();
+				if (position >= rollSize) {
+					closePart();
+					part++;
+					position = 0;
+				}
+			} catch (IOException e) {
+				throw new ItemStreamException("추출 파일 쓰기 실패: " + path(part), e);
+			}
+		}
+		executionContext.putInt(PART_KEY, part);
+		executionContext.putLong(POSITION_KEY, position);
+		executionContext.putLong(ROWS_KEY, rows);
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+		try {
+			if (channel != null) {
+				if (memberStarted) {
+					finishMember();
+				}
+				closePart();
+			}
+		} catch (IOException e) {
+			throw new ItemStreamException("추출 파일을 닫을 수 없음: " + path(part), e);
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+			}
+			input = null;
+			output = null;
+		}
+		log.info("추출 완료: {} {}행", prefix, rows);
+	}
+
+	private Path path(int part) {
+		return directory.resolve(String.format("%s-%05d.csv.gz", prefix, part));
+	}
+
+	// 새 파일을 만들고 헤더부터 쓴다.
+	private void openPart() throws IOException {
+		Files.createDirectories(directory);
+		channel = FileChannel.open(path(part), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		startMember();
+		encode(header);
+		input.put((byte) '\n');
+	}
+
+	private void closePart() throws IOException {
+		channel.close();
+		channel = null;
+	}
+
+	private void startMember() {
+		output.put(GZIP_HEADER);
+		deflater.reset();
+		crc.reset();
+		memberSize = 0;
+		memberStarted = true;
+	}
+
+	// 입력 버퍼가 차면 압축하고 이어서 인코딩한다.
+	private void encode(String text) throws IOException {
+		CharBuffer chars = CharBuffer.wrap(text);
+		while (true) {
+			CoderResult result = encoder.encode(chars, input, true);
+			if (result.isOverflow()) {
+				deflateInput();
+				continue;
+			}
+			if (result.isError()) {
+				throw new CharacterCodingException();
+			}
+			break;
+		}
+		encoder.reset();
+	}
+
+	// 입력 버퍼를 모두 압축한다. 출력 버퍼가 차면 파일에 쓴다.
+	private void deflateInput() throws IOException {
+		input.flip();
+		memberSize += input.remaining();
+		int start = input.position();
+		crc.update(input);
+		input.position(start);
+		deflater.setInput(input);
+		while (!deflater.needsInput()) {
+			deflater.deflate(output);
+			if (!output.hasRemaining()) {
+				drainOutput();
+			}
+		}
+		// Deflater가 입력 버퍼를 계속 참조하므로 비워서 다시 채우기 전에 떼어낸다. (finish 후 deflate가 지난 내용을 다시 읽지 않도록)
+		deflater.setInput(NO_INPUT);
+		input.clear();
+	}
+
+	// 남은 입력을 압축하고 트레일러(CRC32, ISIZE)를 붙여서 멤버를 닫는다.
+	private void finishMember() throws IOException {
+		deflateInput();
+		deflater.finish();
+		while (!deflater.finished()) {
+			deflater.deflate(output);
+			if (!output.hasRemaining()) {
+				drainOutput();
+			}
+		}
+		if (output.remaining() < GZIP_TRAILER_SIZE) {
+			drainOutput();
+		}
+		output.putInt((int) crc.getValue());
+		output.putInt((int) memberSize);
+		drainOutput();
+		memberStarted = false;
+	}
+
+	private void drainOutput() throws IOException {
+		output.flip();
+		while (output.hasRemaining()) {
+			channel.write(output);
+		}
+		output.clear();
+	}
+}
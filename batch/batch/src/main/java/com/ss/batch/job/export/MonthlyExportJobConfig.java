@@ -0,0 +1,235 @@
+package com.ss.batch.job.export;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 이용권(pass), 예약(booking) 월별 추출 Job
+// 시작 일시(started_at)가 그 달인 행을 gzip으로 압축한 CSV 파일로 내보낸다. (정산, 제휴 센터 전달용)
+// 1. 추출할 달을 정한다. (JobParameter month=2024-01, 없으면 지난 달)
+// 2. 이용권 추출 → 3. 예약 추출
+// 테이블마다 순번 범위 파티션으로 나누고, 파티션마다 앞으로만 읽는 커서로 읽어서 각자의 파일에 쓴다.
+// 파일: {directory}/{month}/{table}-{month}-p{파티션}-{번호}.csv.gz
+@Slf4j
+@Configuration
+public class MonthlyExportJobConfig {
+	// 이번 실행의 달을 JobExecutionContext에 저장할 때 사용하는 키 (month는 JobParameter 이름이기도 하다)
+	// from - 이 시각 이상, to - 이 시각 미만으로 시작하는 행을 추출
+	public static final String MONTH = "month";
+	public static final String FROM = "from";
+	public static final String TO = "to";
+
+	private final JobBuilderFactory jobBuilderFactory;
+	private final StepBuilderFactory stepBuilderFactory;
+	private final DataSource dataSource;
+	private final JdbcTemplate jdbcTemplate;
+
+	// chunk-size - 청크 하나에서 읽을 행 수 (청크마다 gzip 멤버 하나를 닫고 파일 위치를 저장한다)
+	// fetch-size - 커서에서 한 번에 가져올 행 수 (useCursorFetch=true 이므로 서버 커서)
+	private final int chunkSize;
+	private final int fetchSize;
+
+	// directory - 파일을 쓸 디렉터리
+	// roll-size - 파일이 이 크기(압축 후) 이상이 되면 다음 파일로 넘어간다.
+	// buffer-size - 인코딩 / 압축에 쓰는 direct buffer 크기 (각각 하나씩)
+	// compression-level - gzip 압축 레벨 (1 빠름 ~ 9 작음)
+	private final Path directory;
+	private final DataSize rollSize;
+	private final DataSize bufferSize;
+	private final int compressionLevel;
+
+	// grid-size - 테이블마다 나눌 파티션 개수 (1이면 파일 하나씩 차례로)
+	// pool-size - 파티션을 동시에 쓸 스레드 수
+	private final int gridSize;
+	private final int poolSize;
+
+	public MonthlyExportJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory, DataSource dataSource,
+			JdbcTemplate jdbcTemplate,
+			@Value("${batch.export.chunk-size:10000}") int chunkSize,
+			@Value("${batch.export.fetch-size:1000}") int fetchSize,
+			@Value("${batch.export.directory:export}") String directory,
+			@Value("${batch.export.roll-size:256MB}") DataSize rollSize,
+			@Value("${batch.export.buffer-size:1MB}") DataSize bufferSize,
+			@Value("${batch.export.compression-level:6}") int compressionLevel,
+			@Value("${batch.export.grid-size:1}") int gridSize,
+			@Value("${batch.export.pool-size:4}") int poolSize) {
+		this.jobBuilderFactory = jobBuilderFactory;
+		this.stepBuilderFactory = stepBuilderFactory;
+		this.dataSource = dataSource;
+		this.jdbcTemplate = jdbcTemplate;
+		this.chunkSize = chunkSize;
+		this.fetchSize = fetchSize;
+		this.directory = Paths.get(directory);
+		this.rollSize = rollSize;
+		this.bufferSize = bufferSize;
+		this.compressionLevel = compressionLevel;
+		this.gridSize = gridSize;
+		this.poolSize = poolSize;
+	}
+
+	@Bean
+	public Job monthlyExportJob() {
+		return this.jobBuilderFactory.get("monthlyExportJob")
+				.start(monthlyExportWindowStep())
+				.next(passExportStep())
+				.next(bookingExportStep())
+				.build();
+	}
+
+	// 달은 JobExecutionContext에 저장해서 재시작해도 같은 달을 추출한다.
+	// 이 step은 새로 시작한 실행에서만 실행된다. (재시작하면 완료된 step이라 건너뛰고, 이어 쓸 파일은 그대로 둔다)
+	// 같은 달을 다시 추출하면 파티션 수가 달라질 수 있으므로 이전 실행이 남긴 그 달의 추출 파일을 먼저 지운다.
+	@Bean
+	public Step monthlyExportWindowStep() {
+		return this.stepBuilderFactory.get("monthlyExportWindowStep").tasklet((contribution, chunkContext) -> {
+			JobExecution jobExecution = chunkContext.getStepContext().getStepExecution().getJobExecution();
+			JobParameter jobParameter = jobExecution.getJobParameters().getParameters().get(MONTH);
+			YearMonth month = jobParameter == null || jobParameter.getValue() == null ? YearMonth.now().minusMonths(1)
+					: YearMonth.parse(jobParameter.getValue().toString());
+
+			jobExecution.getExecutionContext().putString(MONTH, month.toString());
+			jobExecution.getExecutionContext().putString(FROM, month.atDay(1).atStartOfDay().toString());
+			jobExecution.getExecutionContext().putString(TO, month.plusMonths(1).atDay(1).atStartOfDay().toString());
+
+			deleteExportFiles(month);
+			log.info("월별 추출 대상: {}", month);
+			return RepeatStatus.FINISHED;
+		}).build();
+	}
+
+	// {table}-{month}-p{파티션}-{번호}.csv.gz 만 지운다. (같은 디렉터리의 다른 파일은 그대로 둔다)
+	private void deleteExportFiles(YearMonth month) throws IOException {
+		Path monthDirectory = directory.resolve(month.toString());
+		if (!Files.isDirectory(monthDirectory)) {
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(monthDirectory, "*-" + month + "-p*.csv.gz")) {
+			for (Path file : files) {
+				Files.delete(file);
+				log.info("이전 추출 파일 삭제: {}", file);
+			}
+		}
+	}
+
+	@Bean
+	public Step passExportStep() {
+		return exportStep("passExportStep", passExportPartitioner(null, null));
+	}
+
+	@Bean
+	public Step bookingExportStep() {
+		return exportStep("bookingExportStep", bookingExportPartitioner(null, null));
+	}
+
+	// 파티셔너가 나눈 범위마다 워커 step을 만들어서 taskExecutor 스레드에서 동시에 실행한다.
+	private Step exportStep(String name, SeqRangePartitioner partitioner) {
+		return this.stepBuilderFactory.get(name)
+				.partitioner("exportWorkerStep", partitioner)
+				.step(exportWorkerStep())
+				.gridSize(gridSize)
+				.taskExecutor(exportTaskExecutor())
+				.build();
+	}
+
+	// 파티션 하나(테이블의 순번 범위)를 파일로 쓰는 워커 step
+	// 읽기 전용이라 processor 없이 CSV 줄을 그대로 writer로 넘긴다.
+	@Bean
+	public Step exportWorkerStep() {
+		return this.stepBuilderFactory.get("exportWorkerStep").<String, String>chunk(chunkSize)
+				.reader(exportItemReader(null, null, null, null, null))
+				.writer(exportItemWriter(null, null, null))
+				.build();
+	}
+
+	// 그 달의 순번 범위로 나누기 때문에 실행마다 달을 받아서 만든다.
+	@Bean
+	@StepScope
+	public SeqRangePartitioner passExportPartitioner(
+			@Value("#{jobExecutionContext['from']}") String from,
+			@Value("#{jobExecutionContext['to']}") String to) {
+		return new SeqRangePartitioner(jdbcTemplate, ExportTable.PASS, LocalDateTime.parse(from), LocalDateTime.parse(to));
+	}
+
+	@Bean
+	@StepScope
+	public SeqRangePartitioner bookingExportPartitioner(
+			@Value("#{jobExecutionContext['from']}") String from,
+			@Value("#{jobExecutionContext['to']}") String to) {
+		return new SeqRangePartitioner(jdbcTemplate, ExportTable.BOOKING, LocalDateTime.parse(from), LocalDateTime.parse(to));
+	}
+
+	@Bean
+	public TaskExecutor exportTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setThreadNamePrefix("export-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.initialize();
+		return executor;
+	}
+
+	// 앞으로만 읽는 읽기 전용 커서 (JdbcCursorItemReader 기본값)
+	// 엔티티 없이 행을 바로 CSV 줄로 바꿔서 fetch size 만큼만 메모리에 둔다.
+	// 재시작하면 읽은 행 수만큼 건너뛰고 이어서 읽는다.
+	@Bean
+	@StepScope
+	public JdbcCursorItemReader<String> exportItemReader(
+			@Value("#{stepExecutionContext['table']}") String table,
+			@Value("#{stepExecutionContext['minSeq']}") Long minSeq,
+			@Value("#{stepExecutionContext['maxSeq']}") Long maxSeq,
+			@Value("#{jobExecutionContext['from']}") String from,
+			@Value("#{jobExecutionContext['to']}") String to) {
+		JdbcCursorItemReader<String> reader = new JdbcCursorItemReader<String>();
+		reader.setName("exportItemReader");
+		reader.setDataSource(dataSource);
+		reader.setSql(ExportTable.valueOf(table).selectSql());
+		reader.setPreparedStatementSetter(ps -> {
+			ps.setLong(1, minSeq);
+			ps.setLong(2, maxSeq);
+			ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.parse(from)));
+			ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.parse(to)));
+		});
+		reader.setRowMapper(new CsvRowMapper());
+		reader.setFetchSize(fetchSize);
+		return reader;
+	}
+
+	// 파일 위치, 행 수를 ExecutionContext에 저장하기 때문에 파티션마다 따로 만든다.
+	@Bean
+	@StepScope
+	public GzipCsvFileItemWriter exportItemWriter(
+			@Value("#{stepExecutionContext['table']}") String table,
+			@Value("#{stepExecutionContext['partition']}") Integer partition,
+			@Value("#{jobExecutionContext['month']}") String month) {
+		ExportTable exportTable = ExportTable.valueOf(table);
+		return new GzipCsvFileItemWriter(directory.resolve(month), exportTable.getTableName() + "-" + month + "-p" + partition,
+				exportTable.header(), rollSize.toBytes(), (int) bufferSize.toBytes(), compressionLevel);
+	}
+}
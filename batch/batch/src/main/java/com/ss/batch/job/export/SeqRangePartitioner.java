@@ -0,0 +1,76 @@
+package com.ss.batch.job.export;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 추출 대상 테이블을 순번(기본키) 범위로 나누는 파티셔너 (PassSeqRangePartitioner와 같은 방식)
+// 그 달에 시작한 행의 min / max 순번으로 나눈다. (started_at 인덱스로 구하고, 범위 안의 다른 달 행은 각 파티션이 읽으면서 거른다)
+// 파티션마다 따로 파일을 쓰기 때문에 파티션 번호도 같이 넘긴다.
+public class SeqRangePartitioner implements Partitioner {
+	public static final String TABLE = "table";
+	public static final String PARTITION = "partition";
+	public static final String MIN_SEQ = "minSeq";
+	public static final String MAX_SEQ = "maxSeq";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ExportTable table;
+	// from - 이 시각 이상, to - 이 시각 미만으로 시작하는 행
+	private final LocalDateTime from;
+	private final LocalDateTime to;
+
+	public SeqRangePartitioner(JdbcTemplate jdbcTemplate, ExportTable table, LocalDateTime from, LocalDateTime to) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.table = table;
+		this.from = from;
+		this.to = to;
+	}
+
+	@Override
+	public Map<String, ExecutionContext> partition(int gridSize) {
+		Map<String, ExecutionContext> partitions = new HashMap<String, ExecutionContext>();
+
+		Map<String, Object> range = jdbcTemplate.queryForMap(table.rangeSql(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+		Number min = (Number) range.get("min_seq");
+		Number max = (Number) range.get("max_seq");
+
+		// 행이 없으면 아무것도 읽지 않는 빈 범위 하나만 만든다.
+		if (min == null || max == null) {
+			partitions.put(name(0), createContext(0, 1L, 0L));
+			return partitions;
+		}
+
+		// 범위를 gridSize 개로 나누고, 마지막 파티션은 max 까지 포함하도록 잘라준다.
+		long targetSize = (max.longValue() - min.longValue()) / Math.max(gridSize, 1) + 1;
+		long start = min.longValue();
+		int number = 0;
+
+		while (start <= max.longValue()) {
+			long end = Math.min(start + targetSize - 1, max.longValue());
+			partitions.put(name(number), createContext(number, start, end));
+			start = end + 1;
+			number++;
+		}
+
+		return partitions;
+	}
+
+	// 같은 Job 안에서 워커 step 실행 이름이 겹치지 않도록 테이블 이름을 붙인다.
+	private String name(int number) {
+		return table.getTableName() + "-p" + number;
+	}
+
+	private ExecutionContext createContext(int number, long minSeq, long maxSeq) {
+		ExecutionContext context = new ExecutionContext();
+		context.putString(TABLE, table.name());
+		context.putInt(PARTITION, number);
+		context.putLong(MIN_SEQ, minSeq);
+		context.putLong(MAX_SEQ, maxSeq);
+		return context;
+	}
+}
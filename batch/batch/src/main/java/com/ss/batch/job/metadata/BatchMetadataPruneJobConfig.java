@@ -0,0 +1,71 @@
+package com.ss.batch.job.metadata;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+// BATCH_* 메타데이터 정리 Job
+// 실행이 쌓이면 BATCH_STEP_EXECUTION, BATCH_*_CONTEXT 가 커져서 JobRepository 조회(마지막 실행 찾기 등)도 느려진다.
+// 마지막 실행이 retention-days 보다 오래 전에 statuses 상태로 끝난 JobInstance를 모든 실행과 같이 batch-size 인스턴스씩 지운다.
+@Configuration
+public class BatchMetadataPruneJobConfig {
+	private final JobBuilderFactory jobBuilderFactory;
+	private final StepBuilderFactory stepBuilderFactory;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	// retention-days - 마지막 실행이 끝난 지 이 일수가 지난 인스턴스만 지운다.
+	// statuses - 지울 인스턴스의 마지막 실행 상태 (재시작에 필요한 FAILED, STOPPED 는 기본값에서 뺀다)
+	// job-names - 지울 Job (비어 있으면 모든 Job)
+	// batch-size - 트랜잭션 하나에서 지울 인스턴스 수
+	private final int retentionDays;
+	private final List<String> statuses;
+	private final List<String> jobNames;
+	private final int batchSize;
+
+	public BatchMetadataPruneJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory,
+			NamedParameterJdbcTemplate jdbcTemplate,
+			@Value("${batch.metadata-prune.retention-days:30}") int retentionDays,
+			@Value("${batch.metadata-prune.statuses:COMPLETED,ABANDONED}") String statuses,
+			@Value("${batch.metadata-prune.job-names:}") String jobNames,
+			@Value("${batch.metadata-prune.batch-size:500}") int batchSize) {
+		this.jobBuilderFactory = jobBuilderFactory;
+		this.stepBuilderFactory = stepBuilderFactory;
+		this.jdbcTemplate = jdbcTemplate;
+		this.retentionDays = retentionDays;
+		this.statuses = split(statuses);
+		this.jobNames = split(jobNames);
+		this.batchSize = batchSize;
+	}
+
+	@Bean
+	public Job batchMetadataPruneJob() {
+		return this.jobBuilderFactory.get("batchMetadataPruneJob").start(batchMetadataPruneStep()).build();
+	}
+
+	@Bean
+	public Step batchMetadataPruneStep() {
+		return this.stepBuilderFactory.get("batchMetadataPruneStep").tasklet(batchMetadataPruneTasklet()).build();
+	}
+
+	// 기준 시각을 step 실행 시각으로 잡기 위해 StepScope
+	@Bean
+	@StepScope
+	public BatchMetadataPruneTasklet batchMetadataPruneTasklet() {
+		return new BatchMetadataPruneTasklet(jdbcTemplate, LocalDateTime.now().minusDays(retentionDays), statuses, jobNames, batchSize);
+	}
+
+	private static List<String> split(String value) {
+		return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,85 @@
+package com.ss.batch.job.metadata;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 오래된 JobInstance의 BATCH_* 메타데이터를 batchSize 인스턴스씩 지운다.
+// execute 한 번이 step 트랜잭션 하나라서 (CONTINUABLE) 한 번에 큰 DELETE를 하지 않고 나눠서 커밋한다.
+// 실행 단위가 아니라 인스턴스 단위로 지운다. 마지막 실행이 끝난 상태(statuses)이고 cutoff 이전에 끝난 인스턴스만 골라서
+// 그 인스턴스의 모든 실행과 인스턴스를 같이 지운다.
+// (실행만 골라 지우면 FAILED 후 재시작해서 COMPLETED 된 인스턴스에 FAILED 실행만 남아서 같은 파라미터로 다시 실행할 수 있게 된다)
+// 자식 테이블부터 지운다. (step context → step → job context, params → job execution → job instance)
+@Slf4j
+public class BatchMetadataPruneTasklet implements Tasklet {
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final LocalDateTime cutoff;
+	private final List<String> statuses;
+	private final List<String> jobNames;
+	private final int batchSize;
+
+	// cutoff - 마지막 실행이 이 시각 이전에 끝난 인스턴스만 지운다.
+	// statuses - 지울 인스턴스의 마지막 실행 상태 (COMPLETED, ABANDONED ...)
+	// jobNames - 지울 Job 이름 (비어 있으면 모든 Job)
+	public BatchMetadataPruneTasklet(NamedParameterJdbcTemplate jdbcTemplate, LocalDateTime cutoff, List<String> statuses,
+			List<String> jobNames, int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.cutoff = cutoff;
+		this.statuses = statuses;
+		this.jobNames = jobNames;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+		// 1. 지울 인스턴스 ID (status, end_time 인덱스로 실행을 찾고, 그 실행이 인스턴스의 마지막 실행인 것만)
+		MapSqlParameterSource parameters = new MapSqlParameterSource().addValue("statuses", statuses)
+				.addValue("cutoff", Timestamp.valueOf(cutoff)).addValue("batchSize", batchSize);
+		String jobNameFilter = "";
+		if (!jobNames.isEmpty()) {
+			jobNameFilter = " and e.JOB_INSTANCE_ID in (select i.JOB_INSTANCE_ID from BATCH_JOB_INSTANCE i where i.JOB_NAME in (:jobNames))";
+			parameters.addValue("jobNames", jobNames);
+		}
+		List<Long> instanceIds = jdbcTemplate.queryForList(
+				"select e.JOB_INSTANCE_ID from BATCH_JOB_EXECUTION e"
+						+ " where e.STATUS in (:statuses) and e.END_TIME < :cutoff" + jobNameFilter
+						+ " and not exists (select 1 from BATCH_JOB_EXECUTION l where l.JOB_INSTANCE_ID = e.JOB_INSTANCE_ID"
+						+ " and l.JOB_EXECUTION_ID > e.JOB_EXECUTION_ID)"
+						+ " order by e.JOB_EXECUTION_ID limit :batchSize",
+				parameters, Long.class);
+		if (instanceIds.isEmpty()) {
+			log.info("BATCH_* 메타데이터 정리 완료 cutoff: {} 지운 실행: {}건", cutoff, contribution.getStepExecution().getWriteCount());
+			return RepeatStatus.FINISHED;
+		}
+
+		// 2. 인스턴스의 모든 실행을 자식 테이블부터 삭제
+		MapSqlParameterSource ids = new MapSqlParameterSource().addValue("instanceIds", instanceIds);
+		ids.addValue("executionIds", jdbcTemplate.queryForList(
+				"select JOB_EXECUTION_ID from BATCH_JOB_EXECUTION where JOB_INSTANCE_ID in (:instanceIds)", ids, Long.class));
+		int stepContexts = jdbcTemplate.update("delete from BATCH_STEP_EXECUTION_CONTEXT where STEP_EXECUTION_ID in"
+				+ " (select s.STEP_EXECUTION_ID from BATCH_STEP_EXECUTION s where s.JOB_EXECUTION_ID in (:executionIds))", ids);
+		int steps = jdbcTemplate.update("delete from BATCH_STEP_EXECUTION where JOB_EXECUTION_ID in (:executionIds)", ids);
+		jdbcTemplate.update("delete from BATCH_JOB_EXECUTION_CONTEXT where JOB_EXECUTION_ID in (:executionIds)", ids);
+		jdbcTemplate.update("delete from BATCH_JOB_EXECUTION_PARAMS where JOB_EXECUTION_ID in (:executionIds)", ids);
+		int jobExecutions = jdbcTemplate.update("delete from BATCH_JOB_EXECUTION where JOB_EXECUTION_ID in (:executionIds)", ids);
+
+		// 3. JobInstance
+		int jobInstances = jdbcTemplate.update("delete from BATCH_JOB_INSTANCE where JOB_INSTANCE_ID in (:instanceIds)", ids);
+
+		contribution.incrementWriteCount(jobExecutions);
+		log.debug("BATCH_* 메타데이터 삭제 job execution: {} instance: {} step execution: {} step context: {}", jobExecutions,
+				jobInstances, steps, stepContexts);
+
+		// 한 번에 batchSize 보다 적게 읽었으면 더 지울 인스턴스가 없다.
+		return instanceIds.size() < batchSize ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+	}
+}
@@ -0,0 +1,100 @@
+package com.ss.batch.job.pass;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 청크 처리 시간(읽기 ~ 커밋)을 보고 다음 청크 크기를 정하는 CompletionPolicy
+// - 목표 시간의 절반 안에 끝나면 2배, 목표 시간 안이면 25%씩 키운다.
+// - 목표 시간을 넘기거나(락 대기, DB 부하) 청크가 롤백되면 절반으로 줄인다.
+// - 항상 minSize ~ maxSize 사이에서만 움직인다. (minSize == maxSize 이면 고정 크기)
+// 정한 크기는 StepExecution의 ExecutionContext에 저장해서 재시작하면 그 크기부터 다시 시작한다.
+// step 실행마다 상태를 따로 가져야 하므로 @StepScope 빈으로 만들고 step에 stream, listener로 같이 등록한다.
+@Slf4j
+public class AdaptiveChunkSizePolicy extends CompletionPolicySupport implements ChunkListener, ItemStream {
+	public static final String CHUNK_SIZE = "adaptiveChunk.size";
+
+	private final int minSize;
+	private final int maxSize;
+	private final long targetMillis;
+
+	private volatile int chunkSize;
+	private long chunkStartedAt;
+
+	public AdaptiveChunkSizePolicy(int initialSize, int minSize, int maxSize, long targetMillis) {
+		this.minSize = Math.max(1, minSize);
+		this.maxSize = Math.max(this.minSize, maxSize);
+		this.targetMillis = targetMillis;
+		this.chunkSize = bound(initialSize);
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	// 청크 안에서 읽은 아이템 수가 현재 청크 크기가 되면 청크를 끝낸다.
+	@Override
+	public boolean isComplete(RepeatContext context) {
+		return context.getStartedCount() >= chunkSize;
+	}
+
+	@Override
+	public void beforeChunk(ChunkContext context) {
+		chunkStartedAt = System.nanoTime();
+	}
+
+	// 커밋이 끝난 뒤 호출되므로 처리 시간에 커밋 시간까지 포함된다.
+	@Override
+	public void afterChunk(ChunkContext context) {
+		long elapsedMillis = (System.nanoTime() - chunkStartedAt) / 1_000_000L;
+
+		if (elapsedMillis > targetMillis) {
+			resize(chunkSize / 2, elapsedMillis);
+		} else if (elapsedMillis * 2 <= targetMillis) {
+			resize(chunkSize * 2, elapsedMillis);
+		} else {
+			resize(chunkSize + Math.max(1, chunkSize / 4), elapsedMillis);
+		}
+	}
+
+	@Override
+	public void afterChunkError(ChunkContext context) {
+		resize(chunkSize / 2, (System.nanoTime() - chunkStartedAt) / 1_000_000L);
+	}
+
+	private void resize(int size, long elapsedMillis) {
+		int next = bound(size);
+		if (next != chunkSize) {
+			log.debug("청크 크기 변경 {} -> {} (처리 시간 {}ms, 목표 {}ms)", chunkSize, next, elapsedMillis, targetMillis);
+			chunkSize = next;
+		}
+	}
+
+	private int bound(int size) {
+		return Math.min(maxSize, Math.max(minSize, size));
+	}
+
+	// 재시작이면 지난 실행에서 정한 크기부터 시작
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		if (executionContext.containsKey(CHUNK_SIZE)) {
+			chunkSize = bound(executionContext.getInt(CHUNK_SIZE));
+		}
+	}
+
+	// 청크가 커밋될 때마다 ExecutionContext에 같이 저장된다.
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		executionContext.putInt(CHUNK_SIZE, chunkSize);
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+	}
+}
@@ -1,37 +1,218 @@
 package com.ss.batch.job.pass;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.step.builder.PartitionStepBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.database.JpaItemWriter;
+import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.ss.batch.config.RemotePartitioning;
+import com.ss.batch.entity.BulkPassStatus;
+import com.ss.batch.entity.PassEntity;
+import com.ss.batch.modelmapper.PassModelMapper;
+import com.ss.batch.repository.BulkPassRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
 // 대량 이용권을 사용자 그룹에 추가하고 발송할 때 사용하는 Job, Step 구성
 // User 테이블
 // UserGroup 테이블
 // Bulk_Pass 테이블
+@Slf4j
 @Configuration
 public class AddPassesJobConfig {
+	// 이번 실행에서 처리할 대량 이용권 순번 목록을 JobExecutionContext에 저장할 때 사용하는 키
+	public static final String BULK_PASS_SEQS = "bulkPassSeqs";
+
+	// 처리할 대량 이용권이 없을 때 snapshot step의 종료 코드
+	private static final String NO_BULK_PASS = "NO_BULK_PASS";
+
 	private final JobBuilderFactory jobBuilderFactory;
 	private final StepBuilderFactory stepBuilderFactory;
-	
+
 	// 실제 처리하는 내용을 가지고 있는 테스크릿(Tasklet) 객체를 생성
 	private final AddPassesTasklet tasklet;
-	
-	public AddPassesJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory, AddPassesTasklet tasklet) {
+
+	private final BulkPassRepository bulkPassRepository;
+	private final DataSource dataSource;
+	private final EntityManagerFactory entityManagerFactory;
+
+	// streaming - true 이면 그룹 사용자를 커서로 읽어서 청크 단위로 이용권을 발급 (false 이면 기존 tasklet)
+	// chunk-size - 한 번에 커밋할 이용권 수
+	// fetch-size - 커서가 DB에서 한 번에 가져올 행 수
+	private final boolean streaming;
+	private final int chunkSize;
+	private final int fetchSize;
+
+	// 원격 파티션 매니저 설정 (batch.remote-partitioning.manager=true 일 때만 있음)
+	// 있으면 대량 이용권마다 파티션을 나눠서 워커 JVM에서 발급한다.
+	private final ObjectProvider<RemotePartitioning> remotePartitioning;
+
+	public AddPassesJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory, AddPassesTasklet tasklet,
+			BulkPassRepository bulkPassRepository, DataSource dataSource, EntityManagerFactory entityManagerFactory,
+			ObjectProvider<RemotePartitioning> remotePartitioning,
+			@Value("${batch.add-passes.streaming:true}") boolean streaming,
+			@Value("${batch.add-passes.chunk-size:500}") int chunkSize,
+			@Value("${batch.add-passes.fetch-size:1000}") int fetchSize) {
 		this.jobBuilderFactory = jobBuilderFactory;
 		this.stepBuilderFactory = stepBuilderFactory;
 		this.tasklet = tasklet;
+		this.bulkPassRepository = bulkPassRepository;
+		this.dataSource = dataSource;
+		this.entityManagerFactory = entityManagerFactory;
+		this.streaming = streaming;
+		this.chunkSize = chunkSize;
+		this.fetchSize = fetchSize;
+		this.remotePartitioning = remotePartitioning;
 	}
-	
+
+	// 1. 처리할 대량 이용권 목록을 저장 (없으면 종료)
+	// 2. 그룹 사용자를 한 명씩 읽어서 청크 단위로 이용권 발급
+	// 3. 발급이 끝난 대량 이용권을 완료 처리
 	@Bean
 	public Job addPassesJob() {
-		return this.jobBuilderFactory.get("addPassesJob").start(addPassStep()).build();
+		if (!streaming) {
+			return this.jobBuilderFactory.get("addPassesJob").start(addPassStep()).build();
+		}
+		return this.jobBuilderFactory.get("addPassesJob")
+				.start(snapshotBulkPassStep()).on(NO_BULK_PASS).end()
+				.from(snapshotBulkPassStep()).on("*").to(remotePartitioning.getIfAvailable() != null ? addPassPartitionStep() : addPassFanOutStep())
+				.next(completeBulkPassStep())
+				.end()
+				.build();
 	}
 
 	@Bean
 	public Step addPassStep() {
 		return this.stepBuilderFactory.get("addPassStep").tasklet(tasklet).build();
 	}
+
+	// 이용권 시작일 1일 전 기준으로 아직 처리되지 않은 대량 이용권 순번만 저장해둔다.
+	// 이후 step들은 이 목록만 보기 때문에 중간에 새로 등록된 대량 이용권이 섞이지 않는다.
+	@Bean
+	public Step snapshotBulkPassStep() {
+		return this.stepBuilderFactory.get("snapshotBulkPassStep").tasklet((contribution, chunkContext) -> {
+			final LocalDateTime startAt = LocalDateTime.now().minusDays(1);
+
+			String bulkPassSeqs = bulkPassRepository.findByStatusAndStartedAtGreaterThan(BulkPassStatus.READY, startAt)
+					.stream().map(b -> String.valueOf(b.getBulkPassSeq())).collect(Collectors.joining(","));
+
+			ExecutionContext jobContext = chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext();
+			jobContext.putString(BULK_PASS_SEQS, bulkPassSeqs);
+
+			if (bulkPassSeqs.isEmpty()) {
+				contribution.setExitStatus(new ExitStatus(NO_BULK_PASS));
+			}
+			log.info("snapshot: 처리할 대량 이용권 [{}] startedAt: {}", bulkPassSeqs, startAt);
+			return RepeatStatus.FINISHED;
+		}).build();
+	}
+
+	// (대량 이용권, 사용자) 한 쌍씩 읽어서 이용권으로 변환 후 chunkSize 마다 커밋
+	// 그룹 크기와 상관없이 메모리에는 청크 하나만 올라간다.
+	// 이용권은 (bulk_pass_seq, user_id) 유니크 키로 한 번만 발급된다.
+	@Bean
+	public Step addPassFanOutStep() {
+		return this.stepBuilderFactory.get("addPassFanOutStep").<BulkPassMember, PassEntity>chunk(chunkSize)
+				.reader(addPassFanOutItemReader(null))
+				.processor(addPassFanOutItemProcessor())
+				.writer(addPassFanOutItemWriter())
+				.build();
+	}
+
+	// 원격 파티션 모드의 매니저 step
+	// 대량 이용권 하나가 파티션 하나이고, 워커 JVM이 addPassFanOutWorkerStep으로 그 대량 이용권의 그룹 사용자에게 발급한다.
+	// 원격 파티션 설정이 없으면 같은 JVM에서 파티션을 차례대로 실행한다.
+	@Bean
+	public Step addPassPartitionStep() {
+		PartitionStepBuilder builder = this.stepBuilderFactory.get("addPassPartitionStep")
+				.partitioner("addPassFanOutWorkerStep", addPassPartitioner(null))
+				.step(addPassFanOutWorkerStep());
+		RemotePartitioning remote = remotePartitioning.getIfAvailable();
+		if (remote != null) {
+			builder.partitionHandler(remote.partitionHandler("addPassFanOutWorkerStep", 1));
+		}
+		return builder.build();
+	}
+
+	// 파티션 하나(대량 이용권 하나)를 처리하는 워커 step
+	// 읽는 대량 이용권만 다르고 처리, 저장은 addPassFanOutStep과 같다.
+	@Bean
+	public Step addPassFanOutWorkerStep() {
+		return this.stepBuilderFactory.get("addPassFanOutWorkerStep").<BulkPassMember, PassEntity>chunk(chunkSize)
+				.reader(addPassFanOutPartitionItemReader(null))
+				.processor(addPassFanOutItemProcessor())
+				.writer(addPassFanOutItemWriter())
+				.build();
+	}
+
+	@Bean
+	@StepScope
+	public BulkPassPartitioner addPassPartitioner(@Value("#{jobExecutionContext['bulkPassSeqs']}") String bulkPassSeqs) {
+		return new BulkPassPartitioner(parseSeqs(bulkPassSeqs));
+	}
+
+	@Bean
+	public Step completeBulkPassStep() {
+		return this.stepBuilderFactory.get("completeBulkPassStep").tasklet((contribution, chunkContext) -> {
+			ExecutionContext jobContext = chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext();
+			List<Long> bulkPassSeqs = parseSeqs(jobContext.getString(BULK_PASS_SEQS));
+
+			int count = bulkPassRepository.updateStatus(bulkPassSeqs, BulkPassStatus.READY, BulkPassStatus.COMPLETED);
+			log.info("complete: 대량 이용권 {}건 완료 처리", count);
+			return RepeatStatus.FINISHED;
+		}).build();
+	}
+
+	// user_group_mapping을 대량 이용권과 조인해서 (대량 이용권 순번, 사용자 ID) 순서로 읽는다.
+	// 커밋된 마지막 키가 ExecutionContext에 남아 있어서 중간에 실패한 Job을 다시 실행하면 남은 사용자부터 이어서 발급한다.
+	@Bean
+	@StepScope
+	public BulkPassMemberItemReader addPassFanOutItemReader(
+			@Value("#{jobExecutionContext['bulkPassSeqs']}") String bulkPassSeqs) {
+		return new BulkPassMemberItemReader("addPassFanOutItemReader", dataSource, parseSeqs(bulkPassSeqs), fetchSize);
+	}
+
+	// 파티션 하나에 해당하는 대량 이용권만 읽는 리더 (stepExecutionContext 값은 BulkPassPartitioner가 넣어준다.)
+	@Bean
+	@StepScope
+	public BulkPassMemberItemReader addPassFanOutPartitionItemReader(
+			@Value("#{stepExecutionContext['bulkPassSeqs']}") String bulkPassSeqs) {
+		return new BulkPassMemberItemReader("addPassFanOutPartitionItemReader", dataSource, parseSeqs(bulkPassSeqs), fetchSize);
+	}
+
+	@Bean
+	public ItemProcessor<BulkPassMember, PassEntity> addPassFanOutItemProcessor() {
+		return member -> PassModelMapper.toPassEntity(member.getUserId(), member.getBulkPass());
+	}
+
+	// 새로 만드는 이용권이라 merge 대신 persist 사용
+	@Bean
+	public JpaItemWriter<PassEntity> addPassFanOutItemWriter() {
+		return new JpaItemWriterBuilder<PassEntity>().entityManagerFactory(entityManagerFactory).usePersist(true).build();
+	}
+
+	// "1,2,3" 형태로 저장된 순번 목록을 다시 리스트로 변환
+	private static List<Long> parseSeqs(String seqs) {
+		return Arrays.stream(seqs.split(",")).filter(s -> !s.isEmpty()).map(Long::valueOf).collect(Collectors.toList());
+	}
 }
@@ -0,0 +1,283 @@
+package com.ss.batch.job.pass;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.classify.BinaryExceptionClassifier;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+// 실패한 청크를 반으로 나눠 다시 쓰면서 잘못된 항목만 골라내는 writer
+// Spring Batch의 faultTolerant()는 쓰기가 실패하면 청크를 롤백하고 항목 하나씩 다시 처리해서 청크가 클수록 비싸지만,
+// 이 writer는 같은 트랜잭션 안에서 savepoint로 되돌리고 절반씩 다시 쓴다.
+// 청크 n건 중 잘못된 항목이 k건이면 쓰기는 약 2k log n 번이고, 나머지 항목은 그대로 커밋된다.
+// - skippable(데이터 무결성 오류) - 나누다가 한 건만 남으면 batch_dead_letter 에 남기고 건너뛴다.
+// - retryable(잠금 대기 시간 초과, 쿼리 시간 초과) - 같은 항목을 retryLimit 번까지 다시 쓴다.
+//   문장 하나만 실패하고 트랜잭션은 살아있는 오류만 savepoint로 되돌려서 다시 쓴다.
+// - 데드락(DeadlockLoserDataAccessException) - DB(InnoDB)가 이미 트랜잭션 전체를 롤백하고 savepoint도 없어졌으므로
+//   나누지 않고 그대로 던진다. 청크가 롤백되고 step의 retry가 청크 전체를 새 트랜잭션에서 다시 쓴다.
+//   이 writer를 쓰는 step은 faultTolerant().retry(DeadlockLoserDataAccessException.class).retryLimit(retryLimit) 를 같이 설정한다.
+// - 그 밖의 예외 - 지금처럼 청크 전체를 롤백하고 step이 실패한다.
+// 건너뛴 수는 청크 트랜잭션 안(update)에서 StepExecution의 writeSkipCount(BATCH_STEP_EXECUTION.WRITE_SKIP_COUNT)에 더해서
+// 청크와 같이 커밋되고, 커밋된 뒤 batch.item.skipped 지표(job, step, exception)에 더한다. step 실행에서 skipLimit 을 넘으면 step이 실패한다.
+// delegate는 JDBC로 쓰는 writer만 사용한다. (JPA 영속성 컨텍스트, 외부 발송은 savepoint로 되돌릴 수 없다)
+//
+// dead letter 다시 처리
+// 건너뛴 항목은 원본 행이 바뀌지 않은 채로 남으므로 (item_key) 원인을 고치면 각 Job이 다시 읽어서 처리한다.
+// - expiredPassJob - 이용권이 PROGRESSED 로 남고 watermark는 지나가므로 다음 따라잡기 실행(catch-up-interval)에서 다시 만료한다.
+// - passDeductionJob - 예약이 차감 완료(deducted)로 표시되지 않아서 다음 실행에서 다시 읽는다.
+// - bookingRollupJob - ledger가 바뀌지 않아서 예약이 다시 수정되면 반영된다. 바로 반영하려면 예약의 modified_at 을 갱신한다.
+//   예) update booking set modified_at = now() where booking_seq in (select item_key from batch_dead_letter where ...)
+// 다시 실패하면 (Job, item_key) 행 하나를 마지막 실패로 갱신한다. batch_dead_letter 행은 기록용이라 다시 처리한 뒤에 지워도 된다.
+@Slf4j
+public class BisectingItemWriter<T> implements ItemStreamWriter<T>, StepExecutionListener, ChunkListener {
+	// 같은 Job에서 같은 항목이 다시 실패하면 (다음 실행이 다시 읽는 경우) 행을 늘리지 않고 마지막 실패로 갱신한다.
+	private static final String UPDATE_DEAD_LETTER_SQL = "update batch_dead_letter"
+			+ " set step_name = :stepName, job_execution_id = :jobExecutionId, step_execution_id = :stepExecutionId, item = :item,"
+			+ " exception_class = :exceptionClass, exception_message = :exceptionMessage, create_at = :createAt"
+			+ " where job_name = :jobName and item_key = :itemKey";
+	private static final String INSERT_DEAD_LETTER_SQL = "insert into batch_dead_letter"
+			+ " (job_name, step_name, job_execution_id, step_execution_id, item_key, item, exception_class, exception_message, create_at)"
+			+ " values (:jobName, :stepName, :jobExecutionId, :stepExecutionId, :itemKey, :item, :exceptionClass, :exceptionMessage, :createAt)";
+
+	private static final int MAX_TEXT_LENGTH = 4000;
+
+	private static final String SKIPPED_KEY = "bisecting.skipped";
+
+	private final ItemWriter<T> delegate;
+	// 항목을 dead letter 에서 찾을 키 (pass_seq, booking_seq)
+	private final Function<T, Object> keyExtractor;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final DataSource dataSource;
+	private final int skipLimit;
+	private final int retryLimit;
+	private final BinaryExceptionClassifier skippableClassifier;
+	private final BinaryExceptionClassifier retryableClassifier;
+
+	private StepExecution stepExecution;
+
+	// 건너뛴 수 (ExecutionContext에 저장, update에서 더한다) / 이번 청크에서 건너뛴 수 (예외 클래스별)
+	// update에서 StepExecution에 반영하고 커밋을 기다리는 수 (예외 클래스별) / delegate 쓰기 횟수
+	private long skippedCount;
+	private final Map<String, Integer> pendingSkips = new HashMap<String, Integer>();
+	private final Map<String, Integer> appliedSkips = new HashMap<String, Integer>();
+	private long delegateWriteCount;
+
+	public BisectingItemWriter(ItemWriter<T> delegate, Function<T, Object> keyExtractor, NamedParameterJdbcTemplate jdbcTemplate,
+			int skipLimit, int retryLimit) {
+		this.delegate = delegate;
+		this.keyExtractor = keyExtractor;
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = jdbcTemplate.getJdbcTemplate().getDataSource();
+		this.skipLimit = skipLimit;
+		this.retryLimit = retryLimit;
+		// 원인 예외까지 확인한다. (delegate가 감싸서 던져도 분류되도록)
+		this.skippableClassifier = new BinaryExceptionClassifier(Set.<Class<? extends Throwable>>of(DataIntegrityViolationException.class), true);
+		this.skippableClassifier.setTraverseCauses(true);
+		this.retryableClassifier = new BinaryExceptionClassifier(
+				Set.<Class<? extends Throwable>>of(CannotAcquireLockException.class, QueryTimeoutException.class), true);
+		this.retryableClassifier.setTraverseCauses(true);
+	}
+
+	@Override
+	public void write(List<? extends T> items) throws Exception {
+		// 트랜잭션 밖에서는 savepoint를 만들 수 없으므로 그대로 쓴다.
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			delegate.write(items);
+			return;
+		}
+		// step 트랜잭션이 사용하는 커넥션 (JpaTransactionManager가 같은 DataSource의 커넥션을 묶어둔다)
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try {
+			write(connection, items);
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	private void write(Connection connection, List<? extends T> items) throws Exception {
+		for (int attempt = 1;; attempt++) {
+			// savepoint는 커밋할 때 한꺼번에 해제되므로 성공해도 따로 해제하지 않는다. (청크마다 SQL 한 번 절약)
+			Savepoint savepoint = connection.setSavepoint();
+			delegateWriteCount++;
+			try {
+				delegate.write(items);
+				return;
+			} catch (Exception e) {
+				rollback(connection, savepoint, e);
+				if (retryableClassifier.classify(e) && attempt <= retryLimit) {
+					log.warn("일시적인 오류로 다시 쓰기 ({}/{}): {}건, {}", attempt, retryLimit, items.size(), e.toString());
+					continue;
+				}
+				if (!skippableClassifier.classify(e)) {
+					throw e;
+				}
+				if (items.size() == 1) {
+					skip(items.get(0), e);
+					return;
+				}
+				int middle = items.size() / 2;
+				write(connection, items.subList(0, middle));
+				write(connection, items.subList(middle, items.size()));
+				return;
+			}
+		}
+	}
+
+	// savepoint로 되돌리지 못하면 (트랜잭션이 이미 롤백되어 savepoint가 없어진 경우 등) 원래 예외를 던진다.
+	private static void rollback(Connection connection, Savepoint savepoint, Exception e) throws Exception {
+		try {
+			connection.rollback(savepoint);
+		} catch (SQLException rollbackException) {
+			e.addSuppressed(rollbackException);
+			throw e;
+		}
+	}
+
+	// 잘못된 항목 한 건을 dead letter로 남긴다. (청크와 같은 트랜잭션이라 청크가 롤백되면 같이 롤백된다)
+	private void skip(T item, Exception e) {
+		if (skippedCount + pendingSkipCount() >= skipLimit) {
+			throw new SkipLimitExceededException(skipLimit, e);
+		}
+		Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+		Object itemKey = keyExtractor.apply(item);
+		log.warn("쓰기 실패한 항목 건너뜀: {} key={} {}", stepExecution.getStepName(), itemKey, cause.toString());
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("jobName", stepExecution.getJobExecution().getJobInstance().getJobName())
+				.addValue("stepName", stepExecution.getStepName())
+				.addValue("jobExecutionId", stepExecution.getJobExecutionId())
+				.addValue("stepExecutionId", stepExecution.getId())
+				.addValue("itemKey", itemKey == null ? null : itemKey.toString())
+				.addValue("item", truncate(String.valueOf(item)))
+				.addValue("exceptionClass", cause.getClass().getName())
+				.addValue("exceptionMessage", truncate(cause.getMessage()))
+				.addValue("createAt", LocalDateTime.now());
+		if (itemKey == null || jdbcTemplate.update(UPDATE_DEAD_LETTER_SQL, params) == 0) {
+			jdbcTemplate.update(INSERT_DEAD_LETTER_SQL, params);
+		}
+		pendingSkips.merge(cause.getClass().getSimpleName(), 1, Integer::sum);
+	}
+
+	private int pendingSkipCount() {
+		return count(pendingSkips);
+	}
+
+	private static int count(Map<String, Integer> skips) {
+		int count = 0;
+		for (int skip : skips.values()) {
+			count += skip;
+		}
+		return count;
+	}
+
+	private static String truncate(String text) {
+		return text == null || text.length() <= MAX_TEXT_LENGTH ? text : text.substring(0, MAX_TEXT_LENGTH);
+	}
+
+	@Override
+	public void beforeStep(StepExecution stepExecution) {
+		this.stepExecution = stepExecution;
+	}
+
+	@Override
+	public ExitStatus afterStep(StepExecution stepExecution) {
+		return null;
+	}
+
+	@Override
+	public void beforeChunk(ChunkContext context) {
+		pendingSkips.clear();
+		appliedSkips.clear();
+	}
+
+	// 커밋된 뒤에 지표만 더한다. (건너뛴 수는 update에서 청크와 같이 커밋되었다)
+	@Override
+	public void afterChunk(ChunkContext context) {
+		if (appliedSkips.isEmpty()) {
+			return;
+		}
+		String jobName = stepExecution.getJobExecution().getJobInstance().getJobName();
+		for (Map.Entry<String, Integer> entry : appliedSkips.entrySet()) {
+			Counter.builder("batch.item.skipped").tag("job", jobName).tag("step", stepExecution.getStepName())
+					.tag("exception", entry.getKey()).register(Metrics.globalRegistry).increment(entry.getValue());
+		}
+		appliedSkips.clear();
+	}
+
+	// 롤백된 청크의 dead letter도 같이 롤백되었으므로 세지 않는다.
+	// StepExecution의 건수는 TaskletStep이 롤백할 때 청크 시작 전 값으로 되돌린다.
+	@Override
+	public void afterChunkError(ChunkContext context) {
+		skippedCount -= count(appliedSkips);
+		pendingSkips.clear();
+		appliedSkips.clear();
+	}
+
+	// 재시작하면 이전 실행에서 건너뛴 수부터 이어서 센다. (skipLimit은 재시작해도 누적)
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		skippedCount = executionContext.getLong(SKIPPED_KEY, 0L);
+		if (delegate instanceof ItemStream) {
+			((ItemStream) delegate).open(executionContext);
+		}
+	}
+
+	// update는 청크 트랜잭션 안에서 StepContribution이 StepExecution에 반영된 뒤, BATCH_STEP_EXECUTION 을 저장하기 전에 호출된다.
+	// 여기서 건너뛴 수를 반영해야 청크와 같은 트랜잭션으로 저장된다. (afterChunk는 커밋 뒤)
+	// SimpleChunkProcessor는 건너뛴 항목도 writeCount에 더하므로 그만큼 뺀다.
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		int skips = pendingSkipCount();
+		if (skips > 0) {
+			stepExecution.setWriteSkipCount(stepExecution.getWriteSkipCount() + skips);
+			stepExecution.setWriteCount(stepExecution.getWriteCount() - skips);
+			skippedCount += skips;
+			pendingSkips.forEach((exception, count) -> appliedSkips.merge(exception, count, Integer::sum));
+			pendingSkips.clear();
+		}
+		executionContext.putLong(SKIPPED_KEY, skippedCount);
+		if (delegate instanceof ItemStream) {
+			((ItemStream) delegate).update(executionContext);
+		}
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+		if (delegate instanceof ItemStream) {
+			((ItemStream) delegate).close();
+		}
+		if (skippedCount > 0) {
+			log.warn("쓰기 실패로 건너뛴 항목: {}건 (쓰기 {}번)", skippedCount, delegateWriteCount);
+		}
+	}
+}
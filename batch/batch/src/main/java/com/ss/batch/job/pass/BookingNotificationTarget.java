@@ -0,0 +1,19 @@
+package com.ss.batch.job.pass;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 수업 전 알림을 만들 때 필요한 예약 정보만 담은 한 건
+// 예약, 사용자 엔티티 전체 대신 JPQL 생성자 표현식(select new ...)으로 필요한 컬럼만 읽는다.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingNotificationTarget {
+	private Long bookingSeq;			// 예약 순번 (키셋 키)
+	private String userId;				// 예약한 사용자
+	private String uuid;				// 카카오톡 발송용 uuid (user.uuid 생성 컬럼)
+	private LocalDateTime startedAt;	// 수업 시작 시간
+}
@@ -0,0 +1,14 @@
+package com.ss.batch.job.pass;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 이용권 차감에 필요한 예약 정보만 담은 한 건 (어느 이용권을 한 번 사용했는지)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingUsage {
+	private Long bookingSeq;	// 예약 순번 (키셋 키)
+	private Long passSeq;		// 사용한 이용권
+}
@@ -0,0 +1,17 @@
+package com.ss.batch.job.pass;
+
+import com.ss.batch.entity.BulkPassEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 대량 이용권 하나와 그 그룹에 속한 사용자 한 명을 묶은 한 건
+// 그룹 전체를 리스트로 올리지 않고 (대량 이용권, 사용자) 한 쌍씩 커서로 읽어서 처리한다.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPassMember {
+	private BulkPassEntity bulkPass;	// 대량 이용권 정보
+	private String userId;				// 이용권을 받을 사용자 ID
+}
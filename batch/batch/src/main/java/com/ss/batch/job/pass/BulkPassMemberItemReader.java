@@ -0,0 +1,138 @@
+package com.ss.batch.job.pass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import com.ss.batch.entity.BulkPassEntity;
+import com.ss.batch.entity.BulkPassStatus;
+
+// 대량 이용권과 그룹 사용자를 (대량 이용권 순번, 사용자 ID) 순서로 한 쌍씩 읽는 커서 reader
+// 청크가 커밋될 때 마지막으로 읽은 (대량 이용권 순번, 사용자 ID)를 ExecutionContext에 저장하고,
+// 재시작하면 앞의 행을 읽으면서 건너뛰지 않고 그 다음 키부터 커서를 다시 연다. (남은 건수만큼만 읽는다.)
+// 이미 그 대량 이용권으로 이용권을 받은 사용자는 읽지 않아서 새 실행으로 다시 돌려도 중복 발급되지 않는다.
+public class BulkPassMemberItemReader extends AbstractItemCountingItemStreamItemReader<BulkPassMember> {
+	public static final String LAST_BULK_PASS_SEQ = "last.bulk.pass.seq";
+	public static final String LAST_USER_ID = "last.user.id";
+
+	private final DataSource dataSource;
+	private final List<Long> bulkPassSeqs;
+	private final int fetchSize;
+
+	private JdbcCursorItemReader<BulkPassMember> cursor;
+	private Long lastBulkPassSeq;
+	private String lastUserId;
+
+	public BulkPassMemberItemReader(String name, DataSource dataSource, List<Long> bulkPassSeqs, int fetchSize) {
+		setName(name);
+		this.dataSource = dataSource;
+		this.bulkPassSeqs = bulkPassSeqs;
+		this.fetchSize = fetchSize;
+	}
+
+	// 커서를 열기 전에 마지막 키를 먼저 꺼내둔다. (doOpen에서 키 다음부터 조회)
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		lastBulkPassSeq = null;
+		lastUserId = null;
+		if (isSaveState() && executionContext.containsKey(getExecutionContextKey(LAST_BULK_PASS_SEQ))) {
+			lastBulkPassSeq = executionContext.getLong(getExecutionContextKey(LAST_BULK_PASS_SEQ));
+			lastUserId = executionContext.getString(getExecutionContextKey(LAST_USER_ID));
+		}
+		super.open(executionContext);
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		super.update(executionContext);
+		if (isSaveState() && lastBulkPassSeq != null) {
+			executionContext.putLong(getExecutionContextKey(LAST_BULK_PASS_SEQ), lastBulkPassSeq);
+			executionContext.putString(getExecutionContextKey(LAST_USER_ID), lastUserId);
+		}
+	}
+
+	// 키로 바로 찾아가기 때문에 앞의 행을 읽으면서 건너뛸 필요가 없다.
+	@Override
+	protected void jumpToItem(int itemIndex) throws Exception {
+	}
+
+	// 대량 이용권 bulkPassCount 개의 사용자를 읽는 조회문 (restarted - 마지막 키 다음부터)
+	// QueryPlanTest가 같은 조회문의 실행 계획을 확인한다.
+	public static String selectSql(int bulkPassCount, boolean restarted) {
+		String placeholders = String.join(", ", Collections.nCopies(bulkPassCount, "?"));
+		StringBuilder sql = new StringBuilder()
+				.append("select b.bulk_pass_seq, b.package_seq, b.user_group_id, b.status, b.count, b.started_at, b.ended_at, m.user_id")
+				.append(" from bulk_pass b join user_group_mapping m on m.user_group_id = b.user_group_id")
+				.append(" where b.bulk_pass_seq in (").append(placeholders).append(")");
+		if (restarted) {
+			sql.append(" and (b.bulk_pass_seq > ? or (b.bulk_pass_seq = ? and m.user_id > ?))");
+		}
+		sql.append(" and not exists (select 1 from pass p where p.bulk_pass_seq = b.bulk_pass_seq and p.user_id = m.user_id)")
+				.append(" order by b.bulk_pass_seq, m.user_id");
+		return sql.toString();
+	}
+
+	@Override
+	protected void doOpen() throws Exception {
+		String sql = selectSql(bulkPassSeqs.size(), lastBulkPassSeq != null);
+
+		List<Object> args = new ArrayList<Object>(bulkPassSeqs);
+		if (lastBulkPassSeq != null) {
+			args.add(lastBulkPassSeq);
+			args.add(lastBulkPassSeq);
+			args.add(lastUserId);
+		}
+
+		// 재시작 위치는 이 reader가 키로 관리하므로 커서 자체는 상태를 저장하지 않는다.
+		cursor = new JdbcCursorItemReaderBuilder<BulkPassMember>()
+				.dataSource(dataSource)
+				.fetchSize(fetchSize)
+				.saveState(false)
+				.sql(sql)
+				.preparedStatementSetter(ps -> {
+					for (int i = 0; i < args.size(); i++) {
+						ps.setObject(i + 1, args.get(i));
+					}
+				})
+				.rowMapper((rs, rowNum) -> {
+					BulkPassEntity bulkPass = new BulkPassEntity();
+					bulkPass.setBulkPassSeq(rs.getLong("bulk_pass_seq"));
+					bulkPass.setPackageSeq(rs.getLong("package_seq"));
+					bulkPass.setUserGroupId(rs.getString("user_group_id"));
+					bulkPass.setStatus(BulkPassStatus.valueOf(rs.getString("status")));
+					bulkPass.setCount(rs.getObject("count", Integer.class));
+					bulkPass.setStartedAt(rs.getObject("started_at", LocalDateTime.class));
+					bulkPass.setEndedAt(rs.getObject("ended_at", LocalDateTime.class));
+					return new BulkPassMember(bulkPass, rs.getString("user_id"));
+				})
+				.build();
+		cursor.open(new ExecutionContext());
+	}
+
+	@Override
+	protected BulkPassMember doRead() throws Exception {
+		BulkPassMember member = cursor.read();
+		if (member != null) {
+			lastBulkPassSeq = member.getBulkPass().getBulkPassSeq();
+			lastUserId = member.getUserId();
+		}
+		return member;
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		if (cursor != null) {
+			cursor.close();
+			cursor = null;
+		}
+	}
+}
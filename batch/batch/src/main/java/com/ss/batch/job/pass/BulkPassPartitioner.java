@@ -0,0 +1,31 @@
+package com.ss.batch.job.pass;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+// 이번 실행에서 처리할 대량 이용권을 하나씩 파티션으로 나눈다.
+// 파티션마다 stepExecutionContext에 대량 이용권 순번(bulkPassSeqs)을 넣어주고,
+// 워커 step은 그 대량 이용권의 그룹 사용자에게만 이용권을 발급한다.
+// 나누는 단위가 대량 이용권이라 gridSize는 사용하지 않는다.
+public class BulkPassPartitioner implements Partitioner {
+	private final List<Long> bulkPassSeqs;
+
+	public BulkPassPartitioner(List<Long> bulkPassSeqs) {
+		this.bulkPassSeqs = bulkPassSeqs;
+	}
+
+	@Override
+	public Map<String, ExecutionContext> partition(int gridSize) {
+		Map<String, ExecutionContext> partitions = new HashMap<String, ExecutionContext>();
+		for (int i = 0; i < bulkPassSeqs.size(); i++) {
+			ExecutionContext context = new ExecutionContext();
+			context.putString(AddPassesJobConfig.BULK_PASS_SEQS, String.valueOf(bulkPassSeqs.get(i)));
+			partitions.put("partition" + i, context);
+		}
+		return partitions;
+	}
+}
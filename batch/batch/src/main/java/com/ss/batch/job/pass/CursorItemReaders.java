@@ -0,0 +1,72 @@
+package com.ss.batch.job.pass;
+
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.springframework.batch.item.database.HibernateCursorItemReader;
+import org.springframework.batch.item.database.JpaCursorItemReader;
+import org.springframework.batch.item.database.builder.HibernateCursorItemReaderBuilder;
+import org.springframework.batch.item.database.builder.JpaCursorItemReaderBuilder;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.beans.factory.InitializingBean;
+
+// 엔티티를 커서로 읽는 reader를 모드에 따라 만든다. (어느 step에서든 reader 자리에 그대로 사용)
+// JPA - JpaCursorItemReader. 읽은 엔티티가 모두 EntityManager(영속성 컨텍스트)에 남아서
+//       커서가 길수록 메모리가 늘고, flush 할 때 dirty checking 대상도 늘어난다.
+// STATELESS - Hibernate StatelessSession + ScrollableResults(FORWARD_ONLY) 로 읽는 HibernateCursorItemReader.
+//       영속성 컨텍스트가 없어서 읽은 엔티티를 붙잡지 않으므로 결과 건수와 상관없이 메모리가 일정하다.
+//       (읽은 엔티티는 준영속 상태라 지연 로딩 연관관계는 쓸 수 없고, 저장은 JDBC writer로 한다)
+// fetchSize - 드라이버가 한 번에 가져올 행 수
+//       MySQL은 URL에 useCursorFetch=true 이면 fetchSize 건씩 서버 커서로 가져오고,
+//       Integer.MIN_VALUE(-2147483648) 이면 한 행씩 스트리밍한다. (0 이면 결과 전체를 메모리로 가져온다, JPA 모드는 사용하지 않음)
+// saveState - false 이면 읽은 건수를 저장하지 않고 재시작할 때 처음부터 다시 읽는다.
+//       writer가 조회 조건을 바꾸는 step(상태를 바꾸는 등)은 재시작하면 남은 행만 다시 조회되므로 건수만큼 건너뛰면 안 된다.
+public final class CursorItemReaders {
+	public enum Mode {
+		JPA, STATELESS
+	}
+
+	private CursorItemReaders() {
+	}
+
+	public static <T> AbstractItemCountingItemStreamItemReader<T> create(Mode mode, String name,
+			EntityManagerFactory entityManagerFactory, String queryString, Map<String, Object> parameterValues, int fetchSize) {
+		return create(mode, name, entityManagerFactory, queryString, parameterValues, fetchSize, true);
+	}
+
+	public static <T> AbstractItemCountingItemStreamItemReader<T> create(Mode mode, String name,
+			EntityManagerFactory entityManagerFactory, String queryString, Map<String, Object> parameterValues, int fetchSize,
+			boolean saveState) {
+		if (mode == Mode.JPA) {
+			JpaCursorItemReader<T> reader = new JpaCursorItemReaderBuilder<T>().name(name)
+					.saveState(saveState)
+					.entityManagerFactory(entityManagerFactory)
+					.queryString(queryString)
+					.parameterValues(parameterValues)
+					.build();
+			return afterPropertiesSet(reader, reader);
+		}
+		HibernateCursorItemReader<T> reader = new HibernateCursorItemReaderBuilder<T>().name(name)
+				.saveState(saveState)
+				.sessionFactory(entityManagerFactory.unwrap(SessionFactory.class))
+				.useStatelessSession(true)
+				.queryString(queryString)
+				.parameterValues(parameterValues)
+				.fetchSize(fetchSize)
+				.build();
+		return afterPropertiesSet(reader, reader);
+	}
+
+	// 스프링 빈이 아닌 곳(테스트, 벤치마크)에서 만들어도 바로 쓸 수 있도록 설정 검증까지 마친다.
+	private static <T> AbstractItemCountingItemStreamItemReader<T> afterPropertiesSet(AbstractItemCountingItemStreamItemReader<T> reader,
+			InitializingBean initializingBean) {
+		try {
+			initializingBean.afterPropertiesSet();
+		} catch (Exception e) {
+			throw new IllegalStateException("reader 설정 오류: " + reader.getClass().getSimpleName(), e);
+		}
+		return reader;
+	}
+}
@@ -1,30 +1,71 @@
 package com.ss.batch.job.pass;
 
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.Map;
 
 import javax.persistence.EntityManagerFactory;
 
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameter;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.database.JpaCursorItemReader;
-import org.springframework.batch.item.database.JpaItemWriter;
-import org.springframework.batch.item.database.builder.JpaCursorItemReaderBuilder;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import com.ss.batch.config.RemotePartitioning;
+import com.ss.batch.entity.JobWatermarkEntity;
 import com.ss.batch.entity.PassEntity;
 import com.ss.batch.entity.PassStatus;
+import com.ss.batch.repository.JobWatermarkRepository;
+import com.ss.batch.repository.PassRepository;
+
+import lombok.extern.slf4j.Slf4j;
 
 // 이용권이 만료 되었을 때 배치 작업을 설정하는 클래스
+@Slf4j
 @Configuration
 public class ExpiredPassJobConfig {
-	// 데이터를 한꺼번에 처리할 수 있는 사이즈
-	private final int CHUNK_SIZE = 5;
+	// 만료 기준 시각 JobParameter 이름이자, 이번 실행의 구간을 JobExecutionContext에 저장할 때 사용하는 키
+	// cutoff - 종료일시가 이 시각 이하인 이용권까지 만료 (JobParameter가 없으면 실행 시각)
+	// watermark - 지난 실행까지 처리한 구간 (이 시각 이하는 이미 처리되어서 다시 읽지 않는다)
+	// catchUp - 이번 실행이 watermark 없이 cutoff 이하 전체를 읽는 따라잡기 실행인지
+	public static final String CUTOFF = "cutoff";
+	public static final String WATERMARK = "watermark";
+	public static final String CATCH_UP = "catchUp";
+
+	// 처음 실행할 때의 watermark (모든 이용권이 대상)
+	private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	// 마지막 따라잡기 실행의 cutoff를 job_watermark에 저장할 때 Job 이름 뒤에 붙이는 이름
+	private static final String CATCH_UP_SUFFIX = ".catchUp";
+
+	// reader 조회문 (QueryPlanTest가 같은 조회문의 실행 계획을 확인한다)
+	private static final String EXPIRED_PASS_CONDITION =
+			"select p from PassEntity p where p.status = :status and p.ended_at > :watermark and p.ended_at <= :cutoff";
+	public static final String EXPIRED_PASS_QUERY = EXPIRED_PASS_CONDITION + " order by p.pass_seq";
+	public static final String EXPIRED_PASS_PARTITION_QUERY = EXPIRED_PASS_CONDITION
+			+ " and p.pass_seq between :minPassSeq and :maxPassSeq order by p.pass_seq";
+
+	// 데이터를 한꺼번에 처리할 수 있는 사이즈 (batch.expired-pass.chunk-size)
+	// 처음 청크 크기이고, 이후에는 커밋 시간에 따라 expiredPassChunkSizePolicy가 조절한다.
+	private final int chunkSize;
 
 	// JOB을 생성하는 팩토리(클래스)를 생성한다.
 	private final JobBuilderFactory jobBuilderFactory;
@@ -35,83 +76,296 @@ public class ExpiredPassJobConfig {
 	// JPA와 DB를 연결 관리하는 객체
 	private final EntityManagerFactory entityManagerFactory;
 
+	// 파티션 범위를 계산할 때 사용
+	private final PassRepository passRepository;
+
+	// 만료 처리를 UPDATE 한 번으로 실행할 때 사용
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	// Job 마다 마지막으로 처리한 기준 시각
+	private final JobWatermarkRepository jobWatermarkRepository;
+
+	// 파티션 모드 설정
+	// partitioned - true 이면 pass_seq 범위로 나눠서 여러 스레드로 만료 처리
+	// grid-size - 나눌 파티션 개수
+	// pool-size - 워커 step을 실행할 스레드 수
+	private final boolean partitioned;
+	private final int gridSize;
+	private final int poolSize;
+
+	// 원격 파티션 매니저 설정 (batch.remote-partitioning.manager=true 일 때만 있음)
+	// 있으면 파티션을 워커 JVM에서 실행한다.
+	private final ObjectProvider<RemotePartitioning> remotePartitioning;
+
+	// 만료 대상을 읽는 reader 방식 (STATELESS - StatelessSession, JPA - JpaCursorItemReader)과 fetch size
+	// 저장은 JDBC로 하기 때문에 읽은 엔티티를 영속성 컨텍스트에 둘 필요가 없다.
+	private final CursorItemReaders.Mode readerMode;
+	private final int fetchSize;
+
+	// 따라잡기 실행 간격
+	// watermark 이하로 늦게 들어온 이용권은 평소 실행에서 읽지 않으므로 이 간격마다 한 번 watermark 없이 cutoff 이하 전체를 읽는다.
+	private final Duration catchUpInterval;
+
+	// 데드락으로 롤백된 청크를 다시 쓰는 횟수 (batch.fault-tolerance.retry-limit)
+	private final int retryLimit;
+
 	public ExpiredPassJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory,
-			EntityManagerFactory entityManagerFactory) {
+			EntityManagerFactory entityManagerFactory, PassRepository passRepository,
+			NamedParameterJdbcTemplate jdbcTemplate, JobWatermarkRepository jobWatermarkRepository,
+			ObjectProvider<RemotePartitioning> remotePartitioning,
+			@Value("${batch.expired-pass.chunk-size:5}") int chunkSize,
+			@Value("${batch.expired-pass.partitioned:false}") boolean partitioned,
+			@Value("${batch.expired-pass.grid-size:4}") int gridSize,
+			@Value("${batch.expired-pass.pool-size:4}") int poolSize,
+			@Value("${batch.expired-pass.reader:STATELESS}") CursorItemReaders.Mode readerMode,
+			@Value("${batch.expired-pass.fetch-size:1000}") int fetchSize,
+			@Value("${batch.expired-pass.catch-up-interval:1d}") Duration catchUpInterval,
+			@Value("${batch.fault-tolerance.retry-limit:3}") int retryLimit) {
 		this.jobBuilderFactory = jobBuilderFactory;
 		this.stepBuilderFactory = stepBuilderFactory;
 		this.entityManagerFactory = entityManagerFactory;
+		this.passRepository = passRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.jobWatermarkRepository = jobWatermarkRepository;
+		this.chunkSize = chunkSize;
+		this.partitioned = partitioned;
+		this.gridSize = gridSize;
+		this.poolSize = poolSize;
+		this.remotePartitioning = remotePartitioning;
+		this.readerMode = readerMode;
+		this.fetchSize = fetchSize;
+		this.catchUpInterval = catchUpInterval;
+		this.retryLimit = retryLimit;
 	}
 
 	// JOB
 	// 배치 작업을 말하고 여러 개의 step(단계)을 가질 수 있다.
 	// 실행 시 여러 step 순서대로 처리를 한다.
+	// 1. 이번에 처리할 종료일시 구간 (watermark, cutoff] 을 정한다.
+	// 2. 구간 안의 진행 중인 이용권을 만료
+	// 3. 다음 실행의 watermark 저장 (구간 안에 남은 이용권이 없으면 cutoff, 있으면 가장 이른 종료일시 바로 앞)
 	@Bean
 	public Job expiredPassJob() {
 		return this.jobBuilderFactory.get("expiredPassJob") // 배치 작성을 생성해서 이름을 저장
-				.start(expiredPassStep()) // step을 실행하는 메서드
+				.start(expiredPassWindowStep())
+				.next(partitioned || remotePartitioning.getIfAvailable() != null ? expiredPassPartitionStep() : expiredPassStep()) // step을 실행하는 메서드
+				.next(saveExpiredPassWatermarkStep())
 				.build(); // JOB을 생성한다.
 	}
 
+	// 구간은 JobExecutionContext에 저장해서 이후 step, 파티션, 재시작에서 모두 같은 값을 사용한다.
+	// 마지막 따라잡기 실행 후 catch-up-interval 이 지났으면 이번 실행은 watermark 없이 읽는다.
+	@Bean
+	public Step expiredPassWindowStep() {
+		return this.stepBuilderFactory.get("expiredPassWindowStep").tasklet((contribution, chunkContext) -> {
+			StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+			JobExecution jobExecution = stepExecution.getJobExecution();
+			String jobName = jobExecution.getJobInstance().getJobName();
+
+			LocalDateTime cutoff = toCutoff(jobExecution.getJobParameters().getParameters().get(CUTOFF));
+			LocalDateTime watermark = findWatermark(jobName);
+			boolean catchUp = !findWatermark(jobName + CATCH_UP_SUFFIX).plus(catchUpInterval).isAfter(cutoff);
+			if (catchUp) {
+				watermark = INITIAL_WATERMARK;
+			}
+
+			// LocalDateTime은 ExecutionContext 직렬화 시 문자열로 저장해서 넘긴다.
+			jobExecution.getExecutionContext().putString(WATERMARK, watermark.toString());
+			jobExecution.getExecutionContext().putString(CUTOFF, cutoff.toString());
+			jobExecution.getExecutionContext().putString(CATCH_UP, Boolean.toString(catchUp));
+
+			log.info("만료 대상 종료일시 구간: {} 초과 ~ {} 이하{}", watermark, cutoff, catchUp ? " (따라잡기)" : "");
+			return RepeatStatus.FINISHED;
+		}).build();
+	}
+
+	// 만료 처리가 끝나면 cutoff를 다음 실행의 watermark로 저장
+	// 지난 날짜로 다시 실행(cutoff < watermark)해도 뒤로 가지 않도록 큰 값만 저장한다.
+	// 건너뛰어서 batch_dead_letter에 남은 이용권은 watermark를 붙잡지 않는다. (잡아두면 실행마다 같은 이용권을 다시 읽고 다시 실패한다)
+	// 이 이용권은 PROGRESSED 로 남아서 다음 따라잡기 실행이 다시 읽는다.
+	@Bean
+	public Step saveExpiredPassWatermarkStep() {
+		return this.stepBuilderFactory.get("saveExpiredPassWatermarkStep").tasklet((contribution, chunkContext) -> {
+			JobExecution jobExecution = chunkContext.getStepContext().getStepExecution().getJobExecution();
+			String jobName = jobExecution.getJobInstance().getJobName();
+			LocalDateTime cutoff = LocalDateTime.parse(jobExecution.getExecutionContext().getString(CUTOFF));
+
+			JobWatermarkEntity jobWatermarkEntity = watermarkEntity(jobName);
+			if (cutoff.isAfter(jobWatermarkEntity.getWatermark())) {
+				jobWatermarkEntity.setWatermark(cutoff);
+				jobWatermarkRepository.save(jobWatermarkEntity);
+			}
+
+			if (Boolean.parseBoolean(jobExecution.getExecutionContext().getString(CATCH_UP))) {
+				JobWatermarkEntity catchUpEntity = watermarkEntity(jobName + CATCH_UP_SUFFIX);
+				catchUpEntity.setWatermark(cutoff);
+				jobWatermarkRepository.save(catchUpEntity);
+			}
+			return RepeatStatus.FINISHED;
+		}).build();
+	}
+
+	private LocalDateTime findWatermark(String name) {
+		return jobWatermarkRepository.findById(name).map(JobWatermarkEntity::getWatermark).orElse(INITIAL_WATERMARK);
+	}
+
+	private JobWatermarkEntity watermarkEntity(String name) {
+		return jobWatermarkRepository.findById(name).orElseGet(() -> {
+			JobWatermarkEntity entity = new JobWatermarkEntity();
+			entity.setJobName(name);
+			entity.setWatermark(INITIAL_WATERMARK);
+			return entity;
+		});
+	}
+
+	// cutoff JobParameter는 문자열(2024-01-01T00:00:00) 또는 날짜 타입으로 받는다.
+	// DB(DATETIME(6))에 저장되는 watermark와 값이 같도록 마이크로초 단위로 자른다.
+	private static LocalDateTime toCutoff(JobParameter jobParameter) {
+		LocalDateTime cutoff;
+		if (jobParameter == null || jobParameter.getValue() == null) {
+			cutoff = LocalDateTime.now();
+		} else if (jobParameter.getValue() instanceof Date) {
+			cutoff = new Timestamp(((Date) jobParameter.getValue()).getTime()).toLocalDateTime();
+		} else {
+			cutoff = LocalDateTime.parse(jobParameter.getValue().toString());
+		}
+		return cutoff.truncatedTo(ChronoUnit.MICROS);
+	}
+
 	// STEP
 	// <PassEntity, PassEntity> 입력, 출력 데이터 타입
 	// 첫번째 제네릭 타입 - DB에서 데이터를 읽어올 때 타입
 	// 두번째 제네릭 타입 - DB에서 데이터를 처리하거나, 수정된 데이터나 추가된 데이터를 저장
+	// 상태, 만료일자는 writer가 UPDATE 문으로 바꾸기 때문에 processor 없이 읽은 이용권을 그대로 넘긴다.
 	@Bean
 	public Step expiredPassStep() {
-		return this.stepBuilderFactory.get("expiredPassStep").<PassEntity, PassEntity>chunk(CHUNK_SIZE)
-				.reader(expiredPassItemReader()) // 읽어오기
-				.processor(expiredPassItemProcessor()) // 데이터를 처리
-				.writer(expiredPassItemWriter()) // 저장
+		AdaptiveChunkSizePolicy chunkSizePolicy = expiredPassChunkSizePolicy(null, null, null);
+		return this.stepBuilderFactory.get("expiredPassStep").<PassEntity, PassEntity>chunk(chunkSizePolicy)
+				.reader(expiredPassItemReader(null, null)) // 읽어오기
+				.writer(expiredPassItemWriter(null, null)) // 저장
+				.faultTolerant() // 데드락은 청크 전체를 다시 쓴다. (BisectingItemWriter)
+				.retry(DeadlockLoserDataAccessException.class)
+				.retryLimit(retryLimit)
+				.stream(chunkSizePolicy)
+				.listener((ChunkListener) chunkSizePolicy)
+				.build();
+	}
+
+	// 파티션 모드의 매니저 step
+	// 파티셔너가 나눈 범위마다 워커 step을 만들어서 taskExecutor 스레드에서 동시에 실행한다.
+	// 원격 파티션 모드이면 범위마다 요청 메시지를 보내고 워커 JVM들이 expiredPassWorkerStep을 실행한다.
+	@Bean
+	public Step expiredPassPartitionStep() {
+		RemotePartitioning remote = remotePartitioning.getIfAvailable();
+		if (remote != null) {
+			return this.stepBuilderFactory.get("expiredPassPartitionStep")
+					.partitioner("expiredPassWorkerStep", expiredPassPartitioner(null, null))
+					.partitionHandler(remote.partitionHandler("expiredPassWorkerStep", gridSize))
+					.build();
+		}
+		return this.stepBuilderFactory.get("expiredPassPartitionStep")
+				.partitioner("expiredPassWorkerStep", expiredPassPartitioner(null, null))
+				.step(expiredPassWorkerStep())
+				.gridSize(gridSize)
+				.taskExecutor(expiredPassTaskExecutor())
+				.build();
+	}
+
+	// 파티션 하나(pass_seq 범위)를 처리하는 워커 step
+	// 읽기 범위만 다르고 처리, 저장은 단일 step과 같다.
+	@Bean
+	public Step expiredPassWorkerStep() {
+		AdaptiveChunkSizePolicy chunkSizePolicy = expiredPassChunkSizePolicy(null, null, null);
+		return this.stepBuilderFactory.get("expiredPassWorkerStep").<PassEntity, PassEntity>chunk(chunkSizePolicy)
+				.reader(expiredPassPartitionItemReader(null, null, null, null))
+				.writer(expiredPassItemWriter(null, null))
+				.faultTolerant() // 데드락은 청크 전체를 다시 쓴다. (BisectingItemWriter)
+				.retry(DeadlockLoserDataAccessException.class)
+				.retryLimit(retryLimit)
+				.stream(chunkSizePolicy)
+				.listener((ChunkListener) chunkSizePolicy)
 				.build();
 	}
 
+	// step 실행(파티션)마다 따로 청크 크기를 조절한다.
+	// min-size / max-size - 청크 크기 범위
+	// target-ms - 청크 하나(읽기 ~ 커밋)의 목표 처리 시간
+	@Bean
+	@StepScope
+	public AdaptiveChunkSizePolicy expiredPassChunkSizePolicy(
+			@Value("${batch.expired-pass.adaptive-chunk.min-size:5}") Integer minSize,
+			@Value("${batch.expired-pass.adaptive-chunk.max-size:1000}") Integer maxSize,
+			@Value("${batch.expired-pass.adaptive-chunk.target-ms:1000}") Long targetMillis) {
+		return new AdaptiveChunkSizePolicy(chunkSize, minSize, maxSize, targetMillis);
+	}
+
+	// 이번 실행 구간 안의 만료 대상 순번 범위를 나눈다.
+	@Bean
+	@StepScope
+	public PassSeqRangePartitioner expiredPassPartitioner(
+			@Value("#{jobExecutionContext['watermark']}") String watermark,
+			@Value("#{jobExecutionContext['cutoff']}") String cutoff) {
+		return new PassSeqRangePartitioner(passRepository, LocalDateTime.parse(watermark), LocalDateTime.parse(cutoff));
+	}
+
+	@Bean
+	public TaskExecutor expiredPassTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setThreadNamePrefix("expired-pass-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.initialize();
+		return executor;
+	}
+
 	/*
 	 * JpaCursorItemReader - JpaPagingItemReader만 지원했는데, Spring 4.3에서 추가된 페이징 기법보다
 	 * 높은 성능으로 데이터 변경에 무관한 무결성 조회 가능하다.
+	 * 기본은 같은 커서 방식을 StatelessSession으로 읽는 reader (batch.expired-pass.reader, CursorItemReaders 참고)
+	 * writer가 읽은 이용권을 EXPIRED로 바꿔서 조회 결과에서 빠지기 때문에 읽은 건수는 저장하지 않는다. (saveState=false)
+	 * 재시작하면 처음부터 다시 조회해서 아직 진행 중인 이용권만 읽는다.
 	 * 
 	 * Map.of() - java의 Map 객체를 자동으로 생성하는 것! (객체)
 	 */
 	@Bean
 	@StepScope // step 실행 될 때마다 새로운 객체를 생성하도록 설정하는 어노테이션
-	public JpaCursorItemReader<PassEntity> expiredPassItemReader() {
-		return new JpaCursorItemReaderBuilder<PassEntity>().name("expiredPassItemReader") // ItemReader 여러 개 중 리더를 구분
-				.entityManagerFactory(entityManagerFactory) // JPA를 통해서 DB에 연결하고 DB 관리
-				// 상태(status)가 진행 중(PROGRESSED)이며, 종료일시(endedAt)가 현재 시점보다 과거일 경우 만료 대상
-				// JPQL 쿼리
-				.queryString("select p from PassEntity p where p.status = :status and p.ended_at <= :endedAt")
-				.parameterValues(Map.of("status", PassStatus.PROGRESSED, "endedAt", LocalDateTime.now())).build();
+	public AbstractItemCountingItemStreamItemReader<PassEntity> expiredPassItemReader(
+			@Value("#{jobExecutionContext['watermark']}") String watermark,
+			@Value("#{jobExecutionContext['cutoff']}") String cutoff) {
+		// ItemReader 여러 개 중 리더를 구분하는 이름
+		// 상태(status)가 진행 중(PROGRESSED)이며, 종료일시(endedAt)가 이번 구간(watermark 초과 ~ cutoff 이하)에 있으면 만료 대상
+		// JPQL 쿼리
+		return CursorItemReaders.create(readerMode, "expiredPassItemReader", entityManagerFactory, EXPIRED_PASS_QUERY,
+				Map.of("status", PassStatus.PROGRESSED, "watermark", LocalDateTime.parse(watermark),
+						"cutoff", LocalDateTime.parse(cutoff)),
+				fetchSize, false);
 	}
 
+	// 파티션 하나에 해당하는 pass_seq 범위만 읽어오는 리더
+	// stepExecutionContext 값은 PassSeqRangePartitioner가 넣어준다.
 	@Bean
-	public ItemProcessor<PassEntity, PassEntity> expiredPassItemProcessor() {
-		// 인터페이스를 이용해서 itemProcessor 생성
-		// 익명 클래스를 이용해서 사용한다. 람다식으로 표현.
-		return new ItemProcessor<PassEntity, PassEntity>() {
-			@Override
-			public PassEntity process(PassEntity item) throws Exception {
-				// 실제 처리하는 내용
-				// 상태 현재 이용 중에서 만료!
-				// 만료 일자도 현재 날짜를 기준으로 수정
-				item.setStatus(PassStatus.EXPIRED);
-				item.setExpired_at(LocalDateTime.now());
-				return item;
-			}
-		};
-	}
-	// 위의 코드를 람다식으로 표현한 경우
-//	@Bean
-//	public ItemProcessor<PassEntity, PassEntity> expirePassesItemProcessor() {
-//		return passEntity -> {
-//			passEntity.setStatus(PassStatus.EXPIRED);
-//			passEntity.setExpired_at(LocalDateTime.now());
-//			return passEntity;
-//		};
-//	}
-	
+	@StepScope
+	public AbstractItemCountingItemStreamItemReader<PassEntity> expiredPassPartitionItemReader(
+			@Value("#{stepExecutionContext['minPassSeq']}") Long minPassSeq,
+			@Value("#{stepExecutionContext['maxPassSeq']}") Long maxPassSeq,
+			@Value("#{jobExecutionContext['watermark']}") String watermark,
+			@Value("#{jobExecutionContext['cutoff']}") String cutoff) {
+		return CursorItemReaders.create(readerMode, "expiredPassPartitionItemReader", entityManagerFactory, EXPIRED_PASS_PARTITION_QUERY,
+				Map.of("status", PassStatus.PROGRESSED, "watermark", LocalDateTime.parse(watermark),
+						"cutoff", LocalDateTime.parse(cutoff), "minPassSeq", minPassSeq, "maxPassSeq", maxPassSeq),
+				fetchSize, false);
+	}
+
+	// 청크의 pass_seq를 모아서 PROGRESSED -> EXPIRED 로 한 번에 UPDATE
+	// 청크마다 변경되지 않은 건수를 모아두기 때문에 워커 step마다 따로 만들어지도록 StepScope
+	// UPDATE가 실패하면 청크를 나눠서 실패한 이용권만 건너뛴다. (BisectingItemWriter)
 	@Bean
-	public JpaItemWriter<PassEntity> expiredPassItemWriter() {
-		JpaItemWriter<PassEntity> writer = new JpaItemWriter<PassEntity>();
-		writer.setEntityManagerFactory(entityManagerFactory);
-		return writer;
+	@StepScope
+	public BisectingItemWriter<PassEntity> expiredPassItemWriter(
+			@Value("${batch.fault-tolerance.skip-limit:100}") Integer skipLimit,
+			@Value("${batch.fault-tolerance.retry-limit:3}") Integer retryLimit) {
+		return new BisectingItemWriter<PassEntity>(new PassStatusItemWriter(jdbcTemplate, PassStatus.PROGRESSED, PassStatus.EXPIRED),
+				PassEntity::getPass_seq, jdbcTemplate, skipLimit, retryLimit);
 	}
 }
@@ -0,0 +1,150 @@
+package com.ss.batch.job.pass;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+// 키셋(seek) 방식으로 페이지를 읽는 JPA reader
+// JpaPagingItemReader는 OFFSET / LIMIT 이라서 뒤 페이지로 갈수록 앞의 행을 모두 다시 읽지만
+// 이 reader는 마지막으로 읽은 키를 기억해서 "key > :lastKey order by key" 로 다음 페이지만 읽는다.
+// - queryString 에는 :lastKey 조건과 키 순서 정렬이 들어있어야 한다.
+//   예) select b from BookingEntity b where b.bookingSeq > :lastKey order by b.bookingSeq
+// - 키는 계속 증가하는 값(순번 등)이어야 한다.
+// - 인덱스가 (수정 일시, 순번) 처럼 여러 컬럼이면 앞 컬럼을 addLeadingKey 로 추가해서 인덱스 순서 그대로 읽는다. (복합 키셋)
+//   예) where b.modifiedAt >= :lastModifiedAt and (b.modifiedAt > :lastModifiedAt or b.bookingSeq > :lastKey)
+//       order by b.modifiedAt, b.bookingSeq
+// 마지막으로 읽은 키는 ExecutionContext에 저장해서 재시작하면 처음부터 건너뛰지 않고 바로 그 다음부터 읽는다.
+public class JpaKeysetItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+	public static final String LAST_KEY = "last.key";
+
+	private final EntityManagerFactory entityManagerFactory;
+	private final String queryString;
+	private final Class<T> type;
+	private final Map<String, Object> parameterValues;
+	private final int pageSize;
+	private final Function<T, Object> keyExtractor;
+	private final Object startKey;
+	// 키보다 앞에 정렬되는 키 (파라미터 이름 → 값을 꺼내는 함수, 시작 값)
+	private final Map<String, Function<T, Object>> leadingKeyExtractors = new LinkedHashMap<String, Function<T, Object>>();
+	private final Map<String, Object> leadingStartKeys = new HashMap<String, Object>();
+
+	private EntityManager entityManager;
+	private Iterator<T> page = Collections.emptyIterator();
+	private boolean lastPage;
+	private Object lastKey;
+	private final Map<String, Object> lastLeadingKeys = new HashMap<String, Object>();
+
+	// startKey - 처음 읽을 때 :lastKey 에 넣을 값 (첫 번째 키보다 작은 값, 예: 순번이면 0)
+	public JpaKeysetItemReader(String name, EntityManagerFactory entityManagerFactory, String queryString, Class<T> type,
+			Map<String, Object> parameterValues, int pageSize, Function<T, Object> keyExtractor, Object startKey) {
+		setName(name);
+		this.entityManagerFactory = entityManagerFactory;
+		this.queryString = queryString;
+		this.type = type;
+		this.parameterValues = parameterValues;
+		this.pageSize = pageSize;
+		this.keyExtractor = keyExtractor;
+		this.startKey = startKey;
+		this.lastKey = startKey;
+	}
+
+	// 복합 키셋의 앞 키를 추가한다. (추가한 순서대로 정렬, 마지막이 생성자의 키)
+	// parameterName - 조회문에서 마지막으로 읽은 값을 받는 파라미터 이름, startKey - 처음 읽을 때 넣을 값
+	public JpaKeysetItemReader<T> addLeadingKey(String parameterName, Function<T, Object> keyExtractor, Object startKey) {
+		leadingKeyExtractors.put(parameterName, keyExtractor);
+		leadingStartKeys.put(parameterName, startKey);
+		lastLeadingKeys.put(parameterName, startKey);
+		return this;
+	}
+
+	@Override
+	protected void doOpen() throws Exception {
+		entityManager = entityManagerFactory.createEntityManager();
+		page = Collections.emptyIterator();
+		lastPage = false;
+		lastKey = startKey;
+		lastLeadingKeys.putAll(leadingStartKeys);
+	}
+
+	// 읽은 건수 대신 마지막 키로 재시작 위치를 찾는다.
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		super.open(executionContext);
+		if (isSaveState() && executionContext.containsKey(getExecutionContextKey(LAST_KEY))) {
+			lastKey = executionContext.get(getExecutionContextKey(LAST_KEY));
+			for (String name : leadingKeyExtractors.keySet()) {
+				Object value = executionContext.get(getExecutionContextKey(LAST_KEY + "." + name));
+				lastLeadingKeys.put(name, value instanceof String && leadingStartKeys.get(name) instanceof LocalDateTime
+						? LocalDateTime.parse((String) value) : value);
+			}
+		}
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		super.update(executionContext);
+		if (isSaveState() && lastKey != null) {
+			executionContext.put(getExecutionContextKey(LAST_KEY), lastKey);
+			// LocalDateTime은 ExecutionContext(Jackson)에 직렬화되지 않아서 문자열로 저장한다.
+			lastLeadingKeys.forEach((name, value) -> executionContext.put(getExecutionContextKey(LAST_KEY + "." + name),
+					value instanceof LocalDateTime ? value.toString() : value));
+		}
+	}
+
+	// 키로 바로 찾아가기 때문에 앞의 행을 읽으면서 건너뛸 필요가 없다.
+	@Override
+	protected void jumpToItem(int itemIndex) throws Exception {
+	}
+
+	@Override
+	protected T doRead() throws Exception {
+		if (!page.hasNext()) {
+			if (lastPage) {
+				return null;
+			}
+			page = readPage().iterator();
+			if (!page.hasNext()) {
+				return null;
+			}
+		}
+		T item = page.next();
+		lastKey = keyExtractor.apply(item);
+		leadingKeyExtractors.forEach((name, extractor) -> lastLeadingKeys.put(name, extractor.apply(item)));
+		return item;
+	}
+
+	private List<T> readPage() {
+		// 이전 페이지 엔티티는 더 이상 필요 없으므로 영속성 컨텍스트를 비운다.
+		entityManager.clear();
+
+		TypedQuery<T> query = entityManager.createQuery(queryString, type).setMaxResults(pageSize);
+		parameterValues.forEach(query::setParameter);
+		query.setParameter("lastKey", lastKey);
+		lastLeadingKeys.forEach(query::setParameter);
+
+		List<T> items = query.getResultList();
+		lastPage = items.size() < pageSize;
+		return items;
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		if (entityManager != null) {
+			entityManager.close();
+			entityManager = null;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.ss.batch.job.pass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import com.ss.batch.adapter.message.NotificationMessage;
+import com.ss.batch.adapter.message.NotificationSender;
+import com.ss.batch.adapter.message.TokenBucketRateLimiter;
+import com.ss.batch.entity.NotificationEntity;
+import com.ss.batch.modelmapper.NotificationModelMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+// 청크의 알림들을 발송 스레드풀에 나눠서 동시에 보내고, 모두 끝나면 순서대로 결과를 모아서 저장하는 writer
+// - 발송 전에 채널별 토큰 버킷에서 토큰을 받아서 초당 발송 한도를 지킨다. (API 요청 한 번에 토큰 하나)
+// - 결과는 청크 순서대로 기다리기 때문에 sent / sentAt 은 같은 청크 커밋에서 저장된다.
+// - 실패하거나 시간 안에 응답이 없는 알림은 sent = false 로 남겨서 다음 실행 때 다시 보낸다.
+//
+// coalesce = true 이면 청크 안에서 같은 수신자(uuid)의 알림을 메시지 하나로 합치고,
+// 발송기가 지원하는 만큼(getMaxBatchSize) 여러 수신자를 요청 한 번으로 보낸다.
+// 알림 수 / API 요청 수(합치기 비율)는 StepExecution의 ExecutionContext에 저장되고,
+// 요청 하나에 담긴 알림 수는 batch.notification.per.request 지표(job, step)에 기록된다. (평균이 합치기 비율)
+// 건수는 청크마다 모아두었다가 청크 트랜잭션 안(update)에서 더하고, 지표는 커밋된 뒤(afterChunk)에 기록한다.
+// 롤백된 청크의 건수는 세지 않는다.
+@Slf4j
+public class NotificationDispatchItemWriter implements ItemStreamWriter<NotificationEntity>, StepExecutionListener, ChunkListener {
+	public static final String NOTIFICATION_COUNT = "notification.count";
+	public static final String REQUEST_COUNT = "notification.requestCount";
+	public static final String COALESCING_RATIO = "notification.coalescingRatio";
+
+	private final NotificationSender sender;
+	private final TokenBucketRateLimiter rateLimiter;
+	private final AsyncTaskExecutor executor;
+	private final long timeoutMillis;
+	private final boolean coalesce;
+
+	// 발송에 성공한 알림만 넘겨받아서 sent / sentAt 을 저장하는 writer
+	private final ItemWriter<NotificationEntity> delegate;
+
+	private StepExecution stepExecution;
+
+	// 커밋된 알림 수, 요청 수 (ExecutionContext에 저장)
+	// 이번 청크에서 보낸 요청별 알림 수 / update에서 더하고 커밋을 기다리는 요청별 알림 수
+	private long notificationCount;
+	private long requestCount;
+	private final List<Integer> pendingRequests = new ArrayList<Integer>();
+	private final List<Integer> appliedRequests = new ArrayList<Integer>();
+
+	public NotificationDispatchItemWriter(NotificationSender sender, TokenBucketRateLimiter rateLimiter,
+			AsyncTaskExecutor executor, long timeoutMillis, boolean coalesce, ItemWriter<NotificationEntity> delegate) {
+		this.sender = sender;
+		this.rateLimiter = rateLimiter;
+		this.executor = executor;
+		this.timeoutMillis = timeoutMillis;
+		this.coalesce = coalesce;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void write(List<? extends NotificationEntity> items) throws Exception {
+		// 1. 수신자별로 묶기 (합치지 않으면 알림 하나가 수신자 하나)
+		List<List<NotificationEntity>> recipients = group(items);
+
+		// 2. 요청 단위로 나눠서 모두 발송 요청
+		int batchSize = coalesce ? Math.max(1, sender.getMaxBatchSize()) : 1;
+		List<List<List<NotificationEntity>>> requests = new ArrayList<List<List<NotificationEntity>>>();
+		List<Future<List<Boolean>>> futures = new ArrayList<Future<List<Boolean>>>();
+
+		for (int from = 0; from < recipients.size(); from += batchSize) {
+			List<List<NotificationEntity>> request = recipients.subList(from, Math.min(from + batchSize, recipients.size()));
+			List<NotificationMessage> messages = request.stream().map(this::toMessage).collect(Collectors.toList());
+			requests.add(request);
+			pendingRequests.add(request.stream().mapToInt(List::size).sum());
+			futures.add(executor.submit(() -> {
+				rateLimiter.acquire(sender.getChannel());
+				return messages.size() == 1 ? List.of(sender.send(messages.get(0).getUuid(), messages.get(0).getText()))
+						: sender.sendBatch(messages);
+			}));
+		}
+
+		// 3. 요청 순서대로 결과 수집 (전체 청크 기준 제한 시간)
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		List<NotificationEntity> sentItems = new ArrayList<NotificationEntity>(items.size());
+
+		for (int i = 0; i < requests.size(); i++) {
+			List<List<NotificationEntity>> request = requests.get(i);
+			List<Boolean> results = await(futures.get(i), deadline, request.size());
+
+			for (int r = 0; r < request.size(); r++) {
+				if (!Boolean.TRUE.equals(results.get(r))) {
+					continue;
+				}
+				LocalDateTime sentAt = LocalDateTime.now();
+				for (NotificationEntity item : request.get(r)) {
+					item.setSent(true);
+					item.setSentAt(sentAt);
+					sentItems.add(item);
+				}
+			}
+		}
+
+		if (sentItems.size() != items.size()) {
+			log.warn("알림 발송: {}건 중 {}건 실패 (다음 실행에서 재발송)", items.size(), items.size() - sentItems.size());
+		}
+
+		// 4. 성공한 알림만 발송 완료로 저장
+		if (!sentItems.isEmpty()) {
+			delegate.write(sentItems);
+		}
+	}
+
+	private List<List<NotificationEntity>> group(List<? extends NotificationEntity> items) {
+		if (!coalesce) {
+			return items.stream().map(item -> List.<NotificationEntity>of(item)).collect(Collectors.toList());
+		}
+		Map<String, List<NotificationEntity>> byUuid = new LinkedHashMap<String, List<NotificationEntity>>();
+		for (NotificationEntity item : items) {
+			byUuid.computeIfAbsent(item.getUuid(), uuid -> new ArrayList<NotificationEntity>()).add(item);
+		}
+		return new ArrayList<List<NotificationEntity>>(byUuid.values());
+	}
+
+	// 같은 수신자의 알림 여러 건은 메시지 하나로 합친다.
+	private NotificationMessage toMessage(List<NotificationEntity> notifications) {
+		List<String> texts = notifications.stream().map(NotificationEntity::getText).collect(Collectors.toList());
+		return new NotificationMessage(notifications.get(0).getUuid(), NotificationModelMapper.combine(texts));
+	}
+
+	// 실패, 시간 초과면 요청에 들어있던 수신자 모두 실패로 처리
+	private List<Boolean> await(Future<List<Boolean>> future, long deadline, int size) throws InterruptedException {
+		try {
+			List<Boolean> results = future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			if (results != null && results.size() == size) {
+				return results;
+			}
+			log.warn("알림 발송 결과 수가 맞지 않음 요청: {} 결과: {}", size, results == null ? null : results.size());
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			log.warn("알림 발송 시간 초과 수신자: {}명", size);
+		} catch (ExecutionException e) {
+			log.warn("알림 발송 실패 수신자: {}명", size, e.getCause());
+		}
+		return Collections.nCopies(size, Boolean.FALSE);
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		notificationCount = executionContext.getLong(NOTIFICATION_COUNT, 0L);
+		requestCount = executionContext.getLong(REQUEST_COUNT, 0L);
+	}
+
+	// update는 청크 트랜잭션 안에서 BATCH_STEP_EXECUTION_CONTEXT 를 저장하기 전에 호출된다.
+	// 이번 청크의 건수를 여기서 더해서 알림 수, 요청 수, 합치기 비율을 청크와 같이 저장한다.
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		for (int notifications : pendingRequests) {
+			notificationCount += notifications;
+			requestCount++;
+		}
+		appliedRequests.addAll(pendingRequests);
+		pendingRequests.clear();
+		executionContext.putLong(NOTIFICATION_COUNT, notificationCount);
+		executionContext.putLong(REQUEST_COUNT, requestCount);
+		executionContext.putDouble(COALESCING_RATIO, requestCount == 0 ? 0.0 : (double) notificationCount / requestCount);
+	}
+
+	@Override
+	public void beforeStep(StepExecution stepExecution) {
+		this.stepExecution = stepExecution;
+	}
+
+	@Override
+	public ExitStatus afterStep(StepExecution stepExecution) {
+		return null;
+	}
+
+	@Override
+	public void beforeChunk(ChunkContext context) {
+		pendingRequests.clear();
+		appliedRequests.clear();
+	}
+
+	// 커밋된 뒤에 요청별 알림 수를 지표에 기록한다.
+	@Override
+	public void afterChunk(ChunkContext context) {
+		if (appliedRequests.isEmpty()) {
+			return;
+		}
+		DistributionSummary summary = DistributionSummary.builder("batch.notification.per.request")
+				.tag("job", stepExecution.getJobExecution().getJobInstance().getJobName()).tag("step", stepExecution.getStepName())
+				.register(Metrics.globalRegistry);
+		appliedRequests.forEach(summary::record);
+		appliedRequests.clear();
+	}
+
+	// 롤백된 청크의 건수는 빼고 버린다. (update 뒤 커밋이 실패한 경우 이미 더한 건수도 뺀다)
+	@Override
+	public void afterChunkError(ChunkContext context) {
+		for (int notifications : appliedRequests) {
+			notificationCount -= notifications;
+			requestCount--;
+		}
+		pendingRequests.clear();
+		appliedRequests.clear();
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+		if (requestCount > 0) {
+			log.info("알림 발송: 알림 {}건 / 요청 {}건 (합치기 비율 {})", notificationCount, requestCount,
+					String.format("%.2f", (double) notificationCount / requestCount));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.ss.batch.job.pass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 사용한 예약만큼 이용권 잔여 횟수를 차감하는 writer
+// 예약 한 건마다 UPDATE 하면 같은 이용권 행을 여러 번 잠그므로, 청크 안에서 이용권별 사용 횟수를 합쳐서
+// 이용권 하나에 UPDATE 한 번만 실행한다. (JDBC 배치로 묶어서 한 번에 보낸다)
+// 잔여 횟수가 0이 되는 이용권은 같은 UPDATE 에서 바로 만료 처리하고, 예약은 같은 트랜잭션에서 차감 완료로 표시한다.
+@Slf4j
+public class PassDeductionItemWriter implements ItemStreamWriter<BookingUsage> {
+	// IN 절 하나에 넣을 최대 개수 (PassStatusItemWriter와 같음)
+	private static final int MAX_IN_SIZE = 1000;
+
+	// MySQL은 SET 절을 왼쪽부터 적용해서 뒤의 식이 앞에서 바꾼 값을 보기 때문에
+	// 차감 전 잔여 횟수로 판단하는 status, expired_at 을 remaining_count 보다 먼저 쓴다. (H2는 모두 변경 전 값을 본다)
+	// 잔여 횟수가 NULL(무제한)인 이용권은 차감하지 않는다.
+	private static final String DEDUCT_PASS_SQL = "update pass set"
+			+ " status = case when remaining_count <= :count then 'EXPIRED' else status end,"
+			+ " expired_at = case when remaining_count <= :count and expired_at is null then :changedAt else expired_at end,"
+			+ " remaining_count = greatest(remaining_count - :count, 0)"
+			+ " where pass_seq = :passSeq and remaining_count is not null";
+
+	// 다른 실행이 이미 차감한 예약은 다시 표시하지 않는다.
+	private static final String MARK_BOOKING_SQL = "update booking set deducted = true, modified_at = :changedAt"
+			+ " where booking_seq in (:bookingSeqs) and deducted = false";
+
+	private static final String BOOKINGS_KEY = "passDeduction.bookings";
+	private static final String PASSES_KEY = "passDeduction.passes";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	// 차감 완료로 표시한 예약 수 / 잔여 횟수를 차감한 이용권 UPDATE 수 (ExecutionContext에 저장)
+	private long bookingCount;
+	private long passCount;
+
+	public PassDeductionItemWriter(NamedParameterJdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void write(List<? extends BookingUsage> items) throws Exception {
+		// 청크 하나는 같은 시각으로 변경
+		LocalDateTime changedAt = LocalDateTime.now();
+
+		// 1. 예약을 먼저 차감 완료로 표시 (그 사이 다른 실행이 차감한 예약이 있으면 청크 전체를 롤백해서 두 번 차감하지 않는다)
+		List<Long> bookingSeqs = new ArrayList<Long>(items.size());
+		// 이용권 순번 순서로 UPDATE 해서 동시에 실행되는 다른 트랜잭션과 잠금 순서가 엇갈리지 않도록 TreeMap
+		Map<Long, Integer> counts = new TreeMap<Long, Integer>();
+		for (BookingUsage item : items) {
+			bookingSeqs.add(item.getBookingSeq());
+			counts.merge(item.getPassSeq(), 1, Integer::sum);
+		}
+		int marked = 0;
+		for (int from = 0; from < bookingSeqs.size(); from += MAX_IN_SIZE) {
+			marked += jdbcTemplate.update(MARK_BOOKING_SQL, new MapSqlParameterSource().addValue("changedAt", changedAt)
+					.addValue("bookingSeqs", bookingSeqs.subList(from, Math.min(from + MAX_IN_SIZE, bookingSeqs.size()))));
+		}
+		if (marked != bookingSeqs.size()) {
+			throw new IllegalStateException("이미 차감된 예약이 있음: 대상 " + bookingSeqs.size() + "건 중 " + marked + "건 표시");
+		}
+
+		// 2. 이용권마다 합친 횟수로 한 번씩 차감
+		SqlParameterSource[] batchArgs = new SqlParameterSource[counts.size()];
+		int i = 0;
+		for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+			batchArgs[i++] = new MapSqlParameterSource().addValue("passSeq", entry.getKey()).addValue("count", entry.getValue())
+					.addValue("changedAt", changedAt);
+		}
+		int updated = 0;
+		for (int count : jdbcTemplate.batchUpdate(DEDUCT_PASS_SQL, batchArgs)) {
+			// 드라이버가 배치 건수를 모르면 SUCCESS_NO_INFO(-2)를 돌려준다.
+			updated += Math.max(count, 0);
+		}
+
+		bookingCount += marked;
+		passCount += updated;
+		log.debug("이용권 차감: 예약 {}건, 이용권 {}개 (무제한 이용권 {}개 제외)", marked, counts.size(), counts.size() - updated);
+	}
+
+	// 재시작하면 이전까지 처리한 건수부터 이어서 센다.
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		bookingCount = executionContext.getLong(BOOKINGS_KEY, 0L);
+		passCount = executionContext.getLong(PASSES_KEY, 0L);
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		executionContext.putLong(BOOKINGS_KEY, bookingCount);
+		executionContext.putLong(PASSES_KEY, passCount);
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+		log.info("이용권 차감 완료: 예약 {}건, 이용권 UPDATE {}건", bookingCount, passCount);
+	}
+}
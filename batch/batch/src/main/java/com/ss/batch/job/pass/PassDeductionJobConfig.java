@@ -0,0 +1,88 @@
+package com.ss.batch.job.pass;
+
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.ss.batch.entity.BookingStatus;
+
+// 완료된 예약 중 이용권을 사용한 예약만큼 이용권 잔여 횟수를 차감하는 Job
+// 아직 차감하지 않은 예약(deducted = false)을 예약 순번 키셋으로 읽고,
+// 청크마다 이용권별로 합쳐서 차감한다. (PassDeductionItemWriter)
+@Configuration
+public class PassDeductionJobConfig {
+	// reader 조회문 (QueryPlanTest가 같은 조회문의 실행 계획을 확인한다)
+	public static final String PASS_DEDUCTION_QUERY = "select new " + BookingUsage.class.getName() + "(b.bookingSeq, b.passSeq)"
+			+ " from BookingEntity b where b.deducted = false and b.status = :status and b.usedPass = true"
+			+ " and b.passSeq is not null and b.bookingSeq > :lastKey order by b.bookingSeq";
+
+	// 청크 하나에서 읽을 예약 수 (batch.pass-deduction.chunk-size)
+	// 클수록 같은 이용권의 예약이 한 청크에 모여서 이용권 UPDATE 수가 줄어든다.
+	private final int chunkSize;
+	// 데드락으로 롤백된 청크를 다시 쓰는 횟수 (batch.fault-tolerance.retry-limit)
+	private final int retryLimit;
+
+	private final JobBuilderFactory jobBuilderFactory;
+	private final StepBuilderFactory stepBuilderFactory;
+	private final EntityManagerFactory entityManagerFactory;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	public PassDeductionJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory,
+			EntityManagerFactory entityManagerFactory, NamedParameterJdbcTemplate jdbcTemplate,
+			@Value("${batch.pass-deduction.chunk-size:500}") int chunkSize,
+			@Value("${batch.fault-tolerance.retry-limit:3}") int retryLimit) {
+		this.jobBuilderFactory = jobBuilderFactory;
+		this.stepBuilderFactory = stepBuilderFactory;
+		this.entityManagerFactory = entityManagerFactory;
+		this.jdbcTemplate = jdbcTemplate;
+		this.chunkSize = chunkSize;
+		this.retryLimit = retryLimit;
+	}
+
+	@Bean
+	public Job passDeductionJob() {
+		return this.jobBuilderFactory.get("passDeductionJob").start(passDeductionStep()).build();
+	}
+
+	// 처리한 예약은 deducted = true 가 되어 다시 읽히지 않으므로 processor 없이 읽은 그대로 writer로 넘긴다.
+	@Bean
+	public Step passDeductionStep() {
+		return this.stepBuilderFactory.get("passDeductionStep").<BookingUsage, BookingUsage>chunk(chunkSize)
+				.reader(passDeductionItemReader())
+				.writer(passDeductionItemWriter(null, null))
+				.faultTolerant() // 데드락은 청크 전체를 다시 쓴다. (BisectingItemWriter)
+				.retry(DeadlockLoserDataAccessException.class)
+				.retryLimit(retryLimit)
+				.build();
+	}
+
+	// 완료(COMPLETED)되었고 이용권을 사용했으며 아직 차감하지 않은 예약의 (예약 순번, 이용권 순번)만 읽는다.
+	@Bean
+	@StepScope
+	public JpaKeysetItemReader<BookingUsage> passDeductionItemReader() {
+		return new JpaKeysetItemReader<BookingUsage>("passDeductionItemReader", entityManagerFactory, PASS_DEDUCTION_QUERY,
+				BookingUsage.class, Map.of("status", BookingStatus.COMPLETED), chunkSize, BookingUsage::getBookingSeq, 0L);
+	}
+
+	// 처리 건수를 ExecutionContext에 저장하기 때문에 step 실행마다 새로 만든다.
+	// 차감이 실패하면 청크를 나눠서 실패한 예약만 건너뛴다. 건너뛴 예약은 차감 완료로 표시되지 않는다. (BisectingItemWriter)
+	@Bean
+	@StepScope
+	public BisectingItemWriter<BookingUsage> passDeductionItemWriter(
+			@Value("${batch.fault-tolerance.skip-limit:100}") Integer skipLimit,
+			@Value("${batch.fault-tolerance.retry-limit:3}") Integer retryLimit) {
+		return new BisectingItemWriter<BookingUsage>(new PassDeductionItemWriter(jdbcTemplate), BookingUsage::getBookingSeq, jdbcTemplate,
+				skipLimit, retryLimit);
+	}
+}
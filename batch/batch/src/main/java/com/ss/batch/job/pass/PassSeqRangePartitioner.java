@@ -0,0 +1,63 @@
+package com.ss.batch.job.pass;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import com.ss.batch.entity.PassStatus;
+import com.ss.batch.repository.PassRepository;
+
+// 만료 대상 이용권을 pass_seq 범위로 나눠서 워커 step 마다 하나씩 할당하는 파티셔너
+// 종료일시 구간(watermark ~ cutoff)은 JobExecutionContext에 있는 값을 모든 파티션이 같이 사용한다.
+public class PassSeqRangePartitioner implements Partitioner {
+	public static final String MIN_PASS_SEQ = "minPassSeq";
+	public static final String MAX_PASS_SEQ = "maxPassSeq";
+
+	private final PassRepository passRepository;
+	private final LocalDateTime watermark;
+	private final LocalDateTime cutoff;
+
+	public PassSeqRangePartitioner(PassRepository passRepository, LocalDateTime watermark, LocalDateTime cutoff) {
+		this.passRepository = passRepository;
+		this.watermark = watermark;
+		this.cutoff = cutoff;
+	}
+
+	@Override
+	public Map<String, ExecutionContext> partition(int gridSize) {
+		Map<String, ExecutionContext> partitions = new HashMap<String, ExecutionContext>();
+
+		Long min = passRepository.findMinPassSeq(PassStatus.PROGRESSED, watermark, cutoff);
+		Long max = passRepository.findMaxPassSeq(PassStatus.PROGRESSED, watermark, cutoff);
+
+		// 만료 대상이 없으면 아무것도 읽지 않는 빈 범위 하나만 만든다.
+		if (min == null || max == null) {
+			partitions.put("partition0", createContext(1L, 0L));
+			return partitions;
+		}
+
+		// 범위를 gridSize 개로 나누고, 마지막 파티션은 max 까지 포함하도록 잘라준다.
+		long targetSize = (max - min) / Math.max(gridSize, 1) + 1;
+		long start = min;
+		int number = 0;
+
+		while (start <= max) {
+			long end = Math.min(start + targetSize - 1, max);
+			partitions.put("partition" + number, createContext(start, end));
+			start = end + 1;
+			number++;
+		}
+
+		return partitions;
+	}
+
+	private ExecutionContext createContext(long minPassSeq, long maxPassSeq) {
+		ExecutionContext context = new ExecutionContext();
+		context.putLong(MIN_PASS_SEQ, minPassSeq);
+		context.putLong(MAX_PASS_SEQ, maxPassSeq);
+		return context;
+	}
+}
@@ -0,0 +1,101 @@
+package com.ss.batch.job.pass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.ss.batch.entity.PassEntity;
+import com.ss.batch.entity.PassStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 이용권 상태를 한꺼번에 바꾸는 writer
+// JpaItemWriter는 이용권 하나마다 merge + dirty checking + UPDATE 문을 실행하지만
+// 이 writer는 청크의 pass_seq만 모아서 UPDATE ... WHERE pass_seq IN (...) 한 번으로 처리한다.
+// fromStatus 조건을 같이 걸어서 그 사이 다른 곳에서 상태가 바뀐 이용권은 건드리지 않는다.
+// 변경된 행 수는 writeCount, 이미 상태가 바뀌어서 변경되지 않은 행 수는 filterCount 로 StepExecution에 남는다.
+@Slf4j
+public class PassStatusItemWriter implements ItemStreamWriter<PassEntity> {
+	// IN 절 하나에 넣을 최대 개수 (청크가 커져도 SQL이 너무 길어지지 않도록)
+	private static final int MAX_IN_SIZE = 1000;
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final PassStatus fromStatus;
+	private final PassStatus toStatus;
+	private final String sql;
+
+	// 이번 청크에서 변경되지 않은 행 수 (청크가 저장될 때 StepExecution에 반영)
+	private int unchangedCount;
+
+	public PassStatusItemWriter(NamedParameterJdbcTemplate jdbcTemplate, PassStatus fromStatus, PassStatus toStatus) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.fromStatus = fromStatus;
+		this.toStatus = toStatus;
+		// 만료로 바꿀 때만 만료일자를 같이 기록한다.
+		this.sql = "update pass set status = :toStatus"
+				+ (toStatus == PassStatus.EXPIRED ? ", expired_at = :changedAt" : "")
+				+ " where pass_seq in (:passSeqs) and status = :fromStatus";
+	}
+
+	@Override
+	public void write(List<? extends PassEntity> items) throws Exception {
+		List<Long> passSeqs = new ArrayList<Long>(items.size());
+		for (PassEntity item : items) {
+			passSeqs.add(item.getPass_seq());
+		}
+
+		// 청크 하나는 같은 시각으로 변경
+		LocalDateTime changedAt = LocalDateTime.now();
+		int updated = 0;
+
+		for (int from = 0; from < passSeqs.size(); from += MAX_IN_SIZE) {
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("toStatus", toStatus.name());
+			params.put("fromStatus", fromStatus.name());
+			params.put("changedAt", changedAt);
+			params.put("passSeqs", passSeqs.subList(from, Math.min(from + MAX_IN_SIZE, passSeqs.size())));
+			updated += jdbcTemplate.update(sql, params);
+		}
+
+		unchangedCount += passSeqs.size() - updated;
+
+		if (updated != passSeqs.size()) {
+			log.info("이용권 상태 변경 {} -> {}: 대상 {}건 중 {}건 변경 (나머지는 이미 상태가 바뀜)", fromStatus, toStatus,
+					passSeqs.size(), updated);
+		}
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		unchangedCount = 0;
+	}
+
+	// 청크 트랜잭션 안에서 StepExecution이 저장되기 직전에 호출된다.
+	// SimpleChunkProcessor는 넘겨준 항목 수만큼 writeCount를 더하므로 변경되지 않은 행은 filterCount로 옮긴다.
+	// 청크가 롤백되면 호출되지 않고, 커밋이 실패하면 TaskletStep이 StepExecution을 청크 전 값으로 되돌린다.
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		StepContext stepContext = StepSynchronizationManager.getContext();
+		if (unchangedCount == 0 || stepContext == null) {
+			return;
+		}
+		StepExecution stepExecution = stepContext.getStepExecution();
+		stepExecution.setWriteCount(stepExecution.getWriteCount() - unchangedCount);
+		stepExecution.setFilterCount(stepExecution.getFilterCount() + unchangedCount);
+		unchangedCount = 0;
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+	}
+}
@@ -1,22 +1,51 @@
 package com.ss.batch.job.pass;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
 import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
-import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JpaItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import com.ss.batch.entity.BookingEntity;
+import com.ss.batch.adapter.message.NotificationSender;
+import com.ss.batch.adapter.message.TokenBucketRateLimiter;
+import com.ss.batch.config.CoalescingJobRepository;
+import com.ss.batch.entity.BookingStatus;
 import com.ss.batch.entity.NotificationEntity;
+import com.ss.batch.entity.NotificationEvent;
+import com.ss.batch.modelmapper.NotificationModelMapper;
 
 @Configuration
 public class SendNotificationClassJobConfig {
-	private final int CHUNK_SIZE = 10;
+	// reader 조회문 (QueryPlanTest가 같은 조회문의 실행 계획을 확인한다)
+	public static final String ADD_NOTIFICATION_QUERY = "select new " + BookingNotificationTarget.class.getName()
+			+ "(b.bookingSeq, b.userId, u.uuid, b.startedAt)"
+			+ " from BookingEntity b join b.userEntity u where b.status = :status and b.startedAt > :now and b.startedAt <= :startedAt"
+			+ " and u.uuid is not null and not exists (select n.notificationSeq from NotificationEntity n"
+			+ " where n.bookingSeq = b.bookingSeq and n.event = :event) and b.bookingSeq > :lastKey order by b.bookingSeq";
+	public static final String SEND_NOTIFICATION_QUERY =
+			"select n from NotificationEntity n where n.event = :event and n.sent = false order by n.uuid, n.notificationSeq";
+
+	// 데이터를 한꺼번에 처리할 수 있는 사이즈 (batch.notification.chunk-size)
+	private final int chunkSize;
 
 	// JOB을 생성하는 팩토리(클래스)를 생성한다.
 	private final JobBuilderFactory jobBuilderFactory;
@@ -27,35 +56,167 @@ public class SendNotificationClassJobConfig {
 	// JPA와 DB를 연결 관리하는 객체
 	private final EntityManagerFactory entityManagerFactory;
 
+	private final DataSource dataSource;
+
+	// 알림 발송 (외부 메시지 API)과 채널별 발송 한도
+	private final NotificationSender notificationSender;
+	private final TokenBucketRateLimiter rateLimiter;
+
+	// pool-size - 동시에 발송할 스레드 수
+	// queue-capacity - 대기할 수 있는 발송 요청 수 (가득 차면 step 스레드가 직접 발송해서 속도를 맞춘다)
+	// timeout-ms - 청크 하나의 발송 결과를 기다리는 최대 시간
+	// coalesce - 청크 안에서 같은 수신자의 알림을 합치고 여러 수신자를 요청 한 번으로 발송
+	private final int poolSize;
+	private final int queueCapacity;
+	private final long timeoutMillis;
+	private final boolean coalesce;
+
+	// step 메타데이터를 저장하는 JobRepository
+	// lean-metadata=true 이면 청크마다 하던 step 상태 저장을 metadata-flush-interval-ms 마다 한 번으로 합친다. (기본 false)
+	// 서버가 죽으면 마지막 저장 시점부터 다시 처리하므로 두 step 모두 다시 읽어도 같은 결과가 되는 reader만 쓴다.
+	// - addNotificationStep: 예약 순번 키셋 + 이미 알림을 만든 예약 제외
+	// - sendNotificationStep: sent = false 조건 + 읽은 건수 저장 안 함 (saveState=false)
+	private final JobRepository stepJobRepository;
+
+	// 보낼 알림을 읽는 reader 방식과 fetch size (CursorItemReaders 참고)
+	private final CursorItemReaders.Mode readerMode;
+	private final int fetchSize;
+
 	public SendNotificationClassJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory,
-			EntityManagerFactory entityManagerFactory) {
+			EntityManagerFactory entityManagerFactory, DataSource dataSource, NotificationSender notificationSender,
+			TokenBucketRateLimiter rateLimiter, JobRepository jobRepository,
+			@Value("${batch.notification.chunk-size:10}") int chunkSize,
+			@Value("${batch.notification.pool-size:8}") int poolSize,
+			@Value("${batch.notification.queue-capacity:100}") int queueCapacity,
+			@Value("${batch.notification.timeout-ms:10000}") long timeoutMillis,
+			@Value("${batch.notification.coalesce:true}") boolean coalesce,
+			@Value("${batch.notification.lean-metadata:false}") boolean leanMetadata,
+			@Value("${batch.notification.metadata-flush-interval-ms:30000}") long metadataFlushIntervalMillis,
+			@Value("${batch.notification.reader:STATELESS}") CursorItemReaders.Mode readerMode,
+			@Value("${batch.notification.fetch-size:1000}") int fetchSize) {
 		this.jobBuilderFactory = jobBuilderFactory;
 		this.stepBuilderFactory = stepBuilderFactory;
 		this.entityManagerFactory = entityManagerFactory;
+		this.dataSource = dataSource;
+		this.notificationSender = notificationSender;
+		this.rateLimiter = rateLimiter;
+		this.chunkSize = chunkSize;
+		this.poolSize = poolSize;
+		this.queueCapacity = queueCapacity;
+		this.timeoutMillis = timeoutMillis;
+		this.coalesce = coalesce;
+		this.readerMode = readerMode;
+		this.fetchSize = fetchSize;
+		this.stepJobRepository = leanMetadata ? new CoalescingJobRepository(jobRepository, metadataFlushIntervalMillis) : jobRepository;
 	}
 	
 	@Bean
 	public Job sendNotificationClassJob() {
-		return this.jobBuilderFactory.get("sendNotificationClassJob").start() // 첫 번째 스탭 실행
-																	.next()	// 두 번째 스탭 실행
+		return this.jobBuilderFactory.get("sendNotificationClassJob").start(addNotificationStep()) // 첫 번째 스탭 실행
+																	.next(sendNotificationStep())	// 두 번째 스탭 실행
 																	.build();
 	}
 	
 	// 세부 기능 (step)
 	// 예약 정보 가지고 와서 알람 정보를 만들어주는 형태
-	// input BookingEntity
+	// input BookingNotificationTarget (예약 순번, 사용자 ID, uuid, 시작일시)
 	// output NotificationEntity
 	@Bean
 	public Step addNotificationStep() {
-		return this.stepBuilderFactory.get("addNotificationStep").<BookingEntity, NotificationEntity>chunk(CHUNK_SIZE).reader(addNotificationItemReader()).processor().writer().build();
+		AdaptiveChunkSizePolicy chunkSizePolicy = notificationChunkSizePolicy(null, null, null);
+		return this.stepBuilderFactory.get("addNotificationStep").repository(stepJobRepository).<BookingNotificationTarget, NotificationEntity>chunk(chunkSizePolicy).reader(addNotificationItemReader()).processor(addNotificationItemProcessor()).writer(addNotificationItemWriter())
+				.stream(chunkSizePolicy).listener((ChunkListener) chunkSizePolicy).build();
 	}
 	
 	// 스탭에서 실질적으로 데이터를 읽어오는 메서드
+	// 예약 순번 키셋 방식으로 읽어서 예약 테이블이 커져도 페이지마다 읽는 양이 같다.
+	// 사용자 엔티티와 meta(JSON) 전체를 읽지 않고, DB가 meta 에서 꺼내둔 uuid 컬럼만 DTO로 받는다.
+	// 이미 알림을 만든 예약은 건너뛰어서 Job을 여러 번 실행해도 예약마다 알림은 한 건이다. (동시에 실행되면 uk_notification_booking_seq_event 가 막는다)
+	@Bean
+	@StepScope
+	public JpaKeysetItemReader<BookingNotificationTarget> addNotificationItemReader() {
+		// 상태가 준비중이며, 아직 시작하지 않았고 10분 안에 시작하는 예약 중 메시지를 받을 uuid가 있고 아직 알림을 만들지 않은 예약만 가져오기
+		// 이미 시작한 예약은 알림을 보내도 소용이 없으므로 읽지 않는다. (스케줄러가 멈췄다가 다시 돌아도 지난 예약 알림이 쏟아지지 않도록)
+		LocalDateTime now = LocalDateTime.now();
+		return new JpaKeysetItemReader<BookingNotificationTarget>("addNotificationItemReader", entityManagerFactory,
+				ADD_NOTIFICATION_QUERY, BookingNotificationTarget.class,
+				Map.of("status", BookingStatus.READY, "now", now, "startedAt", now.plusMinutes(10), "event", NotificationEvent.BEFORE),
+				chunkSize, BookingNotificationTarget::getBookingSeq, 0L);
+	}
+
+	// 예약 → 알림 변환
+	@Bean
+	public ItemProcessor<BookingNotificationTarget, NotificationEntity> addNotificationItemProcessor() {
+		return NotificationModelMapper::toNotificationEntity;
+	}
+
+	@Bean
+	public JpaItemWriter<NotificationEntity> addNotificationItemWriter() {
+		return new JpaItemWriterBuilder<NotificationEntity>().entityManagerFactory(entityManagerFactory).usePersist(true).build();
+	}
+
+	// 아직 보내지 않은 알림을 읽어서 발송 후 발송 결과 저장
 	@Bean
-	public JpaPagingItemReader<BookingEntity> addNotificationItemReader() {
-		return new JpaPagingItemReaderBuilder().name("addNotificationItemReader").entityManagerFactory(entityManagerFactory).pageSize(CHUNK_SIZE)
-				// 상태가 준비중이며, 시작일시 startAt이 10분 후 시작하는 예약을 찾아서 가져오기. 이때, user에게 발송하기 위해 유저 조인해서 가져오기 
-				.queryString("select b from BookingEntity b " + " join b.userEntity where b.status = :status " + " and b.startedAt <= :startedAt " + " order by b.bookingSeq ")
+	public Step sendNotificationStep() {
+		AdaptiveChunkSizePolicy chunkSizePolicy = notificationChunkSizePolicy(null, null, null);
+		return this.stepBuilderFactory.get("sendNotificationStep").repository(stepJobRepository)
+				.<NotificationEntity, NotificationEntity>chunk(chunkSizePolicy)
+				.reader(sendNotificationItemReader())
+				.writer(sendNotificationItemWriter())
+				.stream(chunkSizePolicy)
+				.listener((ChunkListener) chunkSizePolicy)
 				.build();
 	}
+
+	// 청크 크기는 chunk-size 부터 시작해서 청크 처리 시간(발송 포함)에 따라 step 마다 따로 조절한다.
+	@Bean
+	@StepScope
+	public AdaptiveChunkSizePolicy notificationChunkSizePolicy(
+			@Value("${batch.notification.adaptive-chunk.min-size:10}") Integer minSize,
+			@Value("${batch.notification.adaptive-chunk.max-size:100}") Integer maxSize,
+			@Value("${batch.notification.adaptive-chunk.target-ms:3000}") Long targetMillis) {
+		return new AdaptiveChunkSizePolicy(chunkSize, minSize, maxSize, targetMillis);
+	}
+
+	// 같은 수신자의 알림이 한 청크에 모이도록 uuid 순으로 읽는다.
+	// writer가 발송한 알림을 sent = true 로 바꿔서 조회 결과에서 빠지기 때문에 읽은 건수는 저장하지 않는다. (saveState=false)
+	// 재시작하면 처음부터 다시 조회해서 아직 보내지 않은 알림만 읽는다.
+	@Bean
+	@StepScope
+	public AbstractItemCountingItemStreamItemReader<NotificationEntity> sendNotificationItemReader() {
+		return CursorItemReaders.create(readerMode, "sendNotificationItemReader", entityManagerFactory, SEND_NOTIFICATION_QUERY,
+				Map.of("event", NotificationEvent.BEFORE), fetchSize, false);
+	}
+
+	// 발송 건수, 요청 건수를 step 마다 따로 세기 때문에 StepScope
+	@Bean
+	@StepScope
+	public NotificationDispatchItemWriter sendNotificationItemWriter() {
+		return new NotificationDispatchItemWriter(notificationSender, rateLimiter, notificationSendExecutor(), timeoutMillis,
+				coalesce, sentNotificationItemWriter());
+	}
+
+	// 발송에 성공한 알림의 발송 여부, 발송 시간만 JDBC batch update로 저장
+	@Bean
+	public JdbcBatchItemWriter<NotificationEntity> sentNotificationItemWriter() {
+		return new JdbcBatchItemWriterBuilder<NotificationEntity>().dataSource(dataSource)
+				.sql("update notification set sent = :sent, sent_at = :sentAt, modified_at = :sentAt where notification_seq = :notificationSeq")
+				.beanMapped()
+				.build();
+	}
+
+	// 발송 전용 스레드풀
+	// 대기열이 가득 차면 step 스레드가 직접 발송(CallerRunsPolicy)해서 요청이 무한정 쌓이지 않는다.
+	@Bean
+	public ThreadPoolTaskExecutor notificationSendExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("notification-send-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.initialize();
+		return executor;
+	}
 }
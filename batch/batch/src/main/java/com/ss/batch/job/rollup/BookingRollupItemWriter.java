@@ -0,0 +1,243 @@
+package com.ss.batch.job.rollup;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.ss.batch.entity.BookingStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+// 바뀐 예약만큼 집계 테이블을 고치는 writer
+// 예약마다 마지막으로 반영한 값(booking_rollup_ledger)과 지금 값의 차이를 구해서
+// 청크 안에서 집계 행(날짜 + 사용자 / 상품 / 시간대)별로 합친 뒤 집계 행 하나에 UPSERT 한 번만 실행한다.
+// 차이로 반영하기 때문에 같은 예약을 다시 읽어도(구간이 겹치거나 재시작) 두 번 더해지지 않고,
+// 시작 일시나 이용권이 바뀐 예약은 이전 집계 행에서 빠지고 새 집계 행에 더해진다.
+@Slf4j
+public class BookingRollupItemWriter implements ItemStreamWriter<BookingRollupRow> {
+	// IN 절 하나에 넣을 최대 개수 (PassStatusItemWriter와 같음)
+	private static final int MAX_IN_SIZE = 1000;
+
+	// 이용권이 없는 예약의 상품 순번
+	private static final long NO_PACKAGE = 0L;
+
+	// 집계 테이블마다 (날짜, 키) 행에 차이를 더한다. 행이 없으면 차이로 새로 만든다.
+	private static final String UPSERT_SQL = "insert into %s (stat_date, %s, booked_count, cancelled_count, attended_count, used_pass_count, modified_at)"
+			+ " values (:statDate, :key, :booked, :cancelled, :attended, :usedPass, :modifiedAt)"
+			+ " on duplicate key update booked_count = booked_count + values(booked_count),"
+			+ " cancelled_count = cancelled_count + values(cancelled_count), attended_count = attended_count + values(attended_count),"
+			+ " used_pass_count = used_pass_count + values(used_pass_count), modified_at = values(modified_at)";
+
+	private static final String UPSERT_LEDGER_SQL = "insert into booking_rollup_ledger"
+			+ " (booking_seq, stat_date, time_slot, user_id, package_seq, booked_count, cancelled_count, attended_count, used_pass_count)"
+			+ " values (:bookingSeq, :statDate, :timeSlot, :userId, :packageSeq, :booked, :cancelled, :attended, :usedPass)"
+			+ " on duplicate key update stat_date = values(stat_date), time_slot = values(time_slot), user_id = values(user_id),"
+			+ " package_seq = values(package_seq), booked_count = values(booked_count), cancelled_count = values(cancelled_count),"
+			+ " attended_count = values(attended_count), used_pass_count = values(used_pass_count)";
+
+	private static final String CHANGED_KEY = "bookingRollup.changed";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	// 집계에 차이를 반영한 예약 수 (ExecutionContext에 저장)
+	private long changedCount;
+
+	public BookingRollupItemWriter(NamedParameterJdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	// 예약 한 건이 집계에 더하는 값
+	@Data
+	@AllArgsConstructor
+	static class Contribution {
+		private LocalDate statDate;
+		private int timeSlot;
+		private String userId;
+		private long packageSeq;
+		private int booked;
+		private int cancelled;
+		private int attended;
+		private int usedPass;
+
+		// 시작 일시가 없는 예약은 집계하지 않는다.
+		static Contribution of(BookingRollupRow row) {
+			if (row.getStartedAt() == null) {
+				return null;
+			}
+			boolean cancelled = row.getStatus() == BookingStatus.CANCELLED;
+			return new Contribution(row.getStartedAt().toLocalDate(), row.getStartedAt().getHour(), row.getUserId(),
+					row.getPackageSeq() == null ? NO_PACKAGE : row.getPackageSeq(), cancelled ? 0 : 1, cancelled ? 1 : 0,
+					row.isAttended() ? 1 : 0, row.isUsedPass() ? 1 : 0);
+		}
+	}
+
+	@Override
+	public void write(List<? extends BookingRollupRow> items) throws Exception {
+		// 1. 지난번에 반영한 값
+		Map<Long, Contribution> ledger = readLedger(items);
+
+		// 2. 집계 행별 차이 (날짜, 키 순서로 UPSERT 해서 동시에 실행되는 다른 트랜잭션과 잠금 순서가 엇갈리지 않도록 TreeMap)
+		Map<Bucket, int[]> userDeltas = new TreeMap<Bucket, int[]>();
+		Map<Bucket, int[]> packageDeltas = new TreeMap<Bucket, int[]>();
+		Map<Bucket, int[]> slotDeltas = new TreeMap<Bucket, int[]>();
+		List<SqlParameterSource> ledgerUpserts = new ArrayList<SqlParameterSource>();
+		List<Long> ledgerDeletes = new ArrayList<Long>();
+		for (BookingRollupRow item : items) {
+			Contribution previous = ledger.get(item.getBookingSeq());
+			Contribution current = Contribution.of(item);
+			if (Objects.equals(previous, current)) {
+				continue;
+			}
+			for (Contribution contribution : new Contribution[] { previous, current }) {
+				if (contribution == null) {
+					continue;
+				}
+				int sign = contribution == previous ? -1 : 1;
+				if (contribution.getUserId() != null) {
+					add(userDeltas, new Bucket(contribution.getStatDate(), contribution.getUserId()), contribution, sign);
+				}
+				add(packageDeltas, new Bucket(contribution.getStatDate(), contribution.getPackageSeq()), contribution, sign);
+				add(slotDeltas, new Bucket(contribution.getStatDate(), contribution.getTimeSlot()), contribution, sign);
+			}
+			if (current == null) {
+				ledgerDeletes.add(item.getBookingSeq());
+			} else {
+				ledgerUpserts.add(new MapSqlParameterSource().addValue("bookingSeq", item.getBookingSeq())
+						.addValue("statDate", Date.valueOf(current.getStatDate())).addValue("timeSlot", current.getTimeSlot())
+						.addValue("userId", current.getUserId()).addValue("packageSeq", current.getPackageSeq())
+						.addValue("booked", current.getBooked()).addValue("cancelled", current.getCancelled())
+						.addValue("attended", current.getAttended()).addValue("usedPass", current.getUsedPass()));
+			}
+		}
+		if (ledgerUpserts.isEmpty() && ledgerDeletes.isEmpty()) {
+			return;
+		}
+
+		// 3. 집계 테이블에 차이 반영
+		LocalDateTime modifiedAt = LocalDateTime.now();
+		upsert("booking_rollup_user_daily", "user_id", userDeltas, modifiedAt);
+		upsert("booking_rollup_package_daily", "package_seq", packageDeltas, modifiedAt);
+		upsert("booking_rollup_slot_daily", "time_slot", slotDeltas, modifiedAt);
+
+		// 4. 이번에 반영한 값 저장
+		if (!ledgerUpserts.isEmpty()) {
+			jdbcTemplate.batchUpdate(UPSERT_LEDGER_SQL, ledgerUpserts.toArray(new SqlParameterSource[0]));
+		}
+		if (!ledgerDeletes.isEmpty()) {
+			jdbcTemplate.update("delete from booking_rollup_ledger where booking_seq in (:bookingSeqs)",
+					new MapSqlParameterSource("bookingSeqs", ledgerDeletes));
+		}
+
+		changedCount += ledgerUpserts.size() + ledgerDeletes.size();
+		log.debug("예약 집계 반영: 예약 {}건 중 {}건 변경, 집계 행 사용자 {} 상품 {} 시간대 {}", items.size(),
+				ledgerUpserts.size() + ledgerDeletes.size(), userDeltas.size(), packageDeltas.size(), slotDeltas.size());
+	}
+
+	private Map<Long, Contribution> readLedger(List<? extends BookingRollupRow> items) {
+		List<Long> bookingSeqs = new ArrayList<Long>(items.size());
+		for (BookingRollupRow item : items) {
+			bookingSeqs.add(item.getBookingSeq());
+		}
+		Map<Long, Contribution> ledger = new HashMap<Long, Contribution>();
+		for (int from = 0; from < bookingSeqs.size(); from += MAX_IN_SIZE) {
+			jdbcTemplate.query("select * from booking_rollup_ledger where booking_seq in (:bookingSeqs)",
+					new MapSqlParameterSource("bookingSeqs", bookingSeqs.subList(from, Math.min(from + MAX_IN_SIZE, bookingSeqs.size()))),
+					(ResultSet rs) -> {
+						ledger.put(rs.getLong("booking_seq"), toContribution(rs));
+					});
+		}
+		return ledger;
+	}
+
+	private static Contribution toContribution(ResultSet rs) throws SQLException {
+		return new Contribution(rs.getDate("stat_date").toLocalDate(), rs.getInt("time_slot"), rs.getString("user_id"),
+				rs.getLong("package_seq"), rs.getInt("booked_count"), rs.getInt("cancelled_count"), rs.getInt("attended_count"),
+				rs.getInt("used_pass_count"));
+	}
+
+	private static void add(Map<Bucket, int[]> deltas, Bucket bucket, Contribution contribution, int sign) {
+		int[] delta = deltas.computeIfAbsent(bucket, b -> new int[4]);
+		delta[0] += sign * contribution.getBooked();
+		delta[1] += sign * contribution.getCancelled();
+		delta[2] += sign * contribution.getAttended();
+		delta[3] += sign * contribution.getUsedPass();
+	}
+
+	private void upsert(String table, String keyColumn, Map<Bucket, int[]> deltas, LocalDateTime modifiedAt) {
+		List<SqlParameterSource> batchArgs = new ArrayList<SqlParameterSource>(deltas.size());
+		for (Map.Entry<Bucket, int[]> entry : deltas.entrySet()) {
+			int[] delta = entry.getValue();
+			// 같은 청크 안에서 빠지고 더해져서 차이가 없는 행은 건너뛴다.
+			if (delta[0] == 0 && delta[1] == 0 && delta[2] == 0 && delta[3] == 0) {
+				continue;
+			}
+			batchArgs.add(new MapSqlParameterSource().addValue("statDate", Date.valueOf(entry.getKey().statDate))
+					.addValue("key", entry.getKey().key).addValue("booked", delta[0]).addValue("cancelled", delta[1])
+					.addValue("attended", delta[2]).addValue("usedPass", delta[3]).addValue("modifiedAt", modifiedAt));
+		}
+		if (!batchArgs.isEmpty()) {
+			jdbcTemplate.batchUpdate(String.format(UPSERT_SQL, table, keyColumn), batchArgs.toArray(new SqlParameterSource[0]));
+		}
+	}
+
+	// 집계 행 하나 (날짜 + 사용자 ID / 상품 순번 / 시간대)
+	private static class Bucket implements Comparable<Bucket> {
+		private final LocalDate statDate;
+		private final Comparable<Object> key;
+
+		@SuppressWarnings("unchecked")
+		private Bucket(LocalDate statDate, Comparable<?> key) {
+			this.statDate = statDate;
+			this.key = (Comparable<Object>) key;
+		}
+
+		@Override
+		public int compareTo(Bucket other) {
+			int compare = statDate.compareTo(other.statDate);
+			return compare != 0 ? compare : key.compareTo(other.key);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Bucket && compareTo((Bucket) o) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(statDate, key);
+		}
+	}
+
+	// 재시작하면 이전까지 반영한 건수부터 이어서 센다.
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		changedCount = executionContext.getLong(CHANGED_KEY, 0L);
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		executionContext.putLong(CHANGED_KEY, changedCount);
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+		log.info("예약 집계 반영 완료: 예약 {}건", changedCount);
+	}
+}
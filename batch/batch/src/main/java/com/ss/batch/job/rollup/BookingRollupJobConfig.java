@@ -0,0 +1,169 @@
+package com.ss.batch.job.rollup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.ss.batch.entity.JobWatermarkEntity;
+import com.ss.batch.job.pass.BisectingItemWriter;
+import com.ss.batch.job.pass.JpaKeysetItemReader;
+import com.ss.batch.repository.JobWatermarkRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 예약 출석 / 이용권 사용 집계 Job
+// 지난 실행 이후 수정된(modified_at) 예약만 읽어서 바뀐 만큼만 집계 테이블에 반영한다. (BookingRollupItemWriter)
+// 1. 이번에 읽을 수정 일시 구간 (watermark - overlap, cutoff] 을 정한다.
+// 2. 구간 안의 예약을 집계에 반영
+// 3. cutoff를 다음 실행의 watermark로 저장
+@Slf4j
+@Configuration
+public class BookingRollupJobConfig {
+	// 이번 실행의 구간을 JobExecutionContext에 저장할 때 사용하는 키
+	// from - 이 시각 초과로 수정된 예약부터 읽는다. cutoff - 이 시각 이하로 수정된 예약까지 읽는다.
+	public static final String FROM = "from";
+	public static final String CUTOFF = "cutoff";
+
+	// reader 조회문 (QueryPlanTest가 같은 조회문의 실행 계획을 확인한다)
+	// idx_booking_modified_at (modified_at, booking_seq) 순서 그대로 (수정 일시, 예약 순번) 복합 키셋으로 읽어서 페이지마다 정렬하지 않는다.
+	public static final String BOOKING_ROLLUP_QUERY = "select new " + BookingRollupRow.class.getName()
+			+ "(b.bookingSeq, b.userId, p.package_seq, b.status, b.attended, b.usedPass, b.startedAt, b.modifiedAt)"
+			+ " from BookingEntity b left join PassEntity p on p.pass_seq = b.passSeq"
+			+ " where b.modifiedAt > :from and b.modifiedAt <= :cutoff"
+			+ " and b.modifiedAt >= :lastModifiedAt and (b.modifiedAt > :lastModifiedAt or b.bookingSeq > :lastKey)"
+			+ " order by b.modifiedAt, b.bookingSeq";
+
+	// 처음 실행할 때의 watermark (모든 예약이 대상)
+	private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	private final JobBuilderFactory jobBuilderFactory;
+	private final StepBuilderFactory stepBuilderFactory;
+	private final EntityManagerFactory entityManagerFactory;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final JobWatermarkRepository jobWatermarkRepository;
+
+	// chunk-size - 청크 하나에서 읽을 예약 수
+	// overlap-seconds - watermark 보다 이만큼 앞에서부터 다시 읽는다.
+	//   cutoff 직전에 수정되고 늦게 커밋된 예약을 놓치지 않기 위해서이고, 다시 읽은 예약은 차이가 없어서 두 번 반영되지 않는다.
+	private final int chunkSize;
+	private final long overlapSeconds;
+	// 데드락으로 롤백된 청크를 다시 쓰는 횟수 (batch.fault-tolerance.retry-limit)
+	private final int retryLimit;
+
+	public BookingRollupJobConfig(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory,
+			EntityManagerFactory entityManagerFactory, NamedParameterJdbcTemplate jdbcTemplate,
+			JobWatermarkRepository jobWatermarkRepository,
+			@Value("${batch.booking-rollup.chunk-size:1000}") int chunkSize,
+			@Value("${batch.booking-rollup.overlap-seconds:300}") long overlapSeconds,
+			@Value("${batch.fault-tolerance.retry-limit:3}") int retryLimit) {
+		this.jobBuilderFactory = jobBuilderFactory;
+		this.stepBuilderFactory = stepBuilderFactory;
+		this.entityManagerFactory = entityManagerFactory;
+		this.jdbcTemplate = jdbcTemplate;
+		this.jobWatermarkRepository = jobWatermarkRepository;
+		this.chunkSize = chunkSize;
+		this.overlapSeconds = overlapSeconds;
+		this.retryLimit = retryLimit;
+	}
+
+	@Bean
+	public Job bookingRollupJob() {
+		return this.jobBuilderFactory.get("bookingRollupJob")
+				.start(bookingRollupWindowStep())
+				.next(bookingRollupStep())
+				.next(saveBookingRollupWatermarkStep())
+				.build();
+	}
+
+	// 구간은 JobExecutionContext에 저장해서 재시작해도 같은 구간을 읽는다.
+	@Bean
+	public Step bookingRollupWindowStep() {
+		return this.stepBuilderFactory.get("bookingRollupWindowStep").tasklet((contribution, chunkContext) -> {
+			JobExecution jobExecution = chunkContext.getStepContext().getStepExecution().getJobExecution();
+			LocalDateTime watermark = jobWatermarkRepository.findById(jobExecution.getJobInstance().getJobName())
+					.map(JobWatermarkEntity::getWatermark).orElse(INITIAL_WATERMARK);
+			// DB(DATETIME(6))에 저장되는 watermark와 값이 같도록 마이크로초 단위로 자른다.
+			LocalDateTime cutoff = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+			LocalDateTime from = watermark.equals(INITIAL_WATERMARK) ? watermark : watermark.minusSeconds(overlapSeconds);
+
+			// LocalDateTime은 ExecutionContext 직렬화 시 문자열로 저장해서 넘긴다.
+			jobExecution.getExecutionContext().putString(FROM, from.toString());
+			jobExecution.getExecutionContext().putString(CUTOFF, cutoff.toString());
+
+			log.info("집계 대상 예약 수정일시 구간: {} 초과 ~ {} 이하", from, cutoff);
+			return RepeatStatus.FINISHED;
+		}).build();
+	}
+
+	@Bean
+	public Step bookingRollupStep() {
+		return this.stepBuilderFactory.get("bookingRollupStep").<BookingRollupRow, BookingRollupRow>chunk(chunkSize)
+				.reader(bookingRollupItemReader(null, null))
+				.writer(bookingRollupItemWriter(null, null))
+				.faultTolerant() // 데드락은 청크 전체를 다시 쓴다. (BisectingItemWriter)
+				.retry(DeadlockLoserDataAccessException.class)
+				.retryLimit(retryLimit)
+				.build();
+	}
+
+	// 지난 날짜로 다시 실행해도 watermark가 뒤로 가지 않도록 큰 값만 저장한다.
+	@Bean
+	public Step saveBookingRollupWatermarkStep() {
+		return this.stepBuilderFactory.get("saveBookingRollupWatermarkStep").tasklet((contribution, chunkContext) -> {
+			JobExecution jobExecution = chunkContext.getStepContext().getStepExecution().getJobExecution();
+			String jobName = jobExecution.getJobInstance().getJobName();
+			LocalDateTime cutoff = LocalDateTime.parse(jobExecution.getExecutionContext().getString(CUTOFF));
+
+			JobWatermarkEntity jobWatermarkEntity = jobWatermarkRepository.findById(jobName).orElseGet(() -> {
+				JobWatermarkEntity entity = new JobWatermarkEntity();
+				entity.setJobName(jobName);
+				entity.setWatermark(INITIAL_WATERMARK);
+				return entity;
+			});
+			if (cutoff.isAfter(jobWatermarkEntity.getWatermark())) {
+				jobWatermarkEntity.setWatermark(cutoff);
+				jobWatermarkRepository.save(jobWatermarkEntity);
+			}
+			return RepeatStatus.FINISHED;
+		}).build();
+	}
+
+	// 구간 안에 수정된 예약을 (수정 일시, 예약 순번) 키셋으로 읽는다.
+	// 상품 순번은 예약의 이용권에서 가져온다. (이용권이 없는 예약도 읽도록 left join)
+	@Bean
+	@StepScope
+	public JpaKeysetItemReader<BookingRollupRow> bookingRollupItemReader(
+			@Value("#{jobExecutionContext['from']}") String from,
+			@Value("#{jobExecutionContext['cutoff']}") String cutoff) {
+		return new JpaKeysetItemReader<BookingRollupRow>("bookingRollupItemReader", entityManagerFactory, BOOKING_ROLLUP_QUERY,
+				BookingRollupRow.class, Map.of("from", LocalDateTime.parse(from), "cutoff", LocalDateTime.parse(cutoff)), chunkSize,
+				BookingRollupRow::getBookingSeq, 0L)
+				.addLeadingKey("lastModifiedAt", BookingRollupRow::getModifiedAt, LocalDateTime.parse(from));
+	}
+
+	// 처리 건수를 ExecutionContext에 저장하기 때문에 step 실행마다 새로 만든다.
+	// 반영이 실패하면 청크를 나눠서 실패한 예약만 건너뛴다. 건너뛴 예약은 ledger가 바뀌지 않아서 다시 수정되면 차이가 반영된다.
+	@Bean
+	@StepScope
+	public BisectingItemWriter<BookingRollupRow> bookingRollupItemWriter(
+			@Value("${batch.fault-tolerance.skip-limit:100}") Integer skipLimit,
+			@Value("${batch.fault-tolerance.retry-limit:3}") Integer retryLimit) {
+		return new BisectingItemWriter<BookingRollupRow>(new BookingRollupItemWriter(jdbcTemplate), BookingRollupRow::getBookingSeq,
+				jdbcTemplate, skipLimit, retryLimit);
+	}
+}
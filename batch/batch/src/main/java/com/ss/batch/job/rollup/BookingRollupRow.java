@@ -0,0 +1,24 @@
+package com.ss.batch.job.rollup;
+
+import java.time.LocalDateTime;
+
+import com.ss.batch.entity.BookingStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 집계에 필요한 예약 정보만 담은 한 건 (상품 순번은 예약의 이용권에서 가져온다)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingRollupRow {
+	private Long bookingSeq;			// 예약 순번 (키셋 뒤 키)
+	private String userId;				// 예약한 사용자
+	private Long packageSeq;			// 이용권의 상품 (이용권이 없으면 null)
+	private BookingStatus status;		// 예약 상태 (CANCELLED 이면 취소 건수로 집계)
+	private boolean attended;			// 출석 여부
+	private boolean usedPass;			// 이용권 사용 여부
+	private LocalDateTime startedAt;	// 수업 시작 일시 (집계 날짜, 시간대)
+	private LocalDateTime modifiedAt;	// 예약 수정 일시 (키셋 앞 키)
+}
@@ -0,0 +1,58 @@
+package com.ss.batch.metrics;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.step.AbstractStep;
+import org.springframework.batch.core.step.tasklet.TaskletStep;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Metrics;
+
+// 새로 추가하는 step까지 따로 설정하지 않아도 지표가 남도록 빈이 만들어질 때 리스너를 붙여준다.
+// - Step: StepMetricsListener를 step / 청크 리스너로 등록 (공개된 등록 메서드만 사용)
+//   아이템 읽기 / 처리 / 쓰기 시간은 Spring Batch가 기록하는 spring.batch.item.read, spring.batch.item.process, spring.batch.chunk.write 를 쓴다.
+// - DataSource: 애플리케이션 DataSource(@Primary 또는 스프링 부트 기본 dataSource)만 JdbcMetricsDataSource로 감싸서 JDBC 실행 시간을 잰다.
+// Spring Batch 자체 지표(spring.batch.*)와 같이 Metrics.globalRegistry에 기록하고,
+// 스프링 부트가 actuator 레지스트리를 globalRegistry에 연결해서 /actuator/metrics 로 조회할 수 있다.
+@Component
+public class BatchMetricsPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+	private static final String DEFAULT_DATA_SOURCE = "dataSource";
+
+	private final StepMetricsListener listener = new StepMetricsListener(Metrics.globalRegistry);
+
+	private ConfigurableListableBeanFactory beanFactory;
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		if (beanFactory instanceof ConfigurableListableBeanFactory) {
+			this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+		}
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (bean instanceof DataSource && !(bean instanceof JdbcMetricsDataSource) && isPrimary(beanName)) {
+			return new JdbcMetricsDataSource((DataSource) bean, Metrics.globalRegistry);
+		}
+		if (bean instanceof AbstractStep) {
+			((AbstractStep) bean).registerStepExecutionListener(listener);
+		}
+		if (bean instanceof TaskletStep) {
+			((TaskletStep) bean).registerChunkListener(listener);
+		}
+		return bean;
+	}
+
+	// 다른 용도로 따로 만든 DataSource(외부 DB 등)는 감싸지 않는다.
+	private boolean isPrimary(String beanName) {
+		if (DEFAULT_DATA_SOURCE.equals(beanName)) {
+			return true;
+		}
+		return beanFactory != null && beanFactory.containsBeanDefinition(beanName) && beanFactory.getBeanDefinition(beanName).isPrimary();
+	}
+}
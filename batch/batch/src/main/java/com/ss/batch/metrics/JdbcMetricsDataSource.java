@@ -0,0 +1,135 @@
+package com.ss.batch.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Statement 실행 시간을 재는 DataSource
+// JPA(Hibernate), JdbcTemplate, Spring Batch 메타 테이블 모두 같은 DataSource를 쓰기 때문에 여기서 한 번에 잰다.
+// - batch.jdbc (operation = query / update / batch)  execute* 호출 한 번에 걸린 시간
+// 커서 reader가 ResultSet.next()로 다음 묶음을 가져오는 시간은 포함되지 않는다.
+public class JdbcMetricsDataSource extends DelegatingDataSource {
+	// 현재 스레드에서 JDBC 실행에 쓴 시간 합계 (청크별 JDBC 시간을 계산할 때 사용)
+	private static final ThreadLocal<long[]> THREAD_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+	private final Timer queryTimer;
+	private final Timer updateTimer;
+	private final Timer batchTimer;
+
+	public JdbcMetricsDataSource(DataSource targetDataSource, MeterRegistry registry) {
+		super(targetDataSource);
+		this.queryTimer = registry.timer("batch.jdbc", "operation", "query");
+		this.updateTimer = registry.timer("batch.jdbc", "operation", "update");
+		this.batchTimer = registry.timer("batch.jdbc", "operation", "batch");
+	}
+
+	public static long currentThreadNanos() {
+		return THREAD_NANOS.get()[0];
+	}
+
+	// 감싸고 있는 커넥션 풀(HikariDataSource)도 애플리케이션 종료 시 같이 닫히도록 넘겨준다.
+	public void close() throws Exception {
+		if (getTargetDataSource() instanceof AutoCloseable) {
+			((AutoCloseable) getTargetDataSource()).close();
+		}
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return proxy(Connection.class, super.getConnection(), this::connectionHandler);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return proxy(Connection.class, super.getConnection(username, password), this::connectionHandler);
+	}
+
+	// 만들어지는 Statement만 감싸고 나머지는 그대로 넘긴다.
+	private Object connectionHandler(Object target, Method method, Object[] args) throws Throwable {
+		Object result = invoke(target, method, args);
+		if (result instanceof CallableStatement) {
+			return proxy(CallableStatement.class, (CallableStatement) result, this::statementHandler);
+		}
+		if (result instanceof PreparedStatement) {
+			return proxy(PreparedStatement.class, (PreparedStatement) result, this::statementHandler);
+		}
+		if (result instanceof Statement) {
+			return proxy(Statement.class, (Statement) result, this::statementHandler);
+		}
+		return result;
+	}
+
+	private Object statementHandler(Object target, Method method, Object[] args) throws Throwable {
+		Timer timer = timer(method.getName());
+		if (timer == null) {
+			return invoke(target, method, args);
+		}
+		long start = System.nanoTime();
+		try {
+			return invoke(target, method, args);
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			timer.record(elapsed, TimeUnit.NANOSECONDS);
+			THREAD_NANOS.get()[0] += elapsed;
+		}
+	}
+
+	private Timer timer(String methodName) {
+		switch (methodName) {
+		case "executeQuery":
+			return queryTimer;
+		case "executeBatch":
+		case "executeLargeBatch":
+			return batchTimer;
+		case "execute":
+		case "executeUpdate":
+		case "executeLargeUpdate":
+			return updateTimer;
+		default:
+			return null;
+		}
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, T target, Handler handler) {
+		return (T) Proxy.newProxyInstance(JdbcMetricsDataSource.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					// equals / hashCode 는 프록시 자신을 기준으로 비교
+					switch (method.getName()) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return handler.invoke(target, method, args);
+					}
+				});
+	}
+
+	@FunctionalInterface
+	private interface Handler {
+		Object invoke(Object target, Method method, Object[] args) throws Throwable;
+	}
+}
@@ -0,0 +1,119 @@
+package com.ss.batch.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+// step, 청크 단위 Micrometer 지표를 기록하는 리스너 (BatchMetricsPostProcessor가 모든 step에 등록)
+// - batch.chunk              청크 하나 전체 시간
+// - batch.chunk.jdbc         청크 하나에서 JDBC 실행에 걸린 시간
+// - batch.chunk.commit / rollback               커밋, 롤백된 청크 수
+// - batch.step.items / batch.step.items.per.second  저장한 아이템 수(StepExecution writeCount 증가분), 마지막 청크 기준 초당 처리량
+// - batch.step                step 실행 시간 (status 태그)
+// 아이템 읽기 / 처리 / 쓰기 시간은 Spring Batch 지표(spring.batch.item.read, spring.batch.item.process, spring.batch.chunk.write)로 남는다.
+// 파티션 워커처럼 같은 step이 여러 스레드에서 동시에 실행될 수 있어서 청크 시간은 스레드별로 모은다.
+public class StepMetricsListener implements StepExecutionListener, ChunkListener {
+	private final MeterRegistry registry;
+
+	private final ThreadLocal<ChunkTimes> chunkTimes = ThreadLocal.withInitial(ChunkTimes::new);
+
+	// job/step 별 초당 처리량 (double 값을 long 비트로 저장)
+	private final Map<Tags, AtomicLong> itemsPerSecond = new ConcurrentHashMap<Tags, AtomicLong>();
+
+	public StepMetricsListener(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void beforeStep(StepExecution stepExecution) {
+	}
+
+	@Override
+	public ExitStatus afterStep(StepExecution stepExecution) {
+		Tags tags = tags(stepExecution).and("status", stepExecution.getStatus().name());
+		if (stepExecution.getStartTime() != null) {
+			long elapsed = System.currentTimeMillis() - stepExecution.getStartTime().getTime();
+			registry.timer("batch.step", tags).record(elapsed, TimeUnit.MILLISECONDS);
+		}
+		return null;
+	}
+
+	@Override
+	public void beforeChunk(ChunkContext context) {
+		ChunkTimes times = chunkTimes.get();
+		times.reset();
+		times.startedAt = System.nanoTime();
+		times.jdbcStartedAt = JdbcMetricsDataSource.currentThreadNanos();
+		times.writeCountStartedAt = context.getStepContext().getStepExecution().getWriteCount();
+	}
+
+	// 청크가 커밋된 뒤 트랜잭션 밖에서 호출된다.
+	@Override
+	public void afterChunk(ChunkContext context) {
+		ChunkTimes times = chunkTimes.get();
+		if (times.startedAt == 0L) {
+			return;
+		}
+		long elapsed = System.nanoTime() - times.startedAt;
+		StepExecution stepExecution = context.getStepContext().getStepExecution();
+		Tags tags = tags(stepExecution);
+		// 청크가 커밋되면서 StepExecution에 반영된 쓰기 건수 (writer가 고친 건수 포함)
+		int written = stepExecution.getWriteCount() - times.writeCountStartedAt;
+
+		record("batch.chunk", tags, elapsed);
+		record("batch.chunk.jdbc", tags, JdbcMetricsDataSource.currentThreadNanos() - times.jdbcStartedAt);
+		registry.counter("batch.chunk.commit", tags).increment();
+
+		if (written > 0) {
+			registry.counter("batch.step.items", tags).increment(written);
+			double perSecond = written / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+			itemsPerSecond(tags).set(Double.doubleToLongBits(perSecond));
+		}
+		times.reset();
+	}
+
+	// 청크가 롤백된 뒤 호출된다.
+	@Override
+	public void afterChunkError(ChunkContext context) {
+		registry.counter("batch.chunk.rollback", tags(context.getStepContext().getStepExecution())).increment();
+		chunkTimes.get().reset();
+	}
+
+	private void record(String name, Tags tags, long nanos) {
+		Timer.builder(name).tags(tags).register(registry).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	private AtomicLong itemsPerSecond(Tags tags) {
+		return itemsPerSecond.computeIfAbsent(tags, t -> registry.gauge("batch.step.items.per.second", t,
+				new AtomicLong(Double.doubleToLongBits(0.0)), v -> Double.longBitsToDouble(v.get())));
+	}
+
+	// 파티션 워커 step 이름(expiredPassWorkerStep:partition0)은 파티션 번호를 떼고 step 하나로 모은다.
+	private static Tags tags(StepExecution stepExecution) {
+		String stepName = stepExecution.getStepName();
+		int partition = stepName.indexOf(':');
+		return Tags.of("job", stepExecution.getJobExecution().getJobInstance().getJobName(),
+				"step", partition < 0 ? stepName : stepName.substring(0, partition));
+	}
+
+	private static class ChunkTimes {
+		private long startedAt;
+		private long jdbcStartedAt;
+		private int writeCountStartedAt;
+
+		private void reset() {
+			startedAt = 0L;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.ss.batch.modelmapper;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import com.ss.batch.entity.BookingEntity;
+import com.ss.batch.entity.NotificationEntity;
+import com.ss.batch.entity.NotificationEvent;
+import com.ss.batch.job.pass.BookingNotificationTarget;
+
+// BookingEntity, BookingNotificationTarget → NotificationEntity로 변환
+public class NotificationModelMapper {
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+	public static NotificationEntity toNotificationEntity(BookingEntity bookingEntity) {
+		NotificationEntity notificationEntity = new NotificationEntity();
+
+		// 카카오톡 발송용 uuid는 사용자 meta(JSON)에 저장되어 있다.
+		Map<String, Object> meta = bookingEntity.getUserEntity().getMeta();
+		Object uuid = meta == null ? null : meta.get("uuid");
+
+		notificationEntity.setBookingSeq(bookingEntity.getBookingSeq());
+		notificationEntity.setUuid(uuid == null ? null : uuid.toString());
+		notificationEntity.setEvent(NotificationEvent.BEFORE);
+		notificationEntity.setText(text(bookingEntity));
+		notificationEntity.setSent(false);
+
+		return notificationEntity;
+	}
+
+	// 알림 대상 조회 결과로 변환 (uuid 는 DB에서 이미 꺼내온 값)
+	public static NotificationEntity toNotificationEntity(BookingNotificationTarget target) {
+		NotificationEntity notificationEntity = new NotificationEntity();
+		notificationEntity.setBookingSeq(target.getBookingSeq());
+		notificationEntity.setUuid(target.getUuid());
+		notificationEntity.setEvent(NotificationEvent.BEFORE);
+		notificationEntity.setText(text(target.getStartedAt()));
+		notificationEntity.setSent(false);
+
+		return notificationEntity;
+	}
+
+	// 수업 시작 전 알림 내용
+	public static String text(BookingEntity bookingEntity) {
+		return text(bookingEntity.getStartedAt());
+	}
+
+	public static String text(LocalDateTime startedAt) {
+		return String.format("[%s] 수업 시작 전입니다. 수업 전 출석 체크 부탁드립니다.", startedAt.format(FORMATTER));
+	}
+
+	// 같은 수신자에게 보낼 알림 여러 건을 메시지 하나로 합치기
+	public static String combine(List<String> texts) {
+		if (texts.size() == 1) {
+			return texts.get(0);
+		}
+		return String.format("수업 알림 %d건%n", texts.size()) + String.join(System.lineSeparator(), texts);
+	}
+}
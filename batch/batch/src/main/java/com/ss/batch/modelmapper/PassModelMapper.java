@@ -16,6 +16,7 @@ public class PassModelMapper {
 		passEntity.setRemaining_count(bulkPassEntity.getCount());
 		passEntity.setStarted_at(bulkPassEntity.getStartedAt());
 		passEntity.setEnded_at(bulkPassEntity.getEndedAt());
+		passEntity.setBulk_pass_seq(bulkPassEntity.getBulkPassSeq());
 		
 		return passEntity;
 	}
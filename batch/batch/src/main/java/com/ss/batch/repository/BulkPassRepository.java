@@ -4,6 +4,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ss.batch.entity.BulkPassEntity;
 import com.ss.batch.entity.BulkPassStatus;
@@ -12,4 +16,9 @@ public interface BulkPassRepository extends JpaRepository<BulkPassEntity, Long>{
 
 	List<BulkPassEntity> findByStatusAndStartedAtGreaterThan(BulkPassStatus ready, LocalDateTime startAt);
 
+	// 발급이 끝난 대량 이용권들의 상태를 한 번에 변경
+	@Modifying
+	@Transactional
+	@Query(value="update BulkPassEntity b set b.status = :status where b.bulkPassSeq in :bulkPassSeqs and b.status = :currentStatus")
+	int updateStatus(@Param("bulkPassSeqs") List<Long> bulkPassSeqs, @Param("currentStatus") BulkPassStatus currentStatus, @Param("status") BulkPassStatus status);
 }
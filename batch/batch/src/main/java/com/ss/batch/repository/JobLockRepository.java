@@ -0,0 +1,34 @@
+package com.ss.batch.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ss.batch.entity.JobLockEntity;
+
+// 잠금은 UPDATE 한 번으로 잡고, 변경된 행 수(1 / 0)로 잡았는지 확인한다.
+public interface JobLockRepository extends JpaRepository<JobLockEntity, String> {
+	// 잠금이 없거나 만료되었을 때만 잡는다.
+	@Modifying
+	@Transactional
+	@Query(value="update JobLockEntity l set l.lockedBy = :owner, l.lockedAt = :now, l.lockUntil = :lockUntil, l.lastFireTime = :fireTime, l.modifiedAt = :now"
+			+ " where l.jobName = :jobName and (l.lockUntil is null or l.lockUntil < :now)")
+	int tryLock(@Param("jobName") String jobName, @Param("owner") String owner, @Param("fireTime") LocalDateTime fireTime,
+			@Param("now") LocalDateTime now, @Param("lockUntil") LocalDateTime lockUntil);
+
+	// 실행 중에 잠금 만료 시각을 연장 (내가 잡은 잠금만)
+	@Modifying
+	@Transactional
+	@Query(value="update JobLockEntity l set l.lockUntil = :lockUntil, l.modifiedAt = :now where l.jobName = :jobName and l.lockedBy = :owner")
+	int extendLock(@Param("jobName") String jobName, @Param("owner") String owner, @Param("now") LocalDateTime now,
+			@Param("lockUntil") LocalDateTime lockUntil);
+
+	@Modifying
+	@Transactional
+	@Query(value="update JobLockEntity l set l.lockedBy = null, l.lockUntil = null, l.modifiedAt = :now where l.jobName = :jobName and l.lockedBy = :owner")
+	int unlock(@Param("jobName") String jobName, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.ss.batch.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ss.batch.entity.JobWatermarkEntity;
+
+public interface JobWatermarkRepository extends JpaRepository<JobWatermarkEntity, String> {
+
+}
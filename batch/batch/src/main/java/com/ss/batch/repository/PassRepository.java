@@ -1,9 +1,21 @@
 package com.ss.batch.repository;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.ss.batch.entity.PassEntity;
+import com.ss.batch.entity.PassStatus;
 
 public interface PassRepository extends JpaRepository<PassEntity, Long>{
-	
+	// 만료 대상 이용권 중 가장 작은 / 큰 순번 (파티션 범위를 나눌 때 사용)
+	// 종료일시가 watermark 초과, cutoff 이하인 이용권만 대상
+	@Query(value="select min(p.pass_seq) from PassEntity p where p.status = :status and p.ended_at > :watermark and p.ended_at <= :cutoff")
+	Long findMinPassSeq(@Param("status") PassStatus status, @Param("watermark") LocalDateTime watermark, @Param("cutoff") LocalDateTime cutoff);
+
+	@Query(value="select max(p.pass_seq) from PassEntity p where p.status = :status and p.ended_at > :watermark and p.ended_at <= :cutoff")
+	Long findMaxPassSeq(@Param("status") PassStatus status, @Param("watermark") LocalDateTime watermark, @Param("cutoff") LocalDateTime cutoff);
+
 }
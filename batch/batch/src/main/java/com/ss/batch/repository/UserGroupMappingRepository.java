@@ -5,8 +5,9 @@ import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.ss.batch.entity.UserGroupMappingEntity;
+import com.ss.batch.entity.UserGroupMappingId;
 
-public interface UserGroupMappingRepository extends JpaRepository<UserGroupMappingRepository, Long>{
+public interface UserGroupMappingRepository extends JpaRepository<UserGroupMappingEntity, UserGroupMappingId>{
 	// 유저 그룹 아이디를 넣게 되면 유저 그룹의 매핑 엔티티를 가져올 수 있고 유저 아이디를 가져올 수 있기 때문에
 	List<UserGroupMappingEntity> findByUserGroupId(String userGroupId);
 }
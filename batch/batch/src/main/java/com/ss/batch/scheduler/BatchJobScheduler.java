@@ -0,0 +1,306 @@
+package com.ss.batch.scheduler;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import com.ss.batch.entity.JobLockEntity;
+import com.ss.batch.repository.JobLockRepository;
+import com.ss.batch.scheduler.BatchScheduleProperties.JobSchedule;
+import com.ss.batch.scheduler.BatchScheduleProperties.OverlapPolicy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+// Job 별 cron 으로 배치를 실행하는 스케줄러 (batch.schedule.enabled=true)
+// - 실행 전에 batch_job_lock 에서 Job 잠금을 잡아서 여러 서버 중 한 곳에서만 실행한다.
+// - cron 실행 시각(scheduledFireTime)을 JobParameter로 넘긴다.
+//   같은 실행 시각은 같은 JobInstance라서 다른 서버가 이미 끝낸 실행은 다시 실행되지 않고, 실패한 실행은 재시작된다.
+// - 이전 실행이 끝나지 않았으면 Job 설정(overlap)에 따라 건너뛰거나(SKIP) 끝난 후 이어서 실행(QUEUE)
+// - 서버가 내려가 있던 동안 놓친 실행은 시작할 때 한 번만 실행 (여러 번 놓쳐도 마지막 실행 시각으로 한 번)
+//
+// 지표 (Metrics.globalRegistry)
+// - batch.schedule.lock.wait (job, outcome) - 잠금을 기다린 시간
+// - batch.schedule.run (job, status) - Job 실행 시간
+// - batch.schedule.skipped (job, reason) - 건너뛴 실행 수
+// - batch.schedule.missed (job) - 놓친 실행 수
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "batch.schedule.enabled", havingValue = "true")
+@EnableConfigurationProperties(BatchScheduleProperties.class)
+public class BatchJobScheduler {
+	public static final String SCHEDULED_FIRE_TIME = "scheduledFireTime";
+
+	// 놓친 실행을 셀 때 최대 개수 (매초 실행 cron이 오래 멈춰있었을 때 끝없이 세지 않도록)
+	private static final int MAX_MISSED_COUNT = 10_000;
+
+	private final JobLauncher jobLauncher;
+	private final JobLockRepository jobLockRepository;
+	private final BatchScheduleProperties properties;
+
+	// 잠금을 잡은 서버 구분값 (pid@host)
+	private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+	private final Map<String, ScheduledJob> scheduledJobs = new LinkedHashMap<String, ScheduledJob>();
+	private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+	public BatchJobScheduler(JobLauncher jobLauncher, JobLockRepository jobLockRepository, BatchScheduleProperties properties,
+			List<Job> jobs) {
+		this.jobLauncher = jobLauncher;
+		this.jobLockRepository = jobLockRepository;
+		this.properties = properties;
+
+		for (Job job : jobs) {
+			JobSchedule schedule = properties.getJobs().get(job.getName());
+			if (schedule != null && schedule.getCron() != null && !schedule.getCron().isBlank()) {
+				scheduledJobs.put(job.getName(), new ScheduledJob(job, schedule, CronExpression.parse(schedule.getCron())));
+			}
+		}
+		properties.getJobs().keySet().stream().filter(name -> !scheduledJobs.containsKey(name))
+				.forEach(name -> log.warn("스케줄 설정이 있지만 Job이 없거나 cron이 비어있음: {}", name));
+
+		// Job 마다 실행 스레드 하나 + 잠금 연장, 다음 실행 예약용
+		taskScheduler.setPoolSize(scheduledJobs.size() + 2);
+		taskScheduler.setThreadNamePrefix("batch-scheduler-");
+		taskScheduler.setRemoveOnCancelPolicy(true);
+		taskScheduler.setWaitForTasksToCompleteOnShutdown(true);
+		taskScheduler.setAwaitTerminationSeconds(30);
+	}
+
+	// 애플리케이션이 모두 뜬 뒤 스케줄 시작
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		taskScheduler.initialize();
+		LocalDateTime now = LocalDateTime.now();
+
+		for (ScheduledJob scheduledJob : scheduledJobs.values()) {
+			createLockRow(scheduledJob.getName());
+
+			LocalDateTime missed = missedFireTime(scheduledJob.getName(), now);
+			if (missed != null) {
+				taskScheduler.execute(() -> fire(scheduledJob, missed));
+			}
+			scheduleNext(scheduledJob, now);
+			log.info("스케줄 등록 Job: {} cron: {} overlap: {}", scheduledJob.getName(), scheduledJob.schedule.getCron(),
+					scheduledJob.schedule.getOverlap());
+		}
+	}
+
+	// 예약된 다음 실행은 취소하고, 실행 중인 Job은 끝날 때까지 기다린다. (awaitTerminationSeconds)
+	@PreDestroy
+	public void stop() {
+		for (ScheduledJob scheduledJob : scheduledJobs.values()) {
+			synchronized (scheduledJob) {
+				if (scheduledJob.nextTrigger != null) {
+					scheduledJob.nextTrigger.cancel(false);
+				}
+			}
+		}
+		taskScheduler.shutdown();
+	}
+
+	// 마지막 실행 시각 이후 지금까지 놓친 실행이 있으면 가장 최근에 놓친 실행 시각 (catch-up 설정이 꺼져 있거나 없으면 null)
+	public LocalDateTime missedFireTime(String jobName, LocalDateTime now) {
+		ScheduledJob scheduledJob = scheduledJobs.get(jobName);
+		LocalDateTime lastFireTime = jobLockRepository.findById(jobName).map(JobLockEntity::getLastFireTime).orElse(null);
+		if (scheduledJob == null || lastFireTime == null || !scheduledJob.schedule.isCatchUp()) {
+			return null;
+		}
+
+		LocalDateTime missed = null;
+		int missedCount = 0;
+		for (LocalDateTime next = scheduledJob.cron.next(lastFireTime); next != null && !next.isAfter(now)
+				&& missedCount < MAX_MISSED_COUNT; next = scheduledJob.cron.next(next)) {
+			missed = next;
+			missedCount++;
+		}
+		if (missed != null) {
+			Counter.builder("batch.schedule.missed").tag("job", jobName).register(Metrics.globalRegistry).increment(missedCount);
+			log.warn("놓친 실행 Job: {} 마지막 실행: {} 놓친 횟수: {} -> {} 실행 시각으로 한 번 실행", jobName, lastFireTime, missedCount, missed);
+		}
+		return missed;
+	}
+
+	// cron 실행 시각에 호출된다. (테스트, 수동 실행에서도 사용)
+	// 이 서버에서 이전 실행이 아직 돌고 있으면 SKIP은 건너뛰고 QUEUE는 끝난 뒤 이어서 실행할 시각으로 남겨둔다.
+	public void trigger(String jobName, LocalDateTime fireTime) {
+		ScheduledJob scheduledJob = scheduledJobs.get(jobName);
+		if (scheduledJob == null) {
+			throw new IllegalArgumentException("스케줄 등록되지 않은 Job: " + jobName);
+		}
+		fire(scheduledJob, fireTime);
+	}
+
+	private void scheduleNext(ScheduledJob scheduledJob, LocalDateTime after) {
+		LocalDateTime next = scheduledJob.cron.next(after);
+		if (next != null && !taskScheduler.getScheduledExecutor().isShutdown()) {
+			ScheduledFuture<?> nextTrigger = taskScheduler.schedule(() -> {
+				scheduleNext(scheduledJob, next);
+				fire(scheduledJob, next);
+			}, Date.from(next.atZone(ZoneId.systemDefault()).toInstant()));
+			synchronized (scheduledJob) {
+				scheduledJob.nextTrigger = nextTrigger;
+			}
+		}
+	}
+
+	private void fire(ScheduledJob scheduledJob, LocalDateTime fireTime) {
+		synchronized (scheduledJob) {
+			if (scheduledJob.running) {
+				if (scheduledJob.schedule.getOverlap() == OverlapPolicy.QUEUE) {
+					log.info("이전 실행이 끝나지 않아서 대기 Job: {} 실행 시각: {}", scheduledJob.getName(), fireTime);
+					scheduledJob.queuedFireTime = fireTime;
+				} else {
+					skipped(scheduledJob, "running", fireTime);
+				}
+				return;
+			}
+			scheduledJob.running = true;
+		}
+
+		LocalDateTime next = fireTime;
+		while (next != null) {
+			try {
+				runWithLock(scheduledJob, next);
+			} catch (Exception e) {
+				log.error("스케줄 실행 실패 Job: {} 실행 시각: {}", scheduledJob.getName(), next, e);
+			}
+			synchronized (scheduledJob) {
+				next = scheduledJob.queuedFireTime;
+				scheduledJob.queuedFireTime = null;
+				if (next == null) {
+					scheduledJob.running = false;
+				}
+			}
+		}
+	}
+
+	private void runWithLock(ScheduledJob scheduledJob, LocalDateTime fireTime) throws Exception {
+		String jobName = scheduledJob.getName();
+
+		// 1. 잠금 잡기 (QUEUE는 다른 서버의 실행이 끝날 때까지 maxLockWait 동안 기다린다.)
+		long waitStart = System.nanoTime();
+		long deadline = waitStart + scheduledJob.schedule.getMaxLockWait().toNanos();
+		while (!tryLock(jobName, fireTime)) {
+			if (scheduledJob.schedule.getOverlap() == OverlapPolicy.SKIP || System.nanoTime() >= deadline) {
+				String reason = scheduledJob.schedule.getOverlap() == OverlapPolicy.SKIP ? "locked" : "timeout";
+				recordLockWait(jobName, reason, waitStart);
+				skipped(scheduledJob, reason, fireTime);
+				return;
+			}
+			Thread.sleep(properties.getLockPollInterval().toMillis());
+		}
+		recordLockWait(jobName, "acquired", waitStart);
+
+		// 2. 실행하는 동안 잠금 연장
+		long leaseMillis = properties.getLockLease().toMillis();
+		ScheduledFuture<?> heartbeat = taskScheduler.scheduleAtFixedRate(() -> {
+			LocalDateTime now = LocalDateTime.now();
+			if (jobLockRepository.extendLock(jobName, owner, now, now.plus(leaseMillis, ChronoUnit.MILLIS)) == 0) {
+				log.warn("잠금 연장 실패 (만료되어 다른 서버가 잡았을 수 있음) Job: {}", jobName);
+			}
+		}, Date.from(Instant.now().plusMillis(leaseMillis / 3)), Math.max(1L, leaseMillis / 3));
+
+		// 3. 실행
+		long runStart = System.nanoTime();
+		String status = "UNKNOWN";
+		try {
+			JobParameters jobParameters = new JobParametersBuilder()
+					.addDate(SCHEDULED_FIRE_TIME, Date.from(fireTime.atZone(ZoneId.systemDefault()).toInstant()))
+					.toJobParameters();
+			JobExecution jobExecution = jobLauncher.run(scheduledJob.job, jobParameters);
+			status = jobExecution.getStatus().name();
+			log.info("스케줄 실행 Job: {} 실행 시각: {} 상태: {}", jobName, fireTime, status);
+		} catch (JobInstanceAlreadyCompleteException e) {
+			status = "ALREADY_COMPLETE";
+			skipped(scheduledJob, "completed", fireTime);
+		} catch (JobExecutionAlreadyRunningException e) {
+			status = "ALREADY_RUNNING";
+			skipped(scheduledJob, "running", fireTime);
+		} finally {
+			heartbeat.cancel(false);
+			jobLockRepository.unlock(jobName, owner, LocalDateTime.now());
+			Timer.builder("batch.schedule.run").tag("job", jobName).tag("status", status).register(Metrics.globalRegistry)
+					.record(System.nanoTime() - runStart, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private boolean tryLock(String jobName, LocalDateTime fireTime) {
+		LocalDateTime now = LocalDateTime.now();
+		return jobLockRepository.tryLock(jobName, owner, fireTime, now, now.plus(properties.getLockLease())) == 1;
+	}
+
+	// 잠금 행이 없으면 만든다. (여러 서버가 동시에 만들면 먼저 만든 행을 사용)
+	private void createLockRow(String jobName) {
+		if (jobLockRepository.existsById(jobName)) {
+			return;
+		}
+		try {
+			JobLockEntity jobLockEntity = new JobLockEntity();
+			jobLockEntity.setJobName(jobName);
+			jobLockRepository.saveAndFlush(jobLockEntity);
+		} catch (DataIntegrityViolationException e) {
+			log.debug("잠금 행이 이미 있음 Job: {}", jobName);
+		}
+	}
+
+	private void recordLockWait(String jobName, String outcome, long waitStart) {
+		Timer.builder("batch.schedule.lock.wait").tag("job", jobName).tag("outcome", outcome).register(Metrics.globalRegistry)
+				.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+	}
+
+	private void skipped(ScheduledJob scheduledJob, String reason, LocalDateTime fireTime) {
+		Counter.builder("batch.schedule.skipped").tag("job", scheduledJob.getName()).tag("reason", reason)
+				.register(Metrics.globalRegistry).increment();
+		log.info("스케줄 실행 건너뜀 Job: {} 실행 시각: {} 이유: {}", scheduledJob.getName(), fireTime, reason);
+	}
+
+	// Job 하나의 스케줄 상태 (running, queuedFireTime, nextTrigger 는 ScheduledJob 으로 동기화)
+	private static final class ScheduledJob {
+		private final Job job;
+		private final JobSchedule schedule;
+		private final CronExpression cron;
+
+		private boolean running;
+		private LocalDateTime queuedFireTime;
+		private ScheduledFuture<?> nextTrigger;
+
+		private ScheduledJob(Job job, JobSchedule schedule, CronExpression cron) {
+			this.job = job;
+			this.schedule = schedule;
+			this.cron = cron;
+		}
+
+		private String getName() {
+			return job.getName();
+		}
+	}
+}
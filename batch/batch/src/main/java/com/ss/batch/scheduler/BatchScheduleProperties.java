@@ -0,0 +1,47 @@
+package com.ss.batch.scheduler;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+// 스케줄러 설정 (batch.schedule.*)
+// Job 마다 설정이 달라서 batch.schedule.jobs.<Job 이름>.* 형태의 Map으로 받는다.
+@Data
+@ConfigurationProperties(prefix = "batch.schedule")
+public class BatchScheduleProperties {
+	// 스케줄러 사용 여부
+	private boolean enabled;
+
+	// 잠금 유지 시간 - 실행 중에는 1/3 마다 연장하고, 서버가 죽으면 이 시간이 지나서 다른 서버가 잡는다.
+	private Duration lockLease = Duration.ofMinutes(5);
+
+	// QUEUE 정책에서 다른 서버의 잠금이 풀렸는지 다시 확인하는 간격
+	private Duration lockPollInterval = Duration.ofSeconds(5);
+
+	private Map<String, JobSchedule> jobs = new LinkedHashMap<String, JobSchedule>();
+
+	@Data
+	public static class JobSchedule {
+		// 초 분 시 일 월 요일 (예: 0 */10 * * * * - 10분마다)
+		private String cron;
+
+		// 이전 실행이 아직 끝나지 않았을 때
+		// SKIP - 이번 실행은 건너뛴다.
+		// QUEUE - 이전 실행이 끝나면 이어서 한 번 실행한다. (여러 번 밀려도 한 번으로 합친다.)
+		private OverlapPolicy overlap = OverlapPolicy.SKIP;
+
+		// QUEUE 정책에서 다른 서버의 잠금을 기다리는 최대 시간 (넘으면 건너뛴다.)
+		private Duration maxLockWait = Duration.ofMinutes(30);
+
+		// 서버가 내려가 있던 동안 놓친 실행이 있으면 시작할 때 한 번 실행
+		private boolean catchUp = true;
+	}
+
+	public enum OverlapPolicy {
+		SKIP, QUEUE
+	}
+}
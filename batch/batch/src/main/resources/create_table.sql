@@ -72,4 +72,4 @@ CREATE TABLE BATCH_JOB_EXECUTION_CONTEXT (
   SERIALIZED_CONTEXT TEXT NOT NULL,
   CONSTRAINT JOB_EXEC_CTX_FK FOREIGN KEY (JOB_EXECUTION_ID)
   REFERENCES BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
-);
\ No newline at end of file
+);
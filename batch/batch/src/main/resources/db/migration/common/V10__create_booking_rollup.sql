@@ -0,0 +1,60 @@
+-- 예약 출석 / 이용권 사용 집계 테이블 (bookingRollupJob)
+-- 대시보드, 리포트는 booking 원본 대신 이 테이블을 읽는다.
+-- stat_date, time_slot 은 수업 시작 일시(started_at) 기준
+-- booked_count - 취소되지 않은 예약, cancelled_count - 취소된 예약
+-- attended_count - 출석한 예약, used_pass_count - 이용권을 사용한 예약
+
+-- 사용자별 일 집계
+CREATE TABLE IF NOT EXISTS booking_rollup_user_daily (
+  stat_date DATE NOT NULL,
+  user_id VARCHAR(255) NOT NULL,
+  booked_count INT NOT NULL,
+  cancelled_count INT NOT NULL,
+  attended_count INT NOT NULL,
+  used_pass_count INT NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (stat_date, user_id)
+);
+
+-- 상품별 일 집계 (예약의 이용권 → 상품, 이용권이 없는 예약은 package_seq = 0)
+CREATE TABLE IF NOT EXISTS booking_rollup_package_daily (
+  stat_date DATE NOT NULL,
+  package_seq BIGINT NOT NULL,
+  booked_count INT NOT NULL,
+  cancelled_count INT NOT NULL,
+  attended_count INT NOT NULL,
+  used_pass_count INT NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (stat_date, package_seq)
+);
+
+-- 시간대(시작 시각의 시, 0 ~ 23)별 일 집계
+CREATE TABLE IF NOT EXISTS booking_rollup_slot_daily (
+  stat_date DATE NOT NULL,
+  time_slot INT NOT NULL,
+  booked_count INT NOT NULL,
+  cancelled_count INT NOT NULL,
+  attended_count INT NOT NULL,
+  used_pass_count INT NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (stat_date, time_slot)
+);
+
+-- 예약마다 마지막으로 집계에 반영한 값
+-- 예약이 바뀌면 (이전 반영 값을 빼고 새 값을 더한) 차이만 집계 테이블에 더한다.
+-- 같은 예약을 다시 읽어도 차이가 0 이라서 두 번 더해지지 않는다. (사용자가 없는 예약은 사용자별 집계에서 빠진다)
+CREATE TABLE IF NOT EXISTS booking_rollup_ledger (
+  booking_seq BIGINT NOT NULL,
+  stat_date DATE NOT NULL,
+  time_slot INT NOT NULL,
+  user_id VARCHAR(255),
+  package_seq BIGINT NOT NULL,
+  booked_count INT NOT NULL,
+  cancelled_count INT NOT NULL,
+  attended_count INT NOT NULL,
+  used_pass_count INT NOT NULL,
+  PRIMARY KEY (booking_seq)
+);
+
+-- bookingRollupJob: modified_at > ? and modified_at <= ? and booking_seq > ?
+CREATE INDEX idx_booking_modified_at ON booking (modified_at, booking_seq);
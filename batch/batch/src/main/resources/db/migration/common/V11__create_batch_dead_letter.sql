@@ -0,0 +1,18 @@
+-- 청크를 나눠서 다시 써도 실패한 항목 (BisectingItemWriter)
+-- 항목을 고친 뒤 item_key 로 원본 행을 찾아 다시 처리한다.
+-- item - 항목의 toString, exception_message - 가장 안쪽 원인 예외의 메시지 (4000자까지)
+CREATE TABLE IF NOT EXISTS batch_dead_letter (
+  dead_letter_seq BIGINT NOT NULL AUTO_INCREMENT,
+  job_name VARCHAR(100) NOT NULL,
+  step_name VARCHAR(100) NOT NULL,
+  job_execution_id BIGINT NOT NULL,
+  step_execution_id BIGINT NOT NULL,
+  item_key VARCHAR(255),
+  item VARCHAR(4000),
+  exception_class VARCHAR(255) NOT NULL,
+  exception_message VARCHAR(4000),
+  create_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (dead_letter_seq)
+);
+
+CREATE INDEX idx_batch_dead_letter_step ON batch_dead_letter (job_name, step_name, create_at);
@@ -0,0 +1,5 @@
+-- 알림을 어느 예약으로 만들었는지 기록한다. (sendNotificationClassJob - addNotificationStep)
+-- (예약 순번, 이벤트) 유니크 키로 같은 예약의 같은 알림을 두 번 만들지 못하게 막는다.
+-- 기존 알림은 booking_seq 가 NULL 이라서 유니크 키에 걸리지 않는다.
+ALTER TABLE notification ADD COLUMN booking_seq BIGINT;
+CREATE UNIQUE INDEX uk_notification_booking_seq_event ON notification (booking_seq, event);
@@ -0,0 +1,4 @@
+-- monthlyExportJob: 파티션 범위 계산 min(seq), max(seq) where started_at >= ? and started_at < ?
+-- 그 달에 시작한 행의 순번 범위만 인덱스에서 바로 읽는다. (테이블 전체 범위로 나누면 지난 달 파티션 대부분이 빈 범위를 훑는다)
+CREATE INDEX idx_pass_started_at ON pass (started_at, pass_seq);
+CREATE INDEX idx_booking_started_at ON booking (started_at, booking_seq);
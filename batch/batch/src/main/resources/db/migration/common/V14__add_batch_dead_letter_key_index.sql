@@ -0,0 +1,3 @@
+-- BisectingItemWriter: 같은 Job에서 같은 항목(item_key)이 다시 실패하면 새 행을 넣지 않고 기존 행을 갱신한다.
+-- where job_name = ? and item_key = ? 로 기존 행을 찾는다.
+CREATE INDEX idx_batch_dead_letter_key ON batch_dead_letter (job_name, item_key);
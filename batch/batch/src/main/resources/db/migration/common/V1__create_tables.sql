@@ -0,0 +1,92 @@
+-- 업무 테이블 (엔티티 컬럼과 맞춘다. 컬럼 이름은 스프링 기본 명명 규칙 camelCase -> snake_case)
+-- 기존에 ddl-auto로 만들어진 DB에서도 실행될 수 있도록 IF NOT EXISTS 로 만든다.
+
+CREATE TABLE IF NOT EXISTS package (
+  pack_seq BIGINT NOT NULL AUTO_INCREMENT,
+  package_name VARCHAR(255),
+  count INT,
+  period INT,
+  create_at DATETIME(6) NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (pack_seq)
+);
+
+CREATE TABLE IF NOT EXISTS pass (
+  pass_seq BIGINT NOT NULL,
+  package_seq BIGINT,
+  user_id VARCHAR(255),
+  status VARCHAR(255),
+  remaining_count INT,
+  started_at DATETIME(6),
+  ended_at DATETIME(6),
+  expired_at DATETIME(6),
+  PRIMARY KEY (pass_seq)
+);
+
+CREATE TABLE IF NOT EXISTS bulk_pass (
+  bulk_pass_seq BIGINT NOT NULL AUTO_INCREMENT,
+  package_seq BIGINT,
+  user_group_id VARCHAR(255),
+  status VARCHAR(255),
+  count INT,
+  started_at DATETIME(6),
+  ended_at DATETIME(6),
+  PRIMARY KEY (bulk_pass_seq)
+);
+
+-- 기본키 (user_group_id, user_id) 가 그룹 ID로 사용자를 찾는 조회를 같이 처리한다.
+CREATE TABLE IF NOT EXISTS user_group_mapping (
+  user_group_id VARCHAR(255) NOT NULL,
+  user_id VARCHAR(255) NOT NULL,
+  user_group_name VARCHAR(255),
+  description VARCHAR(255),
+  create_at DATETIME(6) NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (user_group_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS booking (
+  booking_seq BIGINT NOT NULL AUTO_INCREMENT,
+  pass_seq BIGINT,
+  user_id VARCHAR(255),
+  status VARCHAR(255),
+  used_pass BOOLEAN NOT NULL,
+  attended BOOLEAN NOT NULL,
+  started_at DATETIME(6),
+  ended_at DATETIME(6),
+  cancelend_at DATETIME(6),
+  create_at DATETIME(6) NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (booking_seq)
+);
+
+-- event 는 NotificationEvent 순서값(ordinal)
+CREATE TABLE IF NOT EXISTS notification (
+  notification_seq BIGINT NOT NULL,
+  uuid VARCHAR(255),
+  event INT,
+  text VARCHAR(1000),
+  sent BOOLEAN NOT NULL,
+  sent_at DATETIME(6),
+  create_at DATETIME(6) NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (notification_seq)
+);
+
+-- 엔티티 순번 블록 할당 테이블 (배치가 대량으로 INSERT 하는 pass, notification)
+-- next_val은 다음에 발급할 순번. 기존 데이터가 있으면 최대값 + 1 로 맞춰둔다.
+-- booking, bulk_pass 는 외부(예약, 관리 화면)에서 순번 없이 INSERT 하므로 AUTO_INCREMENT 를 그대로 쓴다.
+CREATE TABLE IF NOT EXISTS id_sequence (
+  sequence_name VARCHAR(255) NOT NULL,
+  next_val BIGINT,
+  PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_sequence (sequence_name, next_val)
+SELECT 'pass', s.next_val FROM (SELECT COALESCE(MAX(pass_seq), 0) + 1 AS next_val FROM pass) s
+WHERE NOT EXISTS (SELECT 1 FROM id_sequence WHERE sequence_name = 'pass');
+
+INSERT INTO id_sequence (sequence_name, next_val)
+SELECT 'notification', s.next_val FROM (SELECT COALESCE(MAX(notification_seq), 0) + 1 AS next_val FROM notification) s
+WHERE NOT EXISTS (SELECT 1 FROM id_sequence WHERE sequence_name = 'notification');
+
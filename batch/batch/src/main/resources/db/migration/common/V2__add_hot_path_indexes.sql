@@ -0,0 +1,14 @@
+-- 배치 Job 조회 조건에 맞춘 복합 인덱스
+-- user_group_mapping(user_group_id) 조회는 기본키 (user_group_id, user_id) 앞부분으로 처리된다.
+
+-- expiredPassJob: status = PROGRESSED and ended_at <= ? (파티션 모드의 min / max 조회 포함)
+CREATE INDEX idx_pass_status_ended_at ON pass (status, ended_at);
+
+-- sendNotificationClassJob(addNotificationStep): status = READY and started_at <= ? and booking_seq > ?
+CREATE INDEX idx_booking_status_started_at ON booking (status, started_at, booking_seq);
+
+-- sendNotificationClassJob(sendNotificationStep): event = BEFORE and sent = false order by uuid, notification_seq
+CREATE INDEX idx_notification_sent_event_uuid ON notification (sent, event, uuid);
+
+-- addPassesJob: status = READY and started_at > ?
+CREATE INDEX idx_bulk_pass_status_started_at ON bulk_pass (status, started_at);
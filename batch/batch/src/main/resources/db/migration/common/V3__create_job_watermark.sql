@@ -0,0 +1,8 @@
+-- Job 마다 마지막으로 처리한 기준 시각 (expiredPassJob: 만료 처리한 ended_at 상한)
+CREATE TABLE IF NOT EXISTS job_watermark (
+  job_name VARCHAR(100) NOT NULL,
+  watermark DATETIME(6) NOT NULL,
+  create_at DATETIME(6) NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (job_name)
+);
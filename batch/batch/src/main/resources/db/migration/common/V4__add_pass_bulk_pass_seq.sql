@@ -0,0 +1,5 @@
+-- 대량 이용권으로 발급한 이용권은 어느 대량 이용권에서 나왔는지 기록한다.
+-- (대량 이용권 순번, 사용자 ID) 유니크 키로 같은 대량 이용권을 한 사용자에게 두 번 발급하지 못하게 막는다.
+-- 개별 발급 이용권은 bulk_pass_seq 가 NULL 이라서 유니크 키에 걸리지 않는다.
+ALTER TABLE pass ADD COLUMN bulk_pass_seq BIGINT;
+CREATE UNIQUE INDEX uk_pass_bulk_pass_seq_user_id ON pass (bulk_pass_seq, user_id);
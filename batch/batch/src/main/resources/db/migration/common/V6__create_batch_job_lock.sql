@@ -0,0 +1,13 @@
+-- 스케줄러가 Job을 실행할 때 잡는 Job 별 잠금 (여러 서버 중 한 곳에서만 실행)
+-- locked_by / lock_until - 잠금을 잡은 서버와 잠금 만료 시각 (실행 중에는 계속 연장, 서버가 죽으면 만료 후 다른 서버가 잡는다)
+-- last_fire_time - 마지막으로 실행한 cron 실행 시각 (서버가 내려가 있던 동안 놓친 실행을 찾을 때 사용)
+CREATE TABLE IF NOT EXISTS batch_job_lock (
+  job_name VARCHAR(100) NOT NULL,
+  locked_by VARCHAR(255),
+  locked_at DATETIME(6),
+  lock_until DATETIME(6),
+  last_fire_time DATETIME(6),
+  create_at DATETIME(6) NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (job_name)
+);
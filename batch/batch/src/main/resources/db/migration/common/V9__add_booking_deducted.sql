@@ -0,0 +1,6 @@
+-- 이용권 잔여 횟수 차감을 반영한 예약인지 기록한다. (passDeductionJob)
+-- 기존 완료 예약도 아직 차감되지 않았으므로 false 로 두고 첫 실행에서 같이 차감한다.
+ALTER TABLE booking ADD COLUMN deducted BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- passDeductionJob: deducted = false and status = COMPLETED and used_pass = true and booking_seq > ?
+CREATE INDEX idx_booking_deducted ON booking (deducted, status, used_pass, booking_seq);
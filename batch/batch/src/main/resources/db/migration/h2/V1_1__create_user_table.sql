@@ -0,0 +1,11 @@
+-- 사용자 테이블 (H2 JSON 타입은 문자열을 JSON 문자열 값으로 저장하기 때문에 meta 는 문자열 컬럼으로 둔다)
+CREATE TABLE IF NOT EXISTS user (
+  user_id VARCHAR(255) NOT NULL,
+  user_name VARCHAR(255),
+  status VARCHAR(255),
+  phone VARCHAR(255),
+  meta VARCHAR(4000),
+  create_at DATETIME(6) NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (user_id)
+);
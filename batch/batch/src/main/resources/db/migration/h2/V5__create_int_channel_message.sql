@@ -0,0 +1,16 @@
+-- 원격 파티션 요청 큐 (spring-integration-jdbc JdbcChannelMessageStore, schema-h2.sql 과 같은 구조)
+-- H2는 AUTO_INCREMENT 대신 INT_MESSAGE_SEQ 시퀀스로 MESSAGE_SEQUENCE를 채운다.
+CREATE SEQUENCE IF NOT EXISTS INT_MESSAGE_SEQ START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS INT_CHANNEL_MESSAGE (
+  MESSAGE_ID CHAR(36) NOT NULL,
+  GROUP_KEY CHAR(36) NOT NULL,
+  CREATED_DATE BIGINT NOT NULL,
+  MESSAGE_PRIORITY BIGINT,
+  MESSAGE_SEQUENCE BIGINT NOT NULL,
+  MESSAGE_BYTES LONGVARBINARY,
+  REGION VARCHAR(100) NOT NULL,
+  CONSTRAINT INT_CHANNEL_MESSAGE_PK PRIMARY KEY (REGION, GROUP_KEY, CREATED_DATE, MESSAGE_SEQUENCE)
+);
+
+CREATE INDEX IF NOT EXISTS INT_CHANNEL_MSG_DELETE_IDX ON INT_CHANNEL_MESSAGE (REGION, GROUP_KEY, MESSAGE_ID);
@@ -0,0 +1,3 @@
+-- 메시지 발송용 uuid 를 meta 에서 뽑아둔 생성 컬럼 (H2 는 meta 가 문자열이라 정규식으로 "uuid" 값을 꺼낸다)
+ALTER TABLE user ADD COLUMN IF NOT EXISTS uuid VARCHAR(255) GENERATED ALWAYS AS (REGEXP_SUBSTR(meta, '"uuid"\s*:\s*"([^"]*)"', 1, 1, '', 1));
+CREATE INDEX IF NOT EXISTS idx_user_user_id_uuid ON user (user_id, uuid);
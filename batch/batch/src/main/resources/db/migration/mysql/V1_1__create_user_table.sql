@@ -0,0 +1,11 @@
+-- 사용자 테이블 (meta 는 JSON 컬럼)
+CREATE TABLE IF NOT EXISTS user (
+  user_id VARCHAR(255) NOT NULL,
+  user_name VARCHAR(255),
+  status VARCHAR(255),
+  phone VARCHAR(255),
+  meta JSON,
+  create_at DATETIME(6) NOT NULL,
+  modified_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (user_id)
+);
@@ -0,0 +1,14 @@
+-- 원격 파티션 요청 큐 (spring-integration-jdbc JdbcChannelMessageStore, schema-mysql.sql 과 같은 구조)
+-- 매니저 JVM이 파티션 요청을 넣고 워커 JVM들이 한 건씩 꺼내서 실행한다.
+CREATE TABLE IF NOT EXISTS INT_CHANNEL_MESSAGE (
+  MESSAGE_ID CHAR(36) NOT NULL,
+  GROUP_KEY CHAR(36) NOT NULL,
+  CREATED_DATE BIGINT NOT NULL,
+  MESSAGE_PRIORITY BIGINT,
+  MESSAGE_SEQUENCE BIGINT NOT NULL AUTO_INCREMENT UNIQUE,
+  MESSAGE_BYTES BLOB,
+  REGION VARCHAR(100) NOT NULL,
+  CONSTRAINT INT_CHANNEL_MESSAGE_PK PRIMARY KEY (REGION, GROUP_KEY, CREATED_DATE, MESSAGE_SEQUENCE)
+) ENGINE=InnoDB;
+
+CREATE INDEX INT_CHANNEL_MSG_DELETE_IDX ON INT_CHANNEL_MESSAGE (REGION, GROUP_KEY, MESSAGE_ID);
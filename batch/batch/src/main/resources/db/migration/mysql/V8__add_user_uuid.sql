@@ -0,0 +1,5 @@
+-- 메시지 발송용 uuid 를 meta(JSON)에서 뽑아둔 생성 컬럼
+-- STORED 라서 meta 를 저장할 때 한 번만 계산되고, 알림 대상 조회는 JSON 을 파싱하지 않고 이 컬럼만 읽는다.
+-- (user_id, uuid) 인덱스로 예약 → 사용자 조인이 meta 가 들어있는 행을 읽지 않고 인덱스에서 끝난다.
+ALTER TABLE user ADD COLUMN uuid VARCHAR(255) GENERATED ALWAYS AS (meta ->> '$.uuid') STORED;
+CREATE INDEX idx_user_user_id_uuid ON user (user_id, uuid);
@@ -0,0 +1,72 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatContext;
+
+import com.ss.batch.job.pass.AdaptiveChunkSizePolicy;
+
+public class AdaptiveChunkSizePolicyTest {
+
+	@Test
+	public void test_resize() {
+		// given 목표 시간이 충분히 긴 경우 (청크가 바로 끝남)
+		AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(10, 5, 30, 60_000L);
+		ExecutionContext executionContext = new ExecutionContext();
+		policy.open(executionContext);
+
+		// when 빠르게 끝나면 2배씩, 최대 크기까지만 커진다.
+		policy.beforeChunk(null);
+		policy.afterChunk(null);
+		assertEquals(20, policy.getChunkSize());
+
+		policy.beforeChunk(null);
+		policy.afterChunk(null);
+		assertEquals(30, policy.getChunkSize());
+
+		// 롤백되면 절반, 최소 크기 아래로는 줄지 않는다.
+		policy.beforeChunk(null);
+		policy.afterChunkError(null);
+		assertEquals(15, policy.getChunkSize());
+		policy.afterChunkError(null);
+		policy.afterChunkError(null);
+		assertEquals(5, policy.getChunkSize());
+
+		// then 정한 크기는 ExecutionContext에 저장되고, 재시작하면 그 크기부터 시작
+		policy.update(executionContext);
+		assertEquals(5, executionContext.getInt(AdaptiveChunkSizePolicy.CHUNK_SIZE));
+
+		AdaptiveChunkSizePolicy restarted = new AdaptiveChunkSizePolicy(10, 5, 30, 60_000L);
+		restarted.open(executionContext);
+		assertEquals(5, restarted.getChunkSize());
+	}
+
+	@Test
+	public void test_slowChunk() throws Exception {
+		// given 목표 시간을 넘기는 청크
+		AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(40, 5, 100, 1L);
+
+		// when
+		policy.beforeChunk(null);
+		Thread.sleep(20);
+		policy.afterChunk(null);
+
+		// then
+		assertEquals(20, policy.getChunkSize());
+	}
+
+	@Test
+	public void test_isComplete() {
+		AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(2, 1, 10, 1000L);
+		RepeatContext context = policy.start(null);
+
+		policy.update(context);
+		assertFalse(policy.isComplete(context));
+		policy.update(context);
+		assertTrue(policy.isComplete(context));
+	}
+}
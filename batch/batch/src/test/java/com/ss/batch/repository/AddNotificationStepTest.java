@@ -0,0 +1,97 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.adapter.message.StubNotificationSender;
+import com.ss.batch.adapter.message.TokenBucketRateLimiter;
+import com.ss.batch.job.pass.SendNotificationClassJobConfig;
+
+// addNotificationStep이 user.uuid 생성 컬럼(meta 의 uuid)으로 알림을 만드는지 확인
+@SpringBootTest
+@SpringBatchTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { SendNotificationClassJobConfig.class, StubNotificationSender.class, TokenBucketRateLimiter.class,
+		TestBatchConfig.class })
+public class AddNotificationStepTest {
+	@Autowired
+	private JobLauncherTestUtils jobLauncherTestUtils;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("delete from notification where uuid like 'n-uuid-%'");
+		jdbcTemplate.update("delete from booking where booking_seq between 3001 and 3003");
+		jdbcTemplate.update("delete from user where user_id in ('N1', 'N2', 'N3')");
+	}
+
+	@Test
+	public void test_addNotificationStep() {
+		// given uuid가 있는 사용자, 없는 사용자, 나중에 uuid가 바뀐 사용자
+		LocalDateTime now = LocalDateTime.now();
+		insertUser("N1", "{\"uuid\": \"n-uuid-1\", \"grade\": \"VIP\"}", now);
+		insertUser("N2", "{\"grade\": \"NORMAL\"}", now);
+		insertUser("N3", "{\"uuid\": \"n-uuid-old\"}", now);
+		jdbcTemplate.update("update user set meta = ? where user_id = 'N3'", "{\"uuid\":\"n-uuid-3\"}");
+		for (int i = 1; i <= 3; i++) {
+			jdbcTemplate.update("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+					+ " values (?, 1, ?, 'READY', false, false, ?, ?, ?, ?)", 3000 + i, "N" + i, now.plusMinutes(5), now.plusMinutes(65), now, now);
+		}
+
+		// when
+		JobExecution jobExecution = jobLauncherTestUtils.launchStep("addNotificationStep");
+
+		// then uuid가 없는 사용자는 조회 단계에서 빠지고, 바뀐 meta 의 uuid로 알림 생성
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		List<String> uuids = jdbcTemplate.queryForList("select uuid from notification where uuid like 'n-uuid-%' order by uuid", String.class);
+		assertEquals(List.of("n-uuid-1", "n-uuid-3"), uuids);
+	}
+
+	@Test
+	public void test_addNotificationStep_rerun() {
+		// given 이미 알림을 만든 예약, 새로 들어온 예약, 이미 시작한 예약
+		LocalDateTime now = LocalDateTime.now();
+		insertUser("N1", "{\"uuid\": \"n-uuid-1\"}", now);
+		jdbcTemplate.update("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+				+ " values (3001, 1, 'N1', 'READY', false, false, ?, ?, ?, ?)", now.plusMinutes(5), now.plusMinutes(65), now, now);
+		jdbcTemplate.update("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+				+ " values (3003, 1, 'N1', 'READY', false, false, ?, ?, ?, ?)", now.minusMinutes(5), now.plusMinutes(55), now, now);
+		assertEquals(BatchStatus.COMPLETED, jobLauncherTestUtils.launchStep("addNotificationStep").getStatus());
+		jdbcTemplate.update("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+				+ " values (3002, 1, 'N1', 'READY', false, false, ?, ?, ?, ?)", now.plusMinutes(8), now.plusMinutes(68), now, now);
+
+		// when 다음 실행
+		JobExecution jobExecution = jobLauncherTestUtils.launchStep("addNotificationStep");
+
+		// then 새 예약의 알림만 추가되어 예약마다 알림은 한 건 (이미 시작한 예약은 알림 없음)
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		assertEquals(1, jobExecution.getStepExecutions().iterator().next().getWriteCount());
+		List<Long> bookingSeqs = jdbcTemplate.queryForList("select booking_seq from notification where uuid like 'n-uuid-%' order by booking_seq",
+				Long.class);
+		assertEquals(List.of(3001L, 3002L), bookingSeqs);
+	}
+
+	private void insertUser(String userId, String meta, LocalDateTime now) {
+		jdbcTemplate.update("insert into user (user_id, user_name, status, meta, create_at, modified_at) values (?, ?, 'ACTIVE', ?, ?, ?)",
+				userId, userId, meta, now, now);
+	}
+}
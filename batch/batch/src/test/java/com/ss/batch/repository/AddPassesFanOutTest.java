@@ -0,0 +1,100 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.job.pass.AddPassesJobConfig;
+import com.ss.batch.job.pass.AddPassesTasklet;
+
+// 그룹 사용자를 커서로 읽어서 청크 크기만큼씩 커밋하고, 대량 이용권마다 사용자 한 명당 이용권 한 장씩 발급하는지 확인
+@SpringBootTest(properties = { "batch.add-passes.streaming=true", "batch.add-passes.chunk-size=3", "batch.add-passes.fetch-size=2" })
+@SpringBatchTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { AddPassesJobConfig.class, AddPassesTasklet.class, TestBatchConfig.class })
+public class AddPassesFanOutTest {
+	private static final int USER_COUNT = 7;
+
+	@Autowired
+	private JobLauncherTestUtils jobLauncherTestUtils;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("delete from pass where bulk_pass_seq between 911 and 913");
+		jdbcTemplate.update("delete from bulk_pass where bulk_pass_seq between 911 and 913");
+		jdbcTemplate.update("delete from user_group_mapping where user_group_id in ('FANOUT', 'FANOUT_OTHER')");
+	}
+
+	@Test
+	public void test_fanOut() throws Exception {
+		// given 사용자 7명 그룹에 대량 이용권 2건, 다른 그룹 사용자 1명
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < USER_COUNT; i++) {
+			addMember("FANOUT", String.format("F%02d", i), now);
+		}
+		addMember("FANOUT_OTHER", "O00", now);
+		addBulkPass(911L, 1L, 10, "FANOUT", "READY", now);
+		addBulkPass(912L, 2L, 20, "FANOUT", "READY", now);
+		// 이미 완료된 대량 이용권은 발급하지 않는다.
+		addBulkPass(913L, 1L, 10, "FANOUT", "COMPLETED", now);
+
+		// when
+		JobExecution jobExecution = jobLauncherTestUtils.launchJob();
+
+		// then (대량 이용권, 사용자) 14건을 3건씩 5개 청크로 나눠 커밋
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		StepExecution fanOutStep = jobExecution.getStepExecutions().stream()
+				.filter(s -> s.getStepName().equals("addPassFanOutStep")).findFirst().get();
+		assertEquals(USER_COUNT * 2, fanOutStep.getReadCount());
+		assertEquals(USER_COUNT * 2, fanOutStep.getWriteCount());
+		assertEquals(5, fanOutStep.getCommitCount());
+
+		// 대량 이용권 정보로 만든 이용권이 사용자마다 한 장씩
+		List<Map<String, Object>> passes = jdbcTemplate.queryForList("select bulk_pass_seq, user_id, package_seq, status, remaining_count"
+				+ " from pass where bulk_pass_seq between 911 and 913 order by bulk_pass_seq, user_id");
+		assertEquals(USER_COUNT * 2, passes.size());
+		for (int i = 0; i < passes.size(); i++) {
+			Map<String, Object> pass = passes.get(i);
+			boolean first = i < USER_COUNT;
+			assertEquals(first ? 911L : 912L, ((Number) pass.get("bulk_pass_seq")).longValue());
+			assertEquals(String.format("F%02d", i % USER_COUNT), pass.get("user_id"));
+			assertEquals(first ? 1L : 2L, ((Number) pass.get("package_seq")).longValue());
+			assertEquals("READY", pass.get("status"));
+			assertEquals(first ? 10 : 20, ((Number) pass.get("remaining_count")).intValue());
+		}
+		assertEquals(List.of("COMPLETED", "COMPLETED", "COMPLETED"),
+				jdbcTemplate.queryForList("select status from bulk_pass where bulk_pass_seq between 911 and 913 order by bulk_pass_seq",
+						String.class));
+	}
+
+	private void addMember(String userGroupId, String userId, LocalDateTime now) {
+		jdbcTemplate.update("insert into user_group_mapping (user_group_id, user_id, create_at, modified_at) values (?, ?, ?, ?)",
+				userGroupId, userId, now, now);
+	}
+
+	private void addBulkPass(Long bulkPassSeq, Long packageSeq, int count, String userGroupId, String status, LocalDateTime now) {
+		jdbcTemplate.update("insert into bulk_pass (bulk_pass_seq, package_seq, user_group_id, status, count, started_at, ended_at)"
+				+ " values (?, ?, ?, ?, ?, ?, ?)", bulkPassSeq, packageSeq, userGroupId, status, count, now.plusDays(1), now.plusDays(30));
+	}
+}
@@ -0,0 +1,103 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.job.pass.AddPassesJobConfig;
+import com.ss.batch.job.pass.AddPassesTasklet;
+import com.ss.batch.job.pass.BulkPassMemberItemReader;
+
+// 내장 DB에서 addPassesJob을 발급 도중에 실패시키고 다시 실행해서
+// 이용권이 중복되거나 빠지지 않고, 재시작은 남은 사용자만 읽는지 확인
+@SpringBootTest(properties = { "batch.add-passes.streaming=true", "batch.add-passes.chunk-size=4" })
+@SpringBatchTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { AddPassesJobConfig.class, AddPassesTasklet.class, TestBatchConfig.class })
+public class AddPassesRestartTest {
+	private static final String GROUP = "RESTART";
+	private static final int USER_COUNT = 10;
+
+	@Autowired
+	private JobLauncherTestUtils jobLauncher;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	public void tearDown() {
+		jdbcTemplate.update("alter table pass drop constraint if exists ck_restart_test");
+		jdbcTemplate.update("delete from pass where bulk_pass_seq in (901, 902)");
+		jdbcTemplate.update("delete from bulk_pass where bulk_pass_seq in (901, 902)");
+		jdbcTemplate.update("delete from user_group_mapping where user_group_id = ?", GROUP);
+	}
+
+	@Test
+	public void test_restart() throws Exception {
+		// given 사용자 10명 그룹에 대량 이용권 2건 (발급 20건, 청크 4건)
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < USER_COUNT; i++) {
+			jdbcTemplate.update("insert into user_group_mapping (user_group_id, user_id, create_at, modified_at) values (?, ?, ?, ?)",
+					GROUP, String.format("R%02d", i), now, now);
+		}
+		addBulkPass(901L, now);
+		addBulkPass(902L, now);
+
+		// 두 번째 대량 이용권의 R05 사용자 저장이 실패하도록 제약 조건을 건다. (16번째 항목, 4번째 청크)
+		jdbcTemplate.update("alter table pass add constraint ck_restart_test check (not (bulk_pass_seq = 902 and user_id = 'R05'))");
+
+		// when
+		JobParameters jobParameters = jobLauncher.getUniqueJobParameters();
+		JobExecution failed = jobLauncher.launchJob(jobParameters);
+
+		// then 커밋된 3개 청크(12건)까지만 발급되고 마지막 키가 저장된다.
+		assertEquals(BatchStatus.FAILED, failed.getStatus());
+		assertEquals(12, passCount());
+		StepExecution failedStep = failed.getStepExecutions().stream()
+				.filter(s -> s.getStepName().equals("addPassFanOutStep")).findFirst().get();
+		ExecutionContext checkpoint = failedStep.getExecutionContext();
+		assertEquals(902L, checkpoint.getLong("addPassFanOutItemReader." + BulkPassMemberItemReader.LAST_BULK_PASS_SEQ));
+		assertEquals("R01", checkpoint.getString("addPassFanOutItemReader." + BulkPassMemberItemReader.LAST_USER_ID));
+
+		// when 원인을 없애고 같은 파라미터로 재시작
+		jdbcTemplate.update("alter table pass drop constraint ck_restart_test");
+		JobExecution restarted = jobLauncher.launchJob(jobParameters);
+
+		// then 남은 8건만 읽어서 발급하고, 모든 사용자가 대량 이용권마다 정확히 한 장씩 가진다.
+		assertEquals(BatchStatus.COMPLETED, restarted.getStatus());
+		StepExecution restartedStep = restarted.getStepExecutions().stream()
+				.filter(s -> s.getStepName().equals("addPassFanOutStep")).findFirst().get();
+		assertEquals(USER_COUNT * 2 - 12, restartedStep.getReadCount());
+		assertEquals(USER_COUNT * 2 - 12, restartedStep.getWriteCount());
+		assertEquals(USER_COUNT * 2, passCount());
+		assertEquals(USER_COUNT * 2, (int) jdbcTemplate.queryForObject(
+				"select count(*) from (select distinct bulk_pass_seq, user_id from pass where bulk_pass_seq in (901, 902)) t", Integer.class));
+		assertEquals(2, (int) jdbcTemplate.queryForObject(
+				"select count(*) from bulk_pass where bulk_pass_seq in (901, 902) and status = 'COMPLETED'", Integer.class));
+	}
+
+	private void addBulkPass(Long bulkPassSeq, LocalDateTime now) {
+		jdbcTemplate.update("insert into bulk_pass (bulk_pass_seq, package_seq, user_group_id, status, count, started_at, ended_at)"
+				+ " values (?, 1, ?, 'READY', 10, ?, ?)", bulkPassSeq, GROUP, now.plusDays(1), now.plusDays(30));
+	}
+
+	private int passCount() {
+		return jdbcTemplate.queryForObject("select count(*) from pass where bulk_pass_seq in (901, 902)", Integer.class);
+	}
+}
@@ -0,0 +1,227 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.scheduler.BatchJobScheduler;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// 스케줄러의 잠금, 겹친 실행 처리(SKIP / QUEUE), 놓친 실행 찾기 확인
+// cron은 테스트 중에 실행되지 않도록 1년에 한 번으로 두고 trigger()로 직접 실행한다.
+@SpringBootTest(properties = { "batch.schedule.enabled=true", "batch.schedule.lock-lease=2s",
+		"batch.schedule.lock-poll-interval=50ms",
+		"batch.schedule.jobs.scheduleSkipJob.cron=0 0 0 1 1 *",
+		"batch.schedule.jobs.scheduleQueueJob.cron=0 0 0 1 1 *",
+		"batch.schedule.jobs.scheduleQueueJob.overlap=QUEUE",
+		"batch.schedule.jobs.scheduleQueueJob.max-lock-wait=1s",
+		"batch.schedule.jobs.scheduleDailyJob.cron=0 0 3 * * *" })
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { BatchJobScheduler.class, BatchJobSchedulerTest.ScheduleTestJobConfig.class, TestBatchConfig.class })
+public class BatchJobSchedulerTest {
+	private static final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Autowired
+	private BatchJobScheduler batchJobScheduler;
+
+	@Autowired
+	private JobLockRepository jobLockRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ScheduleTestJobConfig jobConfig;
+
+	@BeforeAll
+	public static void addRegistry() {
+		Metrics.addRegistry(registry);
+	}
+
+	@AfterAll
+	public static void removeRegistry() {
+		Metrics.removeRegistry(registry);
+	}
+
+	@BeforeEach
+	public void clear() {
+		jdbcTemplate.update("update batch_job_lock set locked_by = null, locked_at = null, lock_until = null, last_fire_time = null"
+				+ " where job_name like 'schedule%'");
+		jobConfig.skipJobFireTimes.clear();
+		jobConfig.queueJobFireTimes.clear();
+		// 전역 레지스트리가 들고 있는 지표도 같이 지워야 테스트마다 0부터 센다.
+		Metrics.globalRegistry.clear();
+		registry.clear();
+	}
+
+	@Test
+	public void test_lock() {
+		// given 시작할 때 Job 마다 잠금 행이 만들어진다.
+		LocalDateTime now = LocalDateTime.now();
+		assertTrue(jobLockRepository.existsById("scheduleSkipJob"));
+
+		// when, then 잠금은 한 서버만 잡고, 만료된 뒤에는 다른 서버가 잡을 수 있다.
+		assertEquals(1, jobLockRepository.tryLock("scheduleSkipJob", "A", now, now, now.plusMinutes(1)));
+		assertEquals(0, jobLockRepository.tryLock("scheduleSkipJob", "B", now, now, now.plusMinutes(1)));
+		assertEquals(0, jobLockRepository.unlock("scheduleSkipJob", "B", now));
+		assertEquals(0, jobLockRepository.extendLock("scheduleSkipJob", "B", now, now.plusMinutes(5)));
+		assertEquals(1, jobLockRepository.tryLock("scheduleSkipJob", "B", now, now.plusMinutes(2), now.plusMinutes(3)));
+		assertEquals(1, jobLockRepository.unlock("scheduleSkipJob", "B", now));
+	}
+
+	@Test
+	public void test_skip_locked_by_other_server() {
+		// given 다른 서버가 실행 중
+		LocalDateTime now = LocalDateTime.now();
+		jobLockRepository.tryLock("scheduleSkipJob", "other", now, now, now.plusMinutes(1));
+
+		// when
+		batchJobScheduler.trigger("scheduleSkipJob", now.plusDays(1));
+
+		// then 실행하지 않고 건너뜀
+		assertTrue(jobConfig.skipJobFireTimes.isEmpty());
+		assertEquals(1.0, registry.get("batch.schedule.skipped").tags("job", "scheduleSkipJob", "reason", "locked").counter().count());
+	}
+
+	@Test
+	public void test_skip_completed_fire_time() {
+		// given 같은 실행 시각으로 이미 실행한 Job (다른 서버가 실행한 경우와 같다)
+		LocalDateTime fireTime = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
+		batchJobScheduler.trigger("scheduleSkipJob", fireTime);
+
+		// when
+		batchJobScheduler.trigger("scheduleSkipJob", fireTime);
+
+		// then 한 번만 실행되고 잠금은 풀려 있다.
+		assertEquals(1, jobConfig.skipJobFireTimes.size());
+		assertEquals(1.0, registry.get("batch.schedule.skipped").tags("job", "scheduleSkipJob", "reason", "completed").counter().count());
+		assertEquals(fireTime, jobLockRepository.findById("scheduleSkipJob").get().getLastFireTime());
+		assertNull(jobLockRepository.findById("scheduleSkipJob").get().getLockedBy());
+	}
+
+	@Test
+	public void test_queue_coalesce() throws Exception {
+		// given 첫 번째 실행이 끝나지 않은 상태
+		LocalDateTime first = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MILLIS);
+		jobConfig.release = new CountDownLatch(1);
+		jobConfig.started = new CountDownLatch(1);
+		CompletableFuture<Void> running = CompletableFuture.runAsync(() -> batchJobScheduler.trigger("scheduleQueueJob", first));
+		assertTrue(jobConfig.started.await(10, TimeUnit.SECONDS));
+
+		// when 실행 중에 두 번 더 실행 시각이 된다.
+		batchJobScheduler.trigger("scheduleQueueJob", first.plusMinutes(1));
+		batchJobScheduler.trigger("scheduleQueueJob", first.plusMinutes(2));
+		jobConfig.release.countDown();
+		running.get(10, TimeUnit.SECONDS);
+
+		// then 밀린 실행은 가장 최근 실행 시각으로 한 번만 이어서 실행
+		assertEquals(List.of(first, first.plusMinutes(2)), jobConfig.queueJobFireTimes);
+		assertEquals(2, registry.get("batch.schedule.run").tags("job", "scheduleQueueJob", "status", "COMPLETED").timer().count());
+	}
+
+	@Test
+	public void test_queue_wait_other_server() throws Exception {
+		// given 다른 서버가 잡은 잠금이 0.3초 뒤에 만료
+		LocalDateTime now = LocalDateTime.now();
+		jobLockRepository.tryLock("scheduleQueueJob", "other", now, now, now.plus(300, ChronoUnit.MILLIS));
+
+		// when
+		LocalDateTime fireTime = now.plusDays(4).truncatedTo(ChronoUnit.MILLIS);
+		batchJobScheduler.trigger("scheduleQueueJob", fireTime);
+
+		// then 잠금이 풀릴 때까지 기다렸다가 실행
+		assertEquals(List.of(fireTime), jobConfig.queueJobFireTimes);
+		assertEquals(1, registry.get("batch.schedule.lock.wait").tags("job", "scheduleQueueJob", "outcome", "acquired").timer().count());
+	}
+
+	@Test
+	public void test_missed_fire_time() {
+		// given 마지막 실행이 3일 전 (매일 03시 실행)
+		LocalDateTime now = LocalDateTime.now();
+		jdbcTemplate.update("update batch_job_lock set last_fire_time = ? where job_name = 'scheduleDailyJob'",
+				Timestamp.valueOf(now.minusDays(3)));
+
+		// when
+		LocalDateTime missed = batchJobScheduler.missedFireTime("scheduleDailyJob", now);
+
+		// then 놓친 실행 중 가장 최근 실행 시각 하나 (놓친 횟수는 3번)
+		assertNotNull(missed);
+		assertEquals(3, missed.getHour());
+		assertFalse(missed.isAfter(now));
+		assertTrue(CronExpression.parse("0 0 3 * * *").next(missed).isAfter(now));
+		assertEquals(3.0, registry.get("batch.schedule.missed").tags("job", "scheduleDailyJob").counter().count());
+
+		// 놓친 실행이 없으면 null
+		jdbcTemplate.update("update batch_job_lock set last_fire_time = ? where job_name = 'scheduleDailyJob'", Timestamp.valueOf(missed));
+		assertNull(batchJobScheduler.missedFireTime("scheduleDailyJob", now));
+	}
+
+	@Configuration
+	public static class ScheduleTestJobConfig {
+		private final List<LocalDateTime> skipJobFireTimes = new CopyOnWriteArrayList<LocalDateTime>();
+		private final List<LocalDateTime> queueJobFireTimes = new CopyOnWriteArrayList<LocalDateTime>();
+		private volatile CountDownLatch started = new CountDownLatch(0);
+		private volatile CountDownLatch release = new CountDownLatch(0);
+
+		@Bean
+		public Job scheduleSkipJob(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory) {
+			return jobBuilderFactory.get("scheduleSkipJob").start(stepBuilderFactory.get("scheduleSkipStep").tasklet((contribution, chunkContext) -> {
+				skipJobFireTimes.add(fireTime(chunkContext.getStepContext().getJobParameters().get(BatchJobScheduler.SCHEDULED_FIRE_TIME)));
+				return RepeatStatus.FINISHED;
+			}).build()).build();
+		}
+
+		@Bean
+		public Job scheduleQueueJob(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory) {
+			return jobBuilderFactory.get("scheduleQueueJob").start(stepBuilderFactory.get("scheduleQueueStep").tasklet((contribution, chunkContext) -> {
+				queueJobFireTimes.add(fireTime(chunkContext.getStepContext().getJobParameters().get(BatchJobScheduler.SCHEDULED_FIRE_TIME)));
+				started.countDown();
+				release.await(10, TimeUnit.SECONDS);
+				return RepeatStatus.FINISHED;
+			}).build()).build();
+		}
+
+		@Bean
+		public Job scheduleDailyJob(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory) {
+			return jobBuilderFactory.get("scheduleDailyJob")
+					.start(stepBuilderFactory.get("scheduleDailyStep").tasklet((contribution, chunkContext) -> RepeatStatus.FINISHED).build())
+					.build();
+		}
+
+		private static LocalDateTime fireTime(Object value) {
+			return new Timestamp(((Date) value).getTime()).toLocalDateTime();
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.job.metadata.BatchMetadataPruneJobConfig;
+
+// 오래된 COMPLETED 인스턴스의 메타데이터만 지우고, 최근 실행과 재시작에 필요한 FAILED 인스턴스는 남기는지 확인
+@SpringBootTest(properties = { "batch.metadata-prune.retention-days=30", "batch.metadata-prune.statuses=COMPLETED",
+		"batch.metadata-prune.job-names=pruneTestJob,pruneRestartTestJob", "batch.metadata-prune.batch-size=2" })
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { BatchMetadataPruneJobConfig.class, BatchMetadataPruneJobTest.PruneTestJobConfig.class, TestBatchConfig.class })
+public class BatchMetadataPruneJobTest {
+	@Autowired
+	private JobLauncher jobLauncher;
+
+	@Autowired
+	@Qualifier("batchMetadataPruneJob")
+	private Job batchMetadataPruneJob;
+
+	@Autowired
+	@Qualifier("pruneTestJob")
+	private Job pruneTestJob;
+
+	@Autowired
+	@Qualifier("pruneRestartTestJob")
+	private Job pruneRestartTestJob;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void test_prune() throws Exception {
+		// given 60일 전에 끝난 COMPLETED 4건, FAILED 1건, 최근 COMPLETED 1건
+		LocalDateTime old = LocalDateTime.now().minusDays(60);
+		long runId = System.currentTimeMillis();
+		for (int i = 0; i < 6; i++) {
+			JobExecution jobExecution = jobLauncher.run(pruneTestJob, new JobParametersBuilder().addLong("run", runId + i)
+					.addString("fail", String.valueOf(i == 4)).toJobParameters());
+			assertEquals(i == 4 ? BatchStatus.FAILED : BatchStatus.COMPLETED, jobExecution.getStatus());
+			if (i < 5) {
+				jdbcTemplate.update("update BATCH_JOB_EXECUTION set END_TIME = ? where JOB_EXECUTION_ID = ?", Timestamp.valueOf(old),
+						jobExecution.getId());
+			}
+		}
+
+		// when
+		JobExecution pruneExecution = jobLauncher.run(batchMetadataPruneJob, new JobParametersBuilder()
+				.addLong("run", runId).toJobParameters());
+
+		// then 2건씩 두 번 지우고 끝남
+		assertEquals(BatchStatus.COMPLETED, pruneExecution.getStatus());
+		StepExecution pruneStep = pruneExecution.getStepExecutions().iterator().next();
+		assertEquals(4, pruneStep.getWriteCount());
+		assertEquals(3, pruneStep.getCommitCount());
+
+		// FAILED, 최근 COMPLETED 만 남고, 지운 실행의 step, context, 인스턴스도 없음
+		List<String> remaining = jdbcTemplate.queryForList("select e.STATUS from BATCH_JOB_EXECUTION e join BATCH_JOB_INSTANCE i"
+				+ " on i.JOB_INSTANCE_ID = e.JOB_INSTANCE_ID where i.JOB_NAME = 'pruneTestJob' order by e.JOB_EXECUTION_ID", String.class);
+		assertEquals(List.of("FAILED", "COMPLETED"), remaining);
+		assertEquals(2, (int) jdbcTemplate.queryForObject("select count(*) from BATCH_JOB_INSTANCE where JOB_NAME = 'pruneTestJob'", Integer.class));
+		assertEquals(2, (int) jdbcTemplate.queryForObject("select count(*) from BATCH_STEP_EXECUTION s join BATCH_JOB_EXECUTION e"
+				+ " on e.JOB_EXECUTION_ID = s.JOB_EXECUTION_ID join BATCH_JOB_INSTANCE i on i.JOB_INSTANCE_ID = e.JOB_INSTANCE_ID"
+				+ " where i.JOB_NAME = 'pruneTestJob'", Integer.class));
+		assertEquals(0, (int) jdbcTemplate.queryForObject("select count(*) from BATCH_JOB_EXECUTION_PARAMS p"
+				+ " where not exists (select 1 from BATCH_JOB_EXECUTION e where e.JOB_EXECUTION_ID = p.JOB_EXECUTION_ID)", Integer.class));
+	}
+
+	@Test
+	public void test_prune_restarted() throws Exception {
+		// given FAILED 후 재시작해서 COMPLETED 된 인스턴스 두 개 (하나는 두 실행 모두 60일 전, 하나는 재시작이 최근)
+		LocalDateTime old = LocalDateTime.now().minusDays(60);
+		long runId = System.currentTimeMillis();
+		JobExecution oldFailed = launchRestartTest(runId, true);
+		JobExecution oldCompleted = launchRestartTest(runId, false);
+		JobExecution failed = launchRestartTest(runId + 1, true);
+		JobExecution completed = launchRestartTest(runId + 1, false);
+		assertEquals(oldFailed.getJobId(), oldCompleted.getJobId());
+		assertEquals(BatchStatus.COMPLETED, oldCompleted.getStatus());
+		for (JobExecution jobExecution : List.of(oldFailed, oldCompleted, failed)) {
+			jdbcTemplate.update("update BATCH_JOB_EXECUTION set END_TIME = ? where JOB_EXECUTION_ID = ?", Timestamp.valueOf(old),
+					jobExecution.getId());
+		}
+
+		// when
+		JobExecution pruneExecution = jobLauncher.run(batchMetadataPruneJob, new JobParametersBuilder()
+				.addLong("run", runId).addString("test", "restarted").toJobParameters());
+
+		// then 오래된 인스턴스는 FAILED 실행까지 모두 지워지고, 최근에 재시작한 인스턴스는 두 실행 모두 남는다.
+		assertEquals(BatchStatus.COMPLETED, pruneExecution.getStatus());
+		assertEquals(2, pruneExecution.getStepExecutions().iterator().next().getWriteCount());
+		assertEquals(0, (int) jdbcTemplate.queryForObject("select count(*) from BATCH_JOB_INSTANCE where JOB_INSTANCE_ID = ?",
+				Integer.class, oldFailed.getJobId()));
+		assertEquals(List.of(failed.getId(), completed.getId()), jdbcTemplate.queryForList("select JOB_EXECUTION_ID from BATCH_JOB_EXECUTION"
+				+ " where JOB_INSTANCE_ID = ? order by JOB_EXECUTION_ID", Long.class, failed.getJobId()));
+	}
+
+	// fail 은 식별 파라미터가 아니라서 같은 run 으로 다시 실행하면 같은 인스턴스를 재시작한다.
+	private JobExecution launchRestartTest(long run, boolean fail) throws Exception {
+		return jobLauncher.run(pruneRestartTestJob, new JobParametersBuilder().addLong("run", run)
+				.addString("fail", String.valueOf(fail), false).toJobParameters());
+	}
+
+	@Configuration
+	public static class PruneTestJobConfig {
+		@Bean
+		public Job pruneTestJob(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory) {
+			return failingJob("pruneTestJob", jobBuilderFactory, stepBuilderFactory);
+		}
+
+		@Bean
+		public Job pruneRestartTestJob(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory) {
+			return failingJob("pruneRestartTestJob", jobBuilderFactory, stepBuilderFactory);
+		}
+
+		// JobParameter fail 이 true 이면 실패하는 Job
+		private static Job failingJob(String name, JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory) {
+			return jobBuilderFactory.get(name).start(stepBuilderFactory.get(name + "Step").tasklet((contribution, chunkContext) -> {
+				if ("true".equals(chunkContext.getStepContext().getJobParameters().get("fail"))) {
+					throw new IllegalStateException("실패 테스트");
+				}
+				return RepeatStatus.FINISHED;
+			}).build()).build();
+		}
+	}
+}
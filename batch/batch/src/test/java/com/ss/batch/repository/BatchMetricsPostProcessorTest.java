@@ -0,0 +1,38 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.ss.batch.metrics.BatchMetricsPostProcessor;
+import com.ss.batch.metrics.JdbcMetricsDataSource;
+
+// 애플리케이션 DataSource만 JdbcMetricsDataSource로 감싸는지 확인
+public class BatchMetricsPostProcessorTest {
+
+	@Test
+	public void test_dataSource() {
+		// given 스프링 부트 기본 dataSource, @Primary DataSource, 다른 용도의 DataSource
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("dataSource", new RootBeanDefinition(DriverManagerDataSource.class));
+		RootBeanDefinition primary = new RootBeanDefinition(DriverManagerDataSource.class);
+		primary.setPrimary(true);
+		beanFactory.registerBeanDefinition("mainDataSource", primary);
+		beanFactory.registerBeanDefinition("reportDataSource", new RootBeanDefinition(DriverManagerDataSource.class));
+
+		BatchMetricsPostProcessor postProcessor = new BatchMetricsPostProcessor();
+		postProcessor.setBeanFactory(beanFactory);
+		DataSource other = new DriverManagerDataSource();
+
+		// when, then
+		assertTrue(postProcessor.postProcessAfterInitialization(new DriverManagerDataSource(), "dataSource") instanceof JdbcMetricsDataSource);
+		assertTrue(postProcessor.postProcessAfterInitialization(new DriverManagerDataSource(), "mainDataSource") instanceof JdbcMetricsDataSource);
+		assertSame(other, postProcessor.postProcessAfterInitialization(other, "reportDataSource"));
+	}
+}
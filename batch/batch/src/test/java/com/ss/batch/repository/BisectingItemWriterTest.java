@@ -0,0 +1,224 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.listener.ChunkListenerSupport;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.job.pass.BisectingItemWriter;
+
+// 청크 쓰기가 실패하면 절반씩 나눠서 실패한 항목만 dead letter로 남기고, 나머지는 커밋되는지 확인
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = TestBatchConfig.class)
+public class BisectingItemWriterTest {
+	@Autowired
+	private JobBuilderFactory jobBuilderFactory;
+
+	@Autowired
+	private StepBuilderFactory stepBuilderFactory;
+
+	@Autowired
+	private JobLauncher jobLauncher;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.execute("create table if not exists bisecting_test (id BIGINT NOT NULL, PRIMARY KEY (id))");
+		jdbcTemplate.update("delete from bisecting_test");
+		jdbcTemplate.update("delete from batch_dead_letter where job_name like 'bisectingTestJob%'");
+	}
+
+	@Test
+	public void test_bisect() throws Exception {
+		// given 이미 있는 id(7, 13)는 INSERT가 중복 키로 실패
+		jdbcTemplate.update("insert into bisecting_test (id) values (7), (13)");
+		AtomicInteger writes = new AtomicInteger();
+
+		// when 20건을 10건씩 (청크가 커밋된 뒤 DB에 저장된 건수를 기록)
+		List<String> committedCounts = new ArrayList<String>();
+		ChunkListener listener = new ChunkListenerSupport() {
+			@Override
+			public void afterChunk(ChunkContext context) {
+				Long stepExecutionId = context.getStepContext().getStepExecution().getId();
+				committedCounts.add(jdbcTemplate.queryForObject(
+						"select write_count, write_skip_count from batch_step_execution where step_execution_id = ?",
+						(rs, rowNum) -> rs.getInt(1) + "/" + rs.getInt(2), stepExecutionId));
+			}
+		};
+		JobExecution jobExecution = run("bisectingTestJob", 10, 100, insertWriter(writes), listener, false);
+
+		// then 잘못된 항목만 건너뛰고 나머지 18건은 커밋
+		StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		assertEquals(18, stepExecution.getWriteCount());
+		assertEquals(2, stepExecution.getWriteSkipCount());
+		assertEquals(20, (int) jdbcTemplate.queryForObject("select count(*) from bisecting_test", Integer.class));
+		assertEquals(List.of("13", "7"), deadLetterKeys("bisectingTestJob"));
+		// 청크가 커밋될 때 BATCH_STEP_EXECUTION 에도 건너뛴 수가 같이 저장된다. (청크 1: 9 / 1, 청크 2: 18 / 2, 마지막은 읽을 항목이 없는 청크)
+		assertEquals(List.of("9/1", "18/2", "18/2"), committedCounts);
+		// 청크마다 잘못된 항목 1건 → 전체 1번 + 나눌 때마다 2번씩 (항목 하나씩 다시 쓰면 청크마다 11번)
+		assertTrue(writes.get() <= 2 * (1 + 2 * 4), "writes=" + writes.get());
+	}
+
+	@Test
+	public void test_bisect_skipLimit() throws Exception {
+		// given
+		jdbcTemplate.update("insert into bisecting_test (id) values (7), (13)");
+
+		// when 건너뛸 수 있는 항목이 1건
+		JobExecution jobExecution = run("bisectingTestJobLimit", 10, 1, insertWriter(new AtomicInteger()));
+
+		// then 두 번째 청크는 전체 롤백 (dead letter도 남지 않는다)
+		StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+		assertEquals(BatchStatus.FAILED, jobExecution.getStatus());
+		assertEquals(9, stepExecution.getWriteCount());
+		assertEquals(1, stepExecution.getWriteSkipCount());
+		assertEquals(11, (int) jdbcTemplate.queryForObject("select count(*) from bisecting_test", Integer.class));
+		assertEquals(List.of("7"), deadLetterKeys("bisectingTestJobLimit"));
+	}
+
+	@Test
+	public void test_retry() throws Exception {
+		// given 첫 번째 쓰기만 잠금 대기 시간 초과
+		AtomicInteger writes = new AtomicInteger();
+		ItemWriter<Long> insertWriter = insertWriter(writes);
+		ItemWriter<Long> writer = items -> {
+			if (writes.get() == 0) {
+				writes.incrementAndGet();
+				throw new CannotAcquireLockException("lock wait timeout");
+			}
+			insertWriter.write(items);
+		};
+
+		// when
+		JobExecution jobExecution = run("bisectingTestJobRetry", 10, 100, writer);
+
+		// then 같은 청크를 다시 써서 건너뛴 항목 없이 완료
+		StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		assertEquals(20, stepExecution.getWriteCount());
+		assertEquals(0, stepExecution.getWriteSkipCount());
+		assertEquals(3, writes.get());
+		assertEquals(20, (int) jdbcTemplate.queryForObject("select count(*) from bisecting_test", Integer.class));
+	}
+
+	@Test
+	public void test_deadlock() throws Exception {
+		// given 첫 번째 쓰기에서 데드락 (InnoDB처럼 트랜잭션 전체를 롤백해서 savepoint도 없어진 상태)
+		AtomicInteger writes = new AtomicInteger();
+		ItemWriter<Long> writer = deadlockOnceWriter(writes);
+
+		// when step에 청크 단위 retry가 없으면
+		JobExecution jobExecution = run("bisectingTestJobDeadlock", 10, 100, writer);
+
+		// then savepoint 오류가 아닌 데드락 예외로 실패 (savepoint 오류는 suppressed)
+		assertEquals(BatchStatus.FAILED, jobExecution.getStatus());
+		Throwable failure = jobExecution.getAllFailureExceptions().get(0);
+		assertTrue(failure instanceof DeadlockLoserDataAccessException, failure.toString());
+		assertEquals(1, failure.getSuppressed().length);
+		assertEquals(1, writes.get());
+	}
+
+	@Test
+	public void test_deadlock_retryChunk() throws Exception {
+		// given
+		AtomicInteger writes = new AtomicInteger();
+		ItemWriter<Long> writer = deadlockOnceWriter(writes);
+
+		// when 데드락은 step의 retry로 청크 전체를 새 트랜잭션에서 다시 쓴다.
+		JobExecution jobExecution = run("bisectingTestJobDeadlockRetry", 10, 100, writer, new ChunkListenerSupport(), true);
+
+		// then 나누지 않고 청크를 다시 써서 모두 커밋
+		StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		assertEquals(20, stepExecution.getWriteCount());
+		assertEquals(0, stepExecution.getWriteSkipCount());
+		assertEquals(20, (int) jdbcTemplate.queryForObject("select count(*) from bisecting_test", Integer.class));
+	}
+
+	private ItemWriter<Long> deadlockOnceWriter(AtomicInteger writes) {
+		ItemWriter<Long> insertWriter = insertWriter(writes);
+		return items -> {
+			if (writes.get() == 0) {
+				writes.incrementAndGet();
+				jdbcTemplate.update("insert into bisecting_test (id) values (100)");
+				DataSourceUtils.getConnection(jdbcTemplate.getDataSource()).rollback();
+				throw new DeadlockLoserDataAccessException("Deadlock found when trying to get lock", null);
+			}
+			insertWriter.write(items);
+		};
+	}
+
+	private ItemWriter<Long> insertWriter(AtomicInteger writes) {
+		return items -> {
+			writes.incrementAndGet();
+			List<Object[]> batchArgs = new ArrayList<Object[]>();
+			for (Long id : items) {
+				batchArgs.add(new Object[] { id });
+			}
+			jdbcTemplate.batchUpdate("insert into bisecting_test (id) values (?)", batchArgs);
+		};
+	}
+
+	private JobExecution run(String jobName, int chunkSize, int skipLimit, ItemWriter<Long> delegate) throws Exception {
+		return run(jobName, chunkSize, skipLimit, delegate, new ChunkListenerSupport(), false);
+	}
+
+	// retryDeadlock - 이 writer를 쓰는 Job처럼 데드락이면 청크 전체를 다시 쓰도록 설정
+	private JobExecution run(String jobName, int chunkSize, int skipLimit, ItemWriter<Long> delegate, ChunkListener listener,
+			boolean retryDeadlock) throws Exception {
+		List<Long> items = LongStream.rangeClosed(1, 20).boxed().collect(Collectors.toList());
+		SimpleStepBuilder<Long, Long> builder = stepBuilderFactory.get(jobName + "Step").<Long, Long>chunk(chunkSize)
+				.reader(new ListItemReader<Long>(items))
+				.writer(new BisectingItemWriter<Long>(delegate, id -> id, namedParameterJdbcTemplate, skipLimit, 3));
+		if (retryDeadlock) {
+			builder = builder.faultTolerant().retry(DeadlockLoserDataAccessException.class).retryLimit(3);
+		}
+		Job job = jobBuilderFactory.get(jobName).start(builder.listener(listener).build()).build();
+		return jobLauncher.run(job, new JobParametersBuilder().addLong("run.id", System.nanoTime()).toJobParameters());
+	}
+
+	private List<String> deadLetterKeys(String jobName) {
+		return jdbcTemplate.queryForList("select item_key from batch_dead_letter where job_name = ? order by item_key", String.class,
+				jobName);
+	}
+}
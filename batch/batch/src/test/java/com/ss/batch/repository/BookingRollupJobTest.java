@@ -0,0 +1,109 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.job.rollup.BookingRollupJobConfig;
+
+// 수정된 예약만큼만 집계가 바뀌고, 같은 예약을 다시 읽어도(overlap) 두 번 더해지지 않는지 확인
+@SpringBootTest(properties = "batch.booking-rollup.chunk-size=2")
+@SpringBatchTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { BookingRollupJobConfig.class, TestBatchConfig.class })
+public class BookingRollupJobTest {
+	@Autowired
+	private JobLauncherTestUtils jobLauncherTestUtils;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		for (String table : new String[] { "booking_rollup_user_daily", "booking_rollup_package_daily", "booking_rollup_slot_daily",
+				"booking_rollup_ledger" }) {
+			jdbcTemplate.update("delete from " + table);
+		}
+		jdbcTemplate.update("delete from job_watermark where job_name = 'bookingRollupJob'");
+		jdbcTemplate.update("delete from booking where booking_seq between 6001 and 6010");
+		jdbcTemplate.update("delete from pass where pass_seq between 6001 and 6002");
+	}
+
+	@Test
+	public void test_bookingRollupJob() throws Exception {
+		// given 2030-01-01 예약 4건 (이용권 6001 → 상품 11, 6002 → 상품 12)
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+		insertPass(6001, 11);
+		insertPass(6002, 12);
+		insertBooking(6001, 6001L, "R1", "COMPLETED", true, true, day.plusHours(10), now.minusMinutes(1));
+		insertBooking(6002, 6002L, "R1", "COMPLETED", false, true, day.plusHours(10).plusMinutes(30), now.minusMinutes(1));
+		insertBooking(6003, 6001L, "R2", "CANCELLED", false, false, day.plusHours(11), now.minusMinutes(1));
+		insertBooking(6004, null, "R2", "READY", false, false, day.plusHours(11), now.minusMinutes(1));
+
+		// when
+		assertEquals(BatchStatus.COMPLETED, jobLauncherTestUtils.launchJob(jobLauncherTestUtils.getUniqueJobParameters()).getStatus());
+
+		// then (예약, 취소, 출석, 이용권 사용)
+		assertEquals(List.of(2, 0, 1, 2), counts("booking_rollup_user_daily", "user_id", "2030-01-01", "R1"));
+		assertEquals(List.of(1, 1, 0, 0), counts("booking_rollup_user_daily", "user_id", "2030-01-01", "R2"));
+		assertEquals(List.of(1, 1, 1, 1), counts("booking_rollup_package_daily", "package_seq", "2030-01-01", 11));
+		assertEquals(List.of(1, 0, 0, 1), counts("booking_rollup_package_daily", "package_seq", "2030-01-01", 12));
+		assertEquals(List.of(1, 0, 0, 0), counts("booking_rollup_package_daily", "package_seq", "2030-01-01", 0));
+		assertEquals(List.of(2, 0, 1, 2), counts("booking_rollup_slot_daily", "time_slot", "2030-01-01", 10));
+		assertEquals(List.of(1, 1, 0, 0), counts("booking_rollup_slot_daily", "time_slot", "2030-01-01", 11));
+
+		// given 출석 처리, 다른 날로 예약 변경
+		jdbcTemplate.update("update booking set attended = true, modified_at = ? where booking_seq = 6002", LocalDateTime.now());
+		jdbcTemplate.update("update booking set started_at = ?, modified_at = ? where booking_seq = 6004", day.plusDays(1).plusHours(9),
+				LocalDateTime.now());
+
+		// when 두 번 실행 (두 번 모두 이전 구간과 겹쳐서 앞의 예약도 다시 읽는다)
+		assertEquals(BatchStatus.COMPLETED, jobLauncherTestUtils.launchJob(jobLauncherTestUtils.getUniqueJobParameters()).getStatus());
+		assertEquals(BatchStatus.COMPLETED, jobLauncherTestUtils.launchJob(jobLauncherTestUtils.getUniqueJobParameters()).getStatus());
+
+		// then 바뀐 만큼만 반영
+		assertEquals(List.of(2, 0, 2, 2), counts("booking_rollup_user_daily", "user_id", "2030-01-01", "R1"));
+		assertEquals(List.of(0, 1, 0, 0), counts("booking_rollup_user_daily", "user_id", "2030-01-01", "R2"));
+		assertEquals(List.of(1, 0, 0, 0), counts("booking_rollup_user_daily", "user_id", "2030-01-02", "R2"));
+		assertEquals(List.of(1, 0, 1, 1), counts("booking_rollup_package_daily", "package_seq", "2030-01-01", 12));
+		assertEquals(List.of(0, 0, 0, 0), counts("booking_rollup_package_daily", "package_seq", "2030-01-01", 0));
+		assertEquals(List.of(1, 0, 0, 0), counts("booking_rollup_package_daily", "package_seq", "2030-01-02", 0));
+		assertEquals(List.of(2, 0, 2, 2), counts("booking_rollup_slot_daily", "time_slot", "2030-01-01", 10));
+		assertEquals(List.of(0, 1, 0, 0), counts("booking_rollup_slot_daily", "time_slot", "2030-01-01", 11));
+		assertEquals(List.of(1, 0, 0, 0), counts("booking_rollup_slot_daily", "time_slot", "2030-01-02", 9));
+	}
+
+	private List<Integer> counts(String table, String keyColumn, String statDate, Object key) {
+		return jdbcTemplate.queryForObject("select booked_count, cancelled_count, attended_count, used_pass_count from " + table
+				+ " where stat_date = ? and " + keyColumn + " = ?",
+				(rs, rowNum) -> List.of(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4)), statDate, key);
+	}
+
+	private void insertPass(long passSeq, long packageSeq) {
+		jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count) values (?, ?, 'R1', 'PROGRESSED', 10)",
+				passSeq, packageSeq);
+	}
+
+	private void insertBooking(long bookingSeq, Long passSeq, String userId, String status, boolean attended, boolean usedPass,
+			LocalDateTime startedAt, LocalDateTime modifiedAt) {
+		jdbcTemplate.update("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+				+ " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", bookingSeq, passSeq, userId, status, usedPass, attended, startedAt,
+				startedAt.plusHours(1), modifiedAt, modifiedAt);
+	}
+}
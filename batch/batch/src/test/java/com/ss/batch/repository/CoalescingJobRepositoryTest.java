@@ -0,0 +1,61 @@
+package com.ss.batch.repository;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import com.ss.batch.config.CoalescingJobRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class CoalescingJobRepositoryTest {
+	@Mock
+	private JobRepository jobRepository;
+
+	@Test
+	public void test_coalesce() {
+		// given 저장 간격 1시간
+		CoalescingJobRepository coalescingJobRepository = new CoalescingJobRepository(jobRepository, 3_600_000L);
+		StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution("sendNotificationStep", 1L);
+		stepExecution.setStatus(BatchStatus.STARTED);
+
+		// when step 시작 후 청크 10번 커밋, 종료
+		coalescingJobRepository.update(stepExecution);
+		for (int i = 0; i < 10; ++i) {
+			coalescingJobRepository.updateExecutionContext(stepExecution);
+			coalescingJobRepository.update(stepExecution);
+		}
+		stepExecution.setStatus(BatchStatus.COMPLETED);
+		coalescingJobRepository.updateExecutionContext(stepExecution);
+		coalescingJobRepository.update(stepExecution);
+
+		// then 시작, 종료 상태만 저장
+		verify(jobRepository, times(2)).update(stepExecution);
+		verify(jobRepository, times(1)).updateExecutionContext(stepExecution);
+	}
+
+	@Test
+	public void test_flush_interval() {
+		// given 저장 간격 0 (청크마다 저장)
+		CoalescingJobRepository coalescingJobRepository = new CoalescingJobRepository(jobRepository, 0L);
+		StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution("sendNotificationStep", 1L);
+		stepExecution.setStatus(BatchStatus.STARTED);
+
+		// when
+		for (int i = 0; i < 3; ++i) {
+			coalescingJobRepository.updateExecutionContext(stepExecution);
+			coalescingJobRepository.update(stepExecution);
+		}
+
+		// then 기존 JobRepository와 같이 모두 저장
+		verify(jobRepository, times(3)).update(stepExecution);
+		verify(jobRepository, times(3)).updateExecutionContext(stepExecution);
+	}
+}
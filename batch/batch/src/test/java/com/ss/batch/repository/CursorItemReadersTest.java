@@ -0,0 +1,92 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.entity.PassEntity;
+import com.ss.batch.entity.PassStatus;
+import com.ss.batch.job.pass.CursorItemReaders;
+
+// STATELESS reader가 JPA reader와 같은 순서로 읽고, 저장된 읽은 건수부터 재시작하는지 확인
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = TestBatchConfig.class)
+public class CursorItemReadersTest {
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("delete from pass where pass_seq between 4001 and 4025");
+	}
+
+	@Test
+	public void test_read_restart() throws Exception {
+		// given 만료 대상 25건
+		LocalDateTime now = LocalDateTime.now();
+		for (long passSeq = 4001; passSeq <= 4025; passSeq++) {
+			jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+					+ " values (?, 1, ?, 'PROGRESSED', 10, ?, ?)", passSeq, "C" + passSeq, now.minusDays(30), now.minusDays(1));
+		}
+
+		// when STATELESS 로 10건 읽고 중단 → 재시작해서 나머지 읽기
+		ExecutionContext executionContext = new ExecutionContext();
+		AbstractItemCountingItemStreamItemReader<PassEntity> reader = reader(CursorItemReaders.Mode.STATELESS);
+		reader.open(executionContext);
+		List<Long> passSeqs = new ArrayList<Long>();
+		for (int i = 0; i < 10; i++) {
+			passSeqs.add(reader.read().getPass_seq());
+		}
+		reader.update(executionContext);
+		reader.close();
+
+		AbstractItemCountingItemStreamItemReader<PassEntity> restarted = reader(CursorItemReaders.Mode.STATELESS);
+		restarted.open(executionContext);
+		for (PassEntity passEntity = restarted.read(); passEntity != null; passEntity = restarted.read()) {
+			passSeqs.add(passEntity.getPass_seq());
+		}
+		restarted.close();
+
+		// then JPA reader 결과와 같음
+		AbstractItemCountingItemStreamItemReader<PassEntity> jpaReader = reader(CursorItemReaders.Mode.JPA);
+		jpaReader.open(new ExecutionContext());
+		List<Long> expected = new ArrayList<Long>();
+		for (PassEntity passEntity = jpaReader.read(); passEntity != null; passEntity = jpaReader.read()) {
+			expected.add(passEntity.getPass_seq());
+		}
+		assertNull(jpaReader.read());
+		jpaReader.close();
+
+		assertEquals(25, expected.size());
+		assertEquals(expected, passSeqs);
+	}
+
+	private AbstractItemCountingItemStreamItemReader<PassEntity> reader(CursorItemReaders.Mode mode) {
+		return CursorItemReaders.create(mode, "cursorTestReader", entityManagerFactory,
+				"select p from PassEntity p where p.status = :status and p.pass_seq between 4001 and 4025 order by p.pass_seq",
+				Map.of("status", PassStatus.PROGRESSED), 10);
+	}
+}
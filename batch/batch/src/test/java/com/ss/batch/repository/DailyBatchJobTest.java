@@ -0,0 +1,133 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.adapter.message.StubNotificationSender;
+import com.ss.batch.adapter.message.TokenBucketRateLimiter;
+import com.ss.batch.job.daily.DailyBatchJobConfig;
+import com.ss.batch.job.pass.AddPassesJobConfig;
+import com.ss.batch.job.pass.AddPassesTasklet;
+import com.ss.batch.job.pass.ExpiredPassJobConfig;
+import com.ss.batch.job.pass.PassDeductionJobConfig;
+import com.ss.batch.job.pass.SendNotificationClassJobConfig;
+import com.ss.batch.job.rollup.BookingRollupJobConfig;
+
+// dailyBatchJob이 흐름별 Job을 모두 실행하고, 앞 단계가 실패한 흐름은 뒤 단계를 건너뛰는지 확인
+@SpringBootTest(properties = "batch.notification.stub.latency-ms=0")
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { DailyBatchJobConfig.class, ExpiredPassJobConfig.class, PassDeductionJobConfig.class,
+		AddPassesJobConfig.class, AddPassesTasklet.class, SendNotificationClassJobConfig.class,
+		StubNotificationSender.class, TokenBucketRateLimiter.class, BookingRollupJobConfig.class, TestBatchConfig.class })
+public class DailyBatchJobTest {
+	@Autowired
+	private JobLauncher jobLauncher;
+
+	@Autowired
+	@Qualifier("dailyBatchJob")
+	private Job dailyBatchJob;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("delete from pass where pass_seq between 7001 and 7003 or bulk_pass_seq = 971");
+		jdbcTemplate.update("delete from bulk_pass where bulk_pass_seq = 971");
+		jdbcTemplate.update("delete from user_group_mapping where user_group_id = 'DAILY'");
+		jdbcTemplate.update("delete from booking where booking_seq = 7001");
+		for (String table : new String[] { "booking_rollup_user_daily", "booking_rollup_package_daily", "booking_rollup_slot_daily",
+				"booking_rollup_ledger" }) {
+			jdbcTemplate.update("delete from " + table);
+		}
+		jdbcTemplate.update("delete from job_watermark where job_name like 'expiredPassJob%' or job_name = 'bookingRollupJob'");
+	}
+
+	@Test
+	public void test_dailyBatchJob() throws Exception {
+		// given 만료 대상 2건, 잔여 1회 이용권의 사용 예약 1건, 사용자 2명 그룹의 대량 이용권 1건
+		LocalDateTime now = LocalDateTime.now();
+		insertData(now);
+
+		// when
+		JobExecution jobExecution = jobLauncher.run(dailyBatchJob, new JobParametersBuilder()
+				.addLong("run.id", System.nanoTime()).toJobParameters());
+
+		// then 모든 흐름의 Job이 실행되고, 알림은 발급이 끝난 뒤 실행
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		Map<String, StepExecution> steps = jobExecution.getStepExecutions().stream()
+				.collect(Collectors.toMap(StepExecution::getStepName, s -> s));
+		for (String stepName : new String[] { "expiredPassJobStep", "passDeductionJobStep", "addPassesJobStep",
+				"sendNotificationClassJobStep", "bookingRollupJobStep" }) {
+			assertEquals(BatchStatus.COMPLETED, steps.get(stepName).getStatus(), stepName);
+		}
+		assertFalse(steps.get("sendNotificationClassJobStep").getStartTime().before(steps.get("addPassesJobStep").getEndTime()));
+		assertFalse(steps.get("passDeductionJobStep").getStartTime().before(steps.get("expiredPassJobStep").getEndTime()));
+
+		assertEquals(3, (int) jdbcTemplate.queryForObject(
+				"select count(*) from pass where pass_seq between 7001 and 7003 and status = 'EXPIRED'", Integer.class));
+		assertEquals(2, (int) jdbcTemplate.queryForObject("select count(*) from pass where bulk_pass_seq = 971", Integer.class));
+		assertEquals(1, (int) jdbcTemplate.queryForObject("select count(*) from booking_rollup_ledger where booking_seq = 7001", Integer.class));
+	}
+
+	@Test
+	public void test_dailyBatchJob_failedBranch() throws Exception {
+		// given 만료 기준 시각이 잘못되어 expiredPassJob이 실패
+		LocalDateTime now = LocalDateTime.now();
+		insertData(now);
+
+		// when
+		JobExecution jobExecution = jobLauncher.run(dailyBatchJob, new JobParametersBuilder()
+				.addLong("run.id", System.nanoTime()).addString(ExpiredPassJobConfig.CUTOFF, "invalid").toJobParameters());
+
+		// then 이용권 흐름의 차감은 건너뛰고, 다른 흐름은 끝까지 실행된 뒤 Job은 실패
+		assertEquals(BatchStatus.FAILED, jobExecution.getStatus());
+		Map<String, StepExecution> steps = jobExecution.getStepExecutions().stream()
+				.collect(Collectors.toMap(StepExecution::getStepName, s -> s));
+		assertEquals(BatchStatus.FAILED, steps.get("expiredPassJobStep").getStatus());
+		assertFalse(steps.containsKey("passDeductionJobStep"));
+		assertEquals(BatchStatus.COMPLETED, steps.get("sendNotificationClassJobStep").getStatus());
+		assertEquals(BatchStatus.COMPLETED, steps.get("bookingRollupJobStep").getStatus());
+		assertFalse(jdbcTemplate.queryForObject("select deducted from booking where booking_seq = 7001", Boolean.class));
+	}
+
+	private void insertData(LocalDateTime now) {
+		for (long passSeq = 7001; passSeq <= 7002; passSeq++) {
+			jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+					+ " values (?, 1, 'Y1', 'PROGRESSED', 10, ?, ?)", passSeq, now.minusDays(60), now.minusDays(1));
+		}
+		jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+				+ " values (7003, 1, 'Y1', 'PROGRESSED', 1, ?, ?)", now.minusDays(10), now.plusDays(30));
+		jdbcTemplate.update("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+				+ " values (7001, 7003, 'Y1', 'COMPLETED', true, true, ?, ?, ?, ?)", now.minusDays(1), now.minusDays(1).plusHours(1),
+				now.minusMinutes(1), now.minusMinutes(1));
+		for (int i = 0; i < 2; i++) {
+			jdbcTemplate.update("insert into user_group_mapping (user_group_id, user_id, create_at, modified_at) values ('DAILY', ?, ?, ?)",
+					"Y" + i, now, now);
+		}
+		jdbcTemplate.update("insert into bulk_pass (bulk_pass_seq, package_seq, user_group_id, status, count, started_at, ended_at)"
+				+ " values (971, 1, 'DAILY', 'READY', 10, ?, ?)", now.plusDays(1), now.plusDays(30));
+	}
+}
@@ -0,0 +1,158 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.job.pass.ExpiredPassJobConfig;
+
+// 내장 DB에서 expiredPassJob을 여러 번 실행해서 watermark 이후 구간만 읽고,
+// 건너뛴 이용권은 watermark를 붙잡지 않고 따라잡기 실행이 다시 읽으며, 따라잡기 실행이 늦게 들어온 이용권을 만료하는지 확인
+@SpringBootTest(properties = "batch.expired-pass.catch-up-interval=3d")
+@SpringBatchTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { ExpiredPassJobConfig.class, TestBatchConfig.class })
+public class ExpiredPassWatermarkTest {
+	@Autowired
+	private JobLauncherTestUtils jobLauncher;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private JobWatermarkRepository jobWatermarkRepository;
+
+	// JDBC로 넣은 순번(1 ~ 3)이 다른 테스트에서 Hibernate가 발급하는 순번과 겹치지 않도록 지운다.
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("alter table pass drop constraint if exists ck_pass_expire_test");
+		jdbcTemplate.update("delete from pass where pass_seq between 1 and 3");
+		jdbcTemplate.update("delete from job_watermark where job_name like 'expiredPassJob%'");
+		jdbcTemplate.update("delete from batch_dead_letter where job_name = 'expiredPassJob'");
+	}
+
+	@Test
+	public void test_watermark() throws Exception {
+		// given 종료일시가 3일 전, 1일 전인 진행 중 이용권
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+		addPass(1L, now.minusDays(3));
+		addPass(2L, now.minusDays(1));
+
+		// when 2일 전을 기준으로 실행 (처음 실행이라 따라잡기 실행)
+		LocalDateTime firstCutoff = now.minusDays(2);
+		ExitStatus first = launch(firstCutoff);
+
+		// then 3일 전 이용권만 만료, cutoff가 watermark로 저장
+		assertEquals(ExitStatus.COMPLETED, first);
+		assertEquals("EXPIRED", status(1L));
+		assertEquals("PROGRESSED", status(2L));
+		assertEquals(firstCutoff, watermark());
+
+		// given 이미 처리한 구간(watermark 이전)에 늦게 들어온 이용권
+		addPass(3L, now.minusDays(4));
+
+		// when 현재 시각 기준으로 다시 실행 (따라잡기 간격 3일이 지나지 않음)
+		ExitStatus second = launch(now);
+
+		// then watermark 이후 구간만 읽어서 1일 전 이용권만 만료
+		assertEquals(ExitStatus.COMPLETED, second);
+		assertEquals("EXPIRED", status(2L));
+		assertEquals("PROGRESSED", status(3L));
+		assertEquals(now, watermark());
+
+		// when 마지막 따라잡기 실행(2일 전)에서 3일이 지난 시각으로 실행
+		ExitStatus third = launch(now.plusDays(1));
+
+		// then watermark 없이 전체를 읽어서 늦게 들어온 이용권도 만료
+		assertEquals(ExitStatus.COMPLETED, third);
+		assertEquals("EXPIRED", status(3L));
+		assertEquals(now.plusDays(1), watermark());
+	}
+
+	@Test
+	public void test_watermark_deadLetter() throws Exception {
+		// given 만료로 바꾸면 제약 조건에 걸리는 이용권(2)
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+		addPass(1L, now.minusDays(3));
+		addPass(2L, now.minusDays(2));
+		addPass(3L, now.minusDays(1));
+		jdbcTemplate.update("alter table pass add constraint ck_pass_expire_test check (pass_seq <> 2 or status <> 'EXPIRED')");
+
+		// when 처음 실행 (따라잡기 실행)
+		ExitStatus first = launch(now);
+
+		// then 이용권(2)만 dead letter로 남고, watermark는 그 이용권을 지나 cutoff까지 올라간다.
+		assertEquals(ExitStatus.COMPLETED, first);
+		assertEquals("EXPIRED", status(1L));
+		assertEquals("PROGRESSED", status(2L));
+		assertEquals("EXPIRED", status(3L));
+		Long firstExecutionId = deadLetterExecutionId();
+		assertEquals(now, watermark());
+
+		// when 따라잡기 간격(3일)이 지나기 전에 다시 실행
+		ExitStatus second = launch(now.plusSeconds(1));
+
+		// then watermark 이전의 이용권(2)은 다시 읽지 않는다. (dead letter가 그대로)
+		assertEquals(ExitStatus.COMPLETED, second);
+		assertEquals("PROGRESSED", status(2L));
+		assertEquals(firstExecutionId, deadLetterExecutionId());
+
+		// when 원인을 고치지 않은 채 따라잡기 실행
+		ExitStatus third = launch(now.plusDays(3));
+
+		// then 다시 실패해도 dead letter는 한 행만 마지막 실패로 갱신된다.
+		assertEquals(ExitStatus.COMPLETED, third);
+		assertEquals("PROGRESSED", status(2L));
+		assertNotEquals(firstExecutionId, deadLetterExecutionId());
+
+		// when 원인을 고친 뒤 다음 따라잡기 실행
+		jdbcTemplate.update("alter table pass drop constraint ck_pass_expire_test");
+		ExitStatus fourth = launch(now.plusDays(6));
+
+		// then 남은 이용권을 다시 읽어서 만료
+		assertEquals(ExitStatus.COMPLETED, fourth);
+		assertEquals("EXPIRED", status(2L));
+		assertEquals(now.plusDays(6), watermark());
+	}
+
+	// JobExecution을 돌려주는 메서드는 @SpringBatchTest가 StepScope 테스트용으로 호출하므로 ExitStatus만 돌려준다.
+	// 테스트끼리 같은 초에 같은 cutoff로 실행해도 새 인스턴스가 되도록 run.id 를 붙인다.
+	private ExitStatus launch(LocalDateTime cutoff) throws Exception {
+		return jobLauncher.launchJob(new JobParametersBuilder().addString(ExpiredPassJobConfig.CUTOFF, cutoff.toString())
+				.addLong("run.id", System.nanoTime()).toJobParameters()).getExitStatus();
+	}
+
+	private LocalDateTime watermark() {
+		return jobWatermarkRepository.findById("expiredPassJob").get().getWatermark();
+	}
+
+	// 이용권(2)의 dead letter가 한 행뿐인지 확인하고, 마지막으로 실패한 JobExecution id를 돌려준다.
+	private Long deadLetterExecutionId() {
+		return jdbcTemplate.queryForObject("select job_execution_id from batch_dead_letter where job_name = 'expiredPassJob'"
+				+ " and item_key = '2'", Long.class);
+	}
+
+	private void addPass(Long passSeq, LocalDateTime endedAt) {
+		jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+				+ " values (?, 1, ?, 'PROGRESSED', 10, ?, ?)", passSeq, "A" + passSeq, endedAt.minusDays(60), endedAt);
+	}
+
+	private String status(Long passSeq) {
+		return jdbcTemplate.queryForObject("select status from pass where pass_seq = ?", String.class, passSeq);
+	}
+}
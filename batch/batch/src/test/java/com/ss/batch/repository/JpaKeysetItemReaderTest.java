@@ -0,0 +1,133 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+import com.ss.batch.entity.BookingEntity;
+import com.ss.batch.job.pass.JpaKeysetItemReader;
+
+@ExtendWith(MockitoExtension.class)
+public class JpaKeysetItemReaderTest {
+	@Mock
+	private EntityManagerFactory entityManagerFactory;
+	@Mock
+	private EntityManager entityManager;
+	@Mock
+	private TypedQuery<BookingEntity> query;
+
+	@Test
+	public void test_read_restart() throws Exception {
+		// given 첫 번째 페이지 2건(꽉 참), 두 번째 페이지 1건(마지막)
+		when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+		when(entityManager.createQuery(anyString(), eq(BookingEntity.class))).thenReturn(query);
+		when(query.setMaxResults(anyInt())).thenReturn(query);
+		when(query.getResultList()).thenReturn(List.of(booking(3L), booking(7L)), List.of(booking(9L)));
+
+		JpaKeysetItemReader<BookingEntity> reader = reader();
+		ExecutionContext executionContext = new ExecutionContext();
+		reader.open(executionContext);
+
+		// when 처음 3건 읽기
+		assertEquals(3L, reader.read().getBookingSeq());
+		assertEquals(7L, reader.read().getBookingSeq());
+		reader.update(executionContext);
+		assertEquals(9L, reader.read().getBookingSeq());
+		assertNull(reader.read());
+		reader.close();
+
+		// then 두 번째 페이지는 마지막 키(7) 다음부터 조회
+		verify(query).setParameter("lastKey", 0L);
+		verify(query).setParameter("lastKey", 7L);
+		assertEquals(7L, executionContext.get("addNotificationItemReader." + JpaKeysetItemReader.LAST_KEY));
+
+		// 재시작하면 앞 페이지를 다시 읽지 않고 저장된 키부터 조회
+		when(query.getResultList()).thenReturn(List.of(booking(9L)));
+		JpaKeysetItemReader<BookingEntity> restarted = reader();
+		restarted.open(executionContext);
+
+		assertEquals(9L, restarted.read().getBookingSeq());
+		assertNull(restarted.read());
+		verify(query, times(2)).setParameter("lastKey", 7L);
+	}
+
+	@Test
+	public void test_read_leadingKey() throws Exception {
+		// given (수정 일시, 예약 순번) 복합 키셋, 페이지 2건
+		LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+		when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+		when(entityManager.createQuery(anyString(), eq(BookingEntity.class))).thenReturn(query);
+		when(query.setMaxResults(anyInt())).thenReturn(query);
+		when(query.getResultList()).thenReturn(List.of(booking(9L, from.plusHours(1)), booking(3L, from.plusHours(2))),
+				List.of());
+
+		JpaKeysetItemReader<BookingEntity> reader = leadingKeyReader(from);
+		ExecutionContext executionContext = new ExecutionContext();
+		reader.open(executionContext);
+
+		// when
+		assertEquals(9L, reader.read().getBookingSeq());
+		assertEquals(3L, reader.read().getBookingSeq());
+		reader.update(executionContext);
+		assertNull(reader.read());
+		reader.close();
+
+		// then 다음 페이지는 마지막 행의 (수정 일시, 순번) 다음부터 조회, 수정 일시는 문자열로 저장
+		verify(query).setParameter("lastModifiedAt", from);
+		verify(query).setParameter("lastModifiedAt", from.plusHours(2));
+		verify(query).setParameter("lastKey", 3L);
+		assertEquals(from.plusHours(2).toString(),
+				executionContext.get("addNotificationItemReader." + JpaKeysetItemReader.LAST_KEY + ".lastModifiedAt"));
+
+		// 재시작하면 저장된 수정 일시를 LocalDateTime으로 되돌려서 조회
+		JpaKeysetItemReader<BookingEntity> restarted = leadingKeyReader(from);
+		restarted.open(executionContext);
+		assertNull(restarted.read());
+		verify(query, times(2)).setParameter("lastModifiedAt", from.plusHours(2));
+	}
+
+	private JpaKeysetItemReader<BookingEntity> leadingKeyReader(LocalDateTime from) {
+		return new JpaKeysetItemReader<BookingEntity>("addNotificationItemReader", entityManagerFactory,
+				"select b from BookingEntity b where b.modifiedAt >= :lastModifiedAt"
+						+ " and (b.modifiedAt > :lastModifiedAt or b.bookingSeq > :lastKey) order by b.modifiedAt, b.bookingSeq",
+				BookingEntity.class, Map.of(), 2, BookingEntity::getBookingSeq, 0L)
+				.addLeadingKey("lastModifiedAt", BookingEntity::getModifiedAt, from);
+	}
+
+	private JpaKeysetItemReader<BookingEntity> reader() {
+		return new JpaKeysetItemReader<BookingEntity>("addNotificationItemReader", entityManagerFactory,
+				"select b from BookingEntity b where b.bookingSeq > :lastKey order by b.bookingSeq", BookingEntity.class,
+				Map.of(), 2, BookingEntity::getBookingSeq, 0L);
+	}
+
+	private BookingEntity booking(Long bookingSeq) {
+		BookingEntity bookingEntity = new BookingEntity();
+		bookingEntity.setBookingSeq(bookingSeq);
+		return bookingEntity;
+	}
+
+	private BookingEntity booking(Long bookingSeq, LocalDateTime modifiedAt) {
+		BookingEntity bookingEntity = booking(bookingSeq);
+		bookingEntity.setModifiedAt(modifiedAt);
+		return bookingEntity;
+	}
+}
@@ -0,0 +1,193 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.job.export.ExportTable;
+import com.ss.batch.job.export.GzipCsvFileItemWriter;
+import com.ss.batch.job.export.MonthlyExportJobConfig;
+import com.ss.batch.job.export.SeqRangePartitioner;
+
+// 그 달에 시작한 행만 파티션별 gzip CSV로 나가고, 청크마다 파일이 넘어가도 모든 파일이 헤더부터 온전하게 풀리는지 확인
+@SpringBootTest(properties = { "batch.export.chunk-size=2", "batch.export.grid-size=2", "batch.export.roll-size=1B",
+		"batch.export.buffer-size=64B" })
+@SpringBatchTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { MonthlyExportJobConfig.class, TestBatchConfig.class })
+public class MonthlyExportJobTest {
+	@TempDir
+	static Path directory;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("batch.export.directory", () -> directory.toString());
+	}
+
+	@Autowired
+	private JobLauncherTestUtils jobLauncherTestUtils;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("delete from booking where booking_seq between 8001 and 8006");
+		jdbcTemplate.update("delete from pass where pass_seq between 8001 and 8004");
+	}
+
+	@Test
+	public void test_monthlyExportJob() throws Exception {
+		// given 2031-03 에 시작한 이용권 3건, 예약 5건 (4월에 시작한 이용권, 예약은 제외)
+		LocalDateTime march = LocalDateTime.of(2031, 3, 1, 10, 0);
+		for (long passSeq = 8001; passSeq <= 8003; passSeq++) {
+			jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+					+ " values (?, 1, 'E1', 'PROGRESSED', 10, ?, ?)", passSeq, march, march.plusMonths(1));
+		}
+		jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+				+ " values (8004, 1, 'E1', 'PROGRESSED', 10, ?, ?)", march.plusMonths(1), march.plusMonths(2));
+		for (long bookingSeq = 8001; bookingSeq <= 8006; bookingSeq++) {
+			LocalDateTime startedAt = bookingSeq == 8006 ? march.plusMonths(1) : march.plusDays(bookingSeq - 8001);
+			jdbcTemplate.update("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, started_at, ended_at, create_at, modified_at)"
+					+ " values (?, 8001, ?, 'COMPLETED', true, false, ?, ?, ?, ?)", bookingSeq, bookingSeq == 8001 ? "A,\"B\"" : "E1",
+					startedAt, startedAt.plusHours(1), startedAt, startedAt);
+		}
+
+		// when
+		BatchStatus status = jobLauncherTestUtils.launchJob(new JobParametersBuilder(jobLauncherTestUtils.getUniqueJobParameters())
+				.addString(MonthlyExportJobConfig.MONTH, "2031-03").toJobParameters()).getStatus();
+
+		// then
+		assertEquals(BatchStatus.COMPLETED, status);
+		List<String> passRows = readRows("pass-2031-03-", ExportTable.PASS.header());
+		assertEquals(List.of("8001,1,,E1,PROGRESSED,10,2031-03-01T10:00,2031-04-01T10:00,", "8002,1,,E1,PROGRESSED,10,2031-03-01T10:00,2031-04-01T10:00,",
+				"8003,1,,E1,PROGRESSED,10,2031-03-01T10:00,2031-04-01T10:00,"), passRows);
+
+		List<String> bookingRows = readRows("booking-2031-03-", ExportTable.BOOKING.header());
+		assertEquals(5, bookingRows.size());
+		assertEquals("8001,8001,\"A,\"\"B\"\"\",COMPLETED,true,false,false,2031-03-01T10:00,2031-03-01T11:00,,2031-03-01T10:00,2031-03-01T10:00",
+				bookingRows.get(0));
+		// 청크(2행)마다 다음 파일로 넘어간다.
+		assertTrue(files("booking-2031-03-").size() >= 3);
+	}
+
+	@Test
+	public void test_rerun_deletesStaleFiles() throws Exception {
+		// given 이전 실행이 파티션 3개로 남긴 2031-05 파일 (이번 실행은 추출할 행이 없다)
+		Path monthDirectory = Files.createDirectories(directory.resolve("2031-05"));
+		Path stale = Files.createFile(monthDirectory.resolve("booking-2031-05-p2-00000.csv.gz"));
+		Path other = Files.createFile(monthDirectory.resolve("checksum.txt"));
+
+		// when 같은 달을 새 인스턴스로 다시 추출
+		BatchStatus status = jobLauncherTestUtils.launchJob(new JobParametersBuilder(jobLauncherTestUtils.getUniqueJobParameters())
+				.addString(MonthlyExportJobConfig.MONTH, "2031-05").toJobParameters()).getStatus();
+
+		// then 이전 추출 파일만 지운다.
+		assertEquals(BatchStatus.COMPLETED, status);
+		assertFalse(Files.exists(stale));
+		assertTrue(Files.exists(other));
+	}
+
+	@Test
+	public void test_partition() {
+		// given 2031-03 에 시작한 이용권 8001 ~ 8003, 4월에 시작한 이용권 8004
+		LocalDateTime march = LocalDateTime.of(2031, 3, 1, 10, 0);
+		for (long passSeq = 8001; passSeq <= 8004; passSeq++) {
+			LocalDateTime startedAt = passSeq == 8004 ? march.plusMonths(1) : march;
+			jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+					+ " values (?, 1, 'E1', 'PROGRESSED', 10, ?, ?)", passSeq, startedAt, startedAt.plusMonths(1));
+		}
+
+		// when
+		Map<String, ExecutionContext> partitions = new SeqRangePartitioner(jdbcTemplate, ExportTable.PASS, march.withDayOfMonth(1).withHour(0),
+				march.plusMonths(1).withDayOfMonth(1).withHour(0)).partition(2);
+
+		// then 테이블 전체가 아닌 그 달의 순번 범위(8001 ~ 8003)만 나눈다.
+		assertEquals(8001L, partitions.get("pass-p0").getLong(SeqRangePartitioner.MIN_SEQ));
+		assertEquals(8002L, partitions.get("pass-p0").getLong(SeqRangePartitioner.MAX_SEQ));
+		assertEquals(8003L, partitions.get("pass-p1").getLong(SeqRangePartitioner.MIN_SEQ));
+		assertEquals(8003L, partitions.get("pass-p1").getLong(SeqRangePartitioner.MAX_SEQ));
+		assertEquals(2, partitions.size());
+	}
+
+	@Test
+	public void test_restart() throws Exception {
+		// given 첫 청크는 커밋, 두 번째 청크는 파일에 일부 쓴 뒤 실패
+		Path restartDirectory = directory.resolve("restart");
+		ExecutionContext executionContext = new ExecutionContext();
+		GzipCsvFileItemWriter writer = new GzipCsvFileItemWriter(restartDirectory, "test", "id", 1024 * 1024, 64, 6);
+		writer.open(executionContext);
+		writer.write(List.of("1", "2"));
+		writer.update(executionContext);
+		writer.write(Collections.nCopies(100, "lost"));
+
+		// when 저장된 ExecutionContext로 다시 열어서 이어 쓰기
+		GzipCsvFileItemWriter restarted = new GzipCsvFileItemWriter(restartDirectory, "test", "id", 1024 * 1024, 64, 6);
+		restarted.open(new ExecutionContext(executionContext));
+		restarted.write(List.of("3"));
+		restarted.update(executionContext);
+		restarted.close();
+
+		// then 커밋되지 않은 줄은 빠지고 파일 하나로 풀린다.
+		assertEquals(List.of("id", "1", "2", "3"), readLines(restartDirectory.resolve("test-00000.csv.gz")));
+	}
+
+	// 파일마다 첫 줄이 헤더인지 확인하고 데이터 줄만 순번 순서로 모은다.
+	private List<String> readRows(String prefix, String header) throws Exception {
+		List<String> rows = new ArrayList<String>();
+		for (Path file : files(prefix)) {
+			List<String> lines = readLines(file);
+			assertEquals(header, lines.get(0), file.toString());
+			assertTrue(lines.size() <= 3, file.toString());
+			rows.addAll(lines.subList(1, lines.size()));
+		}
+		rows.sort(null);
+		return rows;
+	}
+
+	private List<Path> files(String prefix) throws Exception {
+		try (Stream<Path> files = Files.list(directory.resolve("2031-03"))) {
+			return files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().collect(Collectors.toList());
+		}
+	}
+
+	private List<String> readLines(Path file) throws Exception {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+			return reader.lines().collect(Collectors.toList());
+		}
+	}
+}
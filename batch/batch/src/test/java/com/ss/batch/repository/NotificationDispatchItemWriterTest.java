@@ -0,0 +1,230 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.ss.batch.adapter.message.NotificationMessage;
+import com.ss.batch.adapter.message.NotificationSender;
+import com.ss.batch.adapter.message.TokenBucketRateLimiter;
+import com.ss.batch.entity.NotificationEntity;
+import com.ss.batch.job.pass.NotificationDispatchItemWriter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NotificationDispatchItemWriterTest {
+
+	@Test
+	public void test_write() throws Exception {
+		// given 발송이 느리고, uuid-3 에게는 발송이 실패하는 발송기
+		NotificationSender sender = new NotificationSender() {
+			@Override
+			public String getChannel() {
+				return "test";
+			}
+
+			@Override
+			public boolean send(String uuid, String text) {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return !"uuid-3".equals(uuid);
+			}
+		};
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(4);
+		executor.initialize();
+
+		MockEnvironment environment = new MockEnvironment().withProperty("batch.notification.rate-limit.test.permits-per-second", "1000");
+
+		List<NotificationEntity> saved = new ArrayList<NotificationEntity>();
+		NotificationDispatchItemWriter writer = new NotificationDispatchItemWriter(sender, new TokenBucketRateLimiter(environment),
+				executor, 5000, false, saved::addAll);
+
+		List<NotificationEntity> items = new ArrayList<NotificationEntity>();
+		for (int i = 0; i < 8; ++i) {
+			NotificationEntity notificationEntity = new NotificationEntity();
+			notificationEntity.setUuid("uuid-" + i);
+			notificationEntity.setText("text");
+			items.add(notificationEntity);
+		}
+
+		// when
+		writer.write(items);
+
+		// then 실패한 1건을 빼고 청크 순서대로 저장
+		assertEquals(7, saved.size());
+		assertEquals("uuid-0", saved.get(0).getUuid());
+		assertEquals("uuid-4", saved.get(3).getUuid());
+		for (NotificationEntity notificationEntity : saved) {
+			assertTrue(notificationEntity.isSent());
+			assertNotNull(notificationEntity.getSentAt());
+		}
+		assertFalse(items.get(3).isSent());
+
+		executor.shutdown();
+	}
+
+	@Test
+	public void test_write_coalesce() throws Exception {
+		// given 요청 한 번에 3명까지 보낼 수 있는 발송기
+		AtomicInteger requests = new AtomicInteger();
+		List<NotificationMessage> messages = new ArrayList<NotificationMessage>();
+		NotificationSender sender = new NotificationSender() {
+			@Override
+			public String getChannel() {
+				return "test";
+			}
+
+			@Override
+			public boolean send(String uuid, String text) {
+				return sendBatch(List.of(new NotificationMessage(uuid, text))).get(0);
+			}
+
+			@Override
+			public int getMaxBatchSize() {
+				return 3;
+			}
+
+			@Override
+			public synchronized List<Boolean> sendBatch(List<NotificationMessage> batch) {
+				requests.incrementAndGet();
+				messages.addAll(batch);
+				List<Boolean> results = new ArrayList<Boolean>();
+				batch.forEach(message -> results.add(true));
+				return results;
+			}
+		};
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.initialize();
+
+		List<NotificationEntity> saved = new ArrayList<NotificationEntity>();
+		NotificationDispatchItemWriter writer = new NotificationDispatchItemWriter(sender,
+				new TokenBucketRateLimiter(new MockEnvironment()), executor, 5000, true, saved::addAll);
+		ExecutionContext executionContext = new ExecutionContext();
+		writer.open(executionContext);
+
+		// 수신자 4명에게 알림 12건 (한 명당 3건)
+		List<NotificationEntity> items = new ArrayList<NotificationEntity>();
+		for (int i = 0; i < 12; ++i) {
+			NotificationEntity notificationEntity = new NotificationEntity();
+			notificationEntity.setUuid("uuid-" + (i % 4));
+			notificationEntity.setText("text-" + i);
+			items.add(notificationEntity);
+		}
+
+		// when
+		writer.write(items);
+		writer.update(executionContext);
+
+		// then 수신자 4명 → 메시지 4개, 요청은 2번 (3명 + 1명)
+		assertEquals(2, requests.get());
+		assertEquals(4, messages.size());
+		NotificationMessage first = messages.stream().filter(m -> "uuid-0".equals(m.getUuid())).findFirst().get();
+		assertTrue(first.getText().contains("text-0"));
+		assertTrue(first.getText().contains("text-8"));
+		assertEquals(12, saved.size());
+		assertEquals(6.0, executionContext.getDouble(NotificationDispatchItemWriter.COALESCING_RATIO));
+
+		executor.shutdown();
+	}
+
+	@Test
+	public void test_write_rollback() throws Exception {
+		// given 요청 한 번에 3명까지 보낼 수 있는 발송기
+		NotificationSender sender = new NotificationSender() {
+			@Override
+			public String getChannel() {
+				return "test";
+			}
+
+			@Override
+			public boolean send(String uuid, String text) {
+				return true;
+			}
+
+			@Override
+			public int getMaxBatchSize() {
+				return 3;
+			}
+
+			@Override
+			public List<Boolean> sendBatch(List<NotificationMessage> batch) {
+				List<Boolean> results = new ArrayList<Boolean>();
+				batch.forEach(message -> results.add(true));
+				return results;
+			}
+		};
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.initialize();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+
+		NotificationDispatchItemWriter writer = new NotificationDispatchItemWriter(sender,
+				new TokenBucketRateLimiter(new MockEnvironment()), executor, 5000, true, items -> {});
+		StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+		ExecutionContext executionContext = new ExecutionContext();
+		writer.open(executionContext);
+		writer.beforeStep(stepExecution);
+
+		// 수신자 4명에게 알림 12건 → 요청 2번 (알림 9건 + 3건)
+		List<NotificationEntity> items = new ArrayList<NotificationEntity>();
+		for (int i = 0; i < 12; ++i) {
+			NotificationEntity notificationEntity = new NotificationEntity();
+			notificationEntity.setUuid("uuid-" + (i % 4));
+			notificationEntity.setText("text-" + i);
+			items.add(notificationEntity);
+		}
+
+		try {
+			// when 쓰고 나서 롤백된 청크, update 후 커밋이 실패한 청크, 커밋된 청크
+			writer.beforeChunk(null);
+			writer.write(items);
+			writer.afterChunkError(null);
+
+			writer.beforeChunk(null);
+			writer.write(items);
+			writer.update(executionContext);
+			writer.afterChunkError(null);
+
+			writer.beforeChunk(null);
+			writer.write(items);
+			writer.update(executionContext);
+			writer.afterChunk(null);
+
+			// then 커밋된 청크만 센다.
+			assertEquals(12L, executionContext.getLong(NotificationDispatchItemWriter.NOTIFICATION_COUNT));
+			assertEquals(2L, executionContext.getLong(NotificationDispatchItemWriter.REQUEST_COUNT));
+			DistributionSummary summary = registry.get("batch.notification.per.request")
+					.tag("job", stepExecution.getJobExecution().getJobInstance().getJobName())
+					.tag("step", stepExecution.getStepName()).summary();
+			assertEquals(2L, summary.count());
+			assertEquals(12.0, summary.totalAmount());
+			assertEquals(9.0, summary.max());
+		} finally {
+			Metrics.removeRegistry(registry);
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.job.pass.PassDeductionJobConfig;
+
+// 같은 이용권의 예약이 여러 청크에 나뉘어도 사용한 횟수만큼만 차감되고, 0이 되면 만료되는지 확인
+@SpringBootTest(properties = "batch.pass-deduction.chunk-size=2")
+@SpringBatchTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { PassDeductionJobConfig.class, TestBatchConfig.class })
+public class PassDeductionJobTest {
+	@Autowired
+	private JobLauncherTestUtils jobLauncherTestUtils;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("delete from booking where booking_seq between 5001 and 5010");
+		jdbcTemplate.update("delete from pass where pass_seq between 5001 and 5004");
+	}
+
+	@Test
+	public void test_passDeductionJob() throws Exception {
+		// given
+		LocalDateTime now = LocalDateTime.now();
+		insertPass(5001, 5, now);		// 2회 사용 → 3
+		insertPass(5002, 2, now);		// 3회 사용 → 0, 만료
+		insertPass(5003, null, now);	// 무제한
+		insertPass(5004, 4, now);		// 차감 대상 예약 없음
+		insertBooking(5001, 5001, "COMPLETED", true, false, now);
+		insertBooking(5002, 5002, "COMPLETED", true, false, now);
+		insertBooking(5003, 5001, "COMPLETED", true, false, now);
+		insertBooking(5004, 5002, "COMPLETED", true, false, now);
+		insertBooking(5005, 5003, "COMPLETED", true, false, now);
+		insertBooking(5006, 5002, "COMPLETED", true, false, now);
+		insertBooking(5007, 5004, "COMPLETED", false, false, now);	// 이용권 미사용
+		insertBooking(5008, 5004, "READY", true, false, now);		// 아직 완료 전
+		insertBooking(5009, 5004, "COMPLETED", true, true, now);	// 이미 차감됨
+
+		// when 두 번 실행 (두 번째는 차감할 예약이 없음)
+		JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobLauncherTestUtils.getUniqueJobParameters());
+		JobExecution secondExecution = jobLauncherTestUtils.launchJob(jobLauncherTestUtils.getUniqueJobParameters());
+
+		// then
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		assertEquals(BatchStatus.COMPLETED, secondExecution.getStatus());
+		assertEquals(6, jobExecution.getStepExecutions().iterator().next().getWriteCount());
+		assertEquals(0, secondExecution.getStepExecutions().iterator().next().getWriteCount());
+
+		Map<String, Object> pass5001 = pass(5001);
+		assertEquals(3, pass5001.get("remaining_count"));
+		assertEquals("PROGRESSED", pass5001.get("status"));
+		assertNull(pass5001.get("expired_at"));
+
+		Map<String, Object> pass5002 = pass(5002);
+		assertEquals(0, pass5002.get("remaining_count"));
+		assertEquals("EXPIRED", pass5002.get("status"));
+		assertNotNull(pass5002.get("expired_at"));
+
+		Map<String, Object> pass5003 = pass(5003);
+		assertNull(pass5003.get("remaining_count"));
+		assertEquals("PROGRESSED", pass5003.get("status"));
+
+		assertEquals(4, pass(5004).get("remaining_count"));
+
+		List<Long> deducted = jdbcTemplate.queryForList(
+				"select booking_seq from booking where booking_seq between 5001 and 5010 and deducted = true order by booking_seq", Long.class);
+		assertEquals(List.of(5001L, 5002L, 5003L, 5004L, 5005L, 5006L, 5009L), deducted);
+	}
+
+	private Map<String, Object> pass(long passSeq) {
+		return jdbcTemplate.queryForMap("select remaining_count, status, expired_at from pass where pass_seq = ?", passSeq);
+	}
+
+	private void insertPass(long passSeq, Integer remainingCount, LocalDateTime now) {
+		jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+				+ " values (?, 1, 'D1', 'PROGRESSED', ?, ?, ?)", passSeq, remainingCount, now.minusDays(10), now.plusDays(30));
+	}
+
+	private void insertBooking(long bookingSeq, long passSeq, String status, boolean usedPass, boolean deducted, LocalDateTime now) {
+		jdbcTemplate.update("insert into booking (booking_seq, pass_seq, user_id, status, used_pass, attended, deducted, started_at, ended_at, create_at, modified_at)"
+				+ " values (?, ?, 'D1', ?, ?, ?, ?, ?, ?, ?, ?)", bookingSeq, passSeq, status, usedPass, usedPass, deducted, now.minusDays(1),
+				now.minusDays(1).plusHours(1), now.minusDays(2), now.minusDays(2));
+	}
+}
@@ -0,0 +1,130 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.entity.IdSequence;
+import com.ss.batch.entity.PassEntity;
+import com.ss.batch.entity.PassStatus;
+
+// id_sequence 테이블에서 순번을 블록으로 받아와서 이용권 INSERT가 JDBC batch로 묶이고,
+// 여러 트랜잭션이 동시에 받아가도 순번이 겹치지 않는지 확인
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@ContextConfiguration(classes = TestBatchConfig.class)
+public class PassIdAllocationTest {
+	private static final String USER_ID = "IDALLOC";
+
+	@Autowired
+	private PassRepository passRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("delete from pass where user_id = ?", USER_ID);
+	}
+
+	@Test
+	public void test_saveAll_batchInsert() {
+		// given
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		long nextVal = nextVal();
+
+		// when 이용권 600건을 한 트랜잭션에서 저장
+		List<PassEntity> passes = new TransactionTemplate(transactionManager).execute(status -> passRepository.saveAll(passes(600)));
+
+		// then 순번은 블록(500) 단위로 많아야 2번 받아오고, INSERT 문은 batch 단위로 준비된다. (IDENTITY 였다면 600번)
+		// 앞 테스트에서 받아둔 블록이 남아 있으면 1번만 받아올 수도 있다.
+		assertEquals(600, passes.stream().map(PassEntity::getPass_seq).distinct().count());
+		long allocated = nextVal() - nextVal;
+		assertEquals(0, allocated % IdSequence.LARGE_ALLOCATION_SIZE);
+		assertTrue(allocated <= 2 * IdSequence.LARGE_ALLOCATION_SIZE, "allocated=" + allocated);
+		assertEquals(600, statistics.getEntityInsertCount());
+		assertTrue(statistics.getPrepareStatementCount() <= 10, "prepared=" + statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void test_saveAll_concurrent() throws Exception {
+		// given 4개 트랜잭션이 동시에 300건씩 저장 (각각 순번 블록을 따로 받아간다)
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<List<PassEntity>>> futures = new ArrayList<Future<List<PassEntity>>>();
+
+		// when
+		try {
+			for (int i = 0; i < 4; i++) {
+				Callable<List<PassEntity>> task = () -> transactionTemplate.execute(status -> passRepository.saveAll(passes(300)));
+				futures.add(executor.submit(task));
+			}
+			Set<Long> passSeqs = new HashSet<Long>();
+			for (Future<List<PassEntity>> future : futures) {
+				for (PassEntity pass : future.get()) {
+					passSeqs.add(pass.getPass_seq());
+				}
+			}
+
+			// then 겹치는 순번 없이 모두 저장
+			assertEquals(1200, passSeqs.size());
+			assertEquals(1200, (int) jdbcTemplate.queryForObject("select count(*) from pass where user_id = ?", Integer.class, USER_ID));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private List<PassEntity> passes(int size) {
+		LocalDateTime now = LocalDateTime.now();
+		List<PassEntity> passes = new ArrayList<PassEntity>(size);
+		for (int i = 0; i < size; i++) {
+			PassEntity pass = new PassEntity();
+			pass.setPackage_seq(1L);
+			pass.setUser_id(USER_ID);
+			pass.setStatus(PassStatus.READY);
+			pass.setRemaining_count(10);
+			pass.setStarted_at(now);
+			pass.setEnded_at(now.plusDays(30));
+			passes.add(pass);
+		}
+		return passes;
+	}
+
+	private long nextVal() {
+		return jdbcTemplate.queryForObject("select next_val from " + IdSequence.TABLE + " where " + IdSequence.NAME_COLUMN + " = 'pass'",
+				Long.class);
+	}
+}
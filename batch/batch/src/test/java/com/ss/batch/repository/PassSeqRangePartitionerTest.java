@@ -0,0 +1,65 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+import com.ss.batch.entity.PassStatus;
+import com.ss.batch.job.pass.PassSeqRangePartitioner;
+
+@ExtendWith(MockitoExtension.class)
+public class PassSeqRangePartitionerTest {
+	@Mock
+	private PassRepository passRepository;
+
+	@Test
+	public void test_partition() {
+		// given 만료 대상 순번이 1 ~ 10
+		LocalDateTime now = LocalDateTime.now();
+		when(passRepository.findMinPassSeq(eq(PassStatus.PROGRESSED), any(), any())).thenReturn(1L);
+		when(passRepository.findMaxPassSeq(eq(PassStatus.PROGRESSED), any(), any())).thenReturn(10L);
+
+		// when 3개로 나누기
+		Map<String, ExecutionContext> partitions = new PassSeqRangePartitioner(passRepository, now.minusDays(1), now).partition(3);
+
+		// then 범위가 겹치거나 빠지는 순번 없이 1 ~ 10을 모두 덮는지 확인
+		List<ExecutionContext> contexts = new ArrayList<ExecutionContext>(partitions.values());
+		contexts.sort(Comparator.comparingLong(c -> c.getLong(PassSeqRangePartitioner.MIN_PASS_SEQ)));
+
+		assertEquals(3, contexts.size());
+		long expectedMin = 1L;
+		for (ExecutionContext context : contexts) {
+			assertEquals(expectedMin, context.getLong(PassSeqRangePartitioner.MIN_PASS_SEQ));
+			expectedMin = context.getLong(PassSeqRangePartitioner.MAX_PASS_SEQ) + 1;
+		}
+		assertEquals(11L, expectedMin);
+	}
+
+	@Test
+	public void test_partition_empty() {
+		// given 만료 대상이 없는 경우
+		when(passRepository.findMinPassSeq(eq(PassStatus.PROGRESSED), any(), any())).thenReturn(null);
+		when(passRepository.findMaxPassSeq(eq(PassStatus.PROGRESSED), any(), any())).thenReturn(null);
+
+		// when
+		Map<String, ExecutionContext> partitions = new PassSeqRangePartitioner(passRepository, LocalDateTime.now().minusDays(1), LocalDateTime.now()).partition(4);
+
+		// then 아무것도 읽지 않는 빈 범위 하나
+		assertEquals(1, partitions.size());
+		ExecutionContext context = partitions.get("partition0");
+		assertEquals(true, context.getLong(PassSeqRangePartitioner.MIN_PASS_SEQ) > context.getLong(PassSeqRangePartitioner.MAX_PASS_SEQ));
+	}
+}
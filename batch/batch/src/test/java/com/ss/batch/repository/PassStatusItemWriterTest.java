@@ -0,0 +1,75 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.ss.batch.entity.PassEntity;
+import com.ss.batch.entity.PassStatus;
+import com.ss.batch.job.pass.PassStatusItemWriter;
+
+@ExtendWith(MockitoExtension.class)
+public class PassStatusItemWriterTest {
+	@Mock
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Test
+	public void test_write() throws Exception {
+		// given 이용권 3건 중 1건은 이미 다른 곳에서 상태가 바뀐 경우
+		List<PassEntity> items = new ArrayList<PassEntity>();
+		for (long i = 1; i <= 3; ++i) {
+			PassEntity passEntity = new PassEntity();
+			passEntity.setPass_seq(i);
+			items.add(passEntity);
+		}
+		when(jdbcTemplate.update(anyString(), anyMap())).thenReturn(2);
+
+		PassStatusItemWriter writer = new PassStatusItemWriter(jdbcTemplate, PassStatus.PROGRESSED, PassStatus.EXPIRED);
+		ExecutionContext executionContext = new ExecutionContext();
+		StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+		writer.open(executionContext);
+
+		// when 청크가 저장되기 전에는 SimpleChunkProcessor가 넘겨준 3건을 모두 writeCount에 더해둔다.
+		StepSynchronizationManager.register(stepExecution);
+		try {
+			writer.write(items);
+			stepExecution.setWriteCount(items.size());
+			writer.update(executionContext);
+		} finally {
+			StepSynchronizationManager.close();
+		}
+
+		// then UPDATE 문은 청크당 한 번만 실행
+		ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, Object>> paramsCaptor = ArgumentCaptor.forClass(Map.class);
+		verify(jdbcTemplate, times(1)).update(sqlCaptor.capture(), paramsCaptor.capture());
+
+		assertTrue(sqlCaptor.getValue().contains("expired_at"));
+		assertEquals(List.of(1L, 2L, 3L), paramsCaptor.getValue().get("passSeqs"));
+		assertEquals("PROGRESSED", paramsCaptor.getValue().get("fromStatus"));
+
+		// 변경된 건수는 writeCount, 이미 상태가 바뀐 건수는 filterCount 로 남는다.
+		assertEquals(2, stepExecution.getWriteCount());
+		assertEquals(1, stepExecution.getFilterCount());
+	}
+}
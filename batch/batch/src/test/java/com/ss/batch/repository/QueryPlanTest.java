@@ -0,0 +1,150 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.internal.ast.ASTQueryTranslatorFactory;
+import org.hibernate.hql.spi.QueryTranslator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ss.batch.entity.PassStatus;
+import com.ss.batch.job.export.ExportTable;
+import com.ss.batch.job.pass.BulkPassMemberItemReader;
+import com.ss.batch.job.pass.ExpiredPassJobConfig;
+import com.ss.batch.job.pass.PassDeductionJobConfig;
+import com.ss.batch.job.pass.SendNotificationClassJobConfig;
+import com.ss.batch.job.rollup.BookingRollupJobConfig;
+
+/*
+ * 각 Job reader가 실행하는 조회문의 실행 계획 확인
+ * Flyway 마이그레이션으로 만든 내장 DB(H2)에서 EXPLAIN 결과에 tableScan(전체 테이블 조회)이 있으면 실패한다.
+ * 인덱스를 지우거나 조회 조건을 바꿔서 인덱스를 못 타게 되면 여기서 먼저 알 수 있다.
+ * 조회문은 reader가 쓰는 상수를 그대로 가져오고, JPQL은 Hibernate가 만드는 SQL로 바꿔서 확인한다.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class QueryPlanTest {
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	// expiredPassJob - expiredPassItemReader
+	@Test
+	public void test_expiredPass() {
+		assertJpqlIndexScan(ExpiredPassJobConfig.EXPIRED_PASS_QUERY,
+				Map.of("status", "PROGRESSED", "watermark", LocalDateTime.now().minusDays(1), "cutoff", LocalDateTime.now()));
+	}
+
+	// expiredPassJob - 파티션 범위 계산 (PassRepository.findMinPassSeq / findMaxPassSeq), expiredPassPartitionItemReader
+	@Test
+	public void test_expiredPassPartition() throws Exception {
+		Map<String, Object> params = Map.of("status", "PROGRESSED", "watermark", LocalDateTime.now().minusDays(1), "cutoff",
+				LocalDateTime.now());
+		assertJpqlIndexScan(repositoryQuery("findMinPassSeq"), params);
+		assertJpqlIndexScan(repositoryQuery("findMaxPassSeq"), params);
+		assertJpqlIndexScan(ExpiredPassJobConfig.EXPIRED_PASS_PARTITION_QUERY, Map.of("status", "PROGRESSED", "watermark",
+				LocalDateTime.now().minusDays(1), "cutoff", LocalDateTime.now(), "minPassSeq", 1L, "maxPassSeq", 100L));
+	}
+
+	// sendNotificationClassJob - addNotificationItemReader (키셋)
+	@Test
+	public void test_addNotification() {
+		assertJpqlIndexScan(SendNotificationClassJobConfig.ADD_NOTIFICATION_QUERY,
+				Map.of("status", "READY", "now", LocalDateTime.now(), "startedAt", LocalDateTime.now().plusMinutes(10), "event", 0, "lastKey", 0L));
+	}
+
+	// sendNotificationClassJob - sendNotificationItemReader
+	@Test
+	public void test_sendNotification() {
+		assertJpqlIndexScan(SendNotificationClassJobConfig.SEND_NOTIFICATION_QUERY, Map.of("event", 0));
+	}
+
+	// passDeductionJob - passDeductionItemReader (키셋)
+	@Test
+	public void test_passDeduction() {
+		assertJpqlIndexScan(PassDeductionJobConfig.PASS_DEDUCTION_QUERY, Map.of("status", "COMPLETED", "lastKey", 0L));
+	}
+
+	// bookingRollupJob - bookingRollupItemReader (복합 키셋)
+	// 페이지마다 정렬하지 않도록 인덱스 순서로 읽는지(index sorted)도 확인한다.
+	@Test
+	public void test_bookingRollup() {
+		LocalDateTime from = LocalDateTime.now().minusDays(1);
+		String plan = assertJpqlIndexScan(BookingRollupJobConfig.BOOKING_ROLLUP_QUERY,
+				Map.of("from", from, "cutoff", LocalDateTime.now(), "lastModifiedAt", from, "lastKey", 0L));
+		assertTrue(plan.contains("index sorted"), () -> "인덱스 순서로 읽지 않음 (정렬 필요)\n" + plan);
+	}
+
+	// monthlyExportJob - SeqRangePartitioner, exportItemReader
+	@Test
+	public void test_export() {
+		for (ExportTable table : ExportTable.values()) {
+			assertIndexScan(table.rangeSql(), LocalDateTime.of(2031, 3, 1, 0, 0), LocalDateTime.of(2031, 4, 1, 0, 0));
+			assertIndexScan(table.selectSql(), 1L, 100L, LocalDateTime.of(2031, 3, 1, 0, 0), LocalDateTime.of(2031, 4, 1, 0, 0));
+		}
+	}
+
+	// addPassesJob - snapshotBulkPassStep (BulkPassRepository.findByStatusAndStartedAtGreaterThan), addPassFanOutItemReader
+	@Test
+	public void test_addPasses() {
+		assertIndexScan("select * from bulk_pass where status = ? and started_at > ?", "READY", LocalDateTime.now());
+		assertIndexScan(BulkPassMemberItemReader.selectSql(2, false), 1L, 2L);
+		assertIndexScan(BulkPassMemberItemReader.selectSql(2, true), 1L, 2L, 1L, 1L, "U1");
+	}
+
+	// addPassesJob - AddPassesTasklet (UserGroupMappingRepository.findByUserGroupId)
+	@Test
+	public void test_userGroupMapping() {
+		assertIndexScan("select * from user_group_mapping where user_group_id = ?", "GROUP");
+	}
+
+	private static String repositoryQuery(String methodName) throws Exception {
+		return PassRepository.class.getMethod(methodName, PassStatus.class, LocalDateTime.class, LocalDateTime.class)
+				.getAnnotation(Query.class).value();
+	}
+
+	// JPQL을 Hibernate가 실행하는 SQL로 바꾸고, 이름 있는 파라미터를 SQL의 ? 위치에 맞춰서 넣는다.
+	// 값은 JDBC로 바로 넣기 때문에 enum은 DB에 저장되는 값(문자열, 순서값)으로 넘긴다.
+	private String assertJpqlIndexScan(String jpql, Map<String, Object> params) {
+		QueryTranslator translator = new ASTQueryTranslatorFactory().createQueryTranslator(jpql, jpql, Collections.emptyMap(),
+				entityManagerFactory.unwrap(SessionFactoryImplementor.class), null);
+		translator.compile(Collections.emptyMap(), false);
+		String sql = translator.getSQLString();
+
+		Object[] args = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+		params.forEach((name, value) -> {
+			for (int location : translator.getParameterTranslations().getNamedParameterInformation(name).getSourceLocations()) {
+				args[location] = value;
+			}
+		});
+		return assertIndexScan(sql, args);
+	}
+
+	private String assertIndexScan(String sql, Object... args) {
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] instanceof LocalDateTime) {
+				args[i] = Timestamp.valueOf((LocalDateTime) args[i]);
+			}
+		}
+		String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, args));
+		assertFalse(plan.contains("tableScan"), () -> "전체 테이블 조회: " + sql + "\n" + plan);
+		return plan;
+	}
+}
@@ -0,0 +1,113 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.ss.batch.TestBatchConfig;
+import com.ss.batch.config.RemotePartitioningConfig;
+import com.ss.batch.job.pass.AddPassesJobConfig;
+import com.ss.batch.job.pass.AddPassesTasklet;
+import com.ss.batch.job.pass.ExpiredPassJobConfig;
+
+// 매니저와 워커를 한 JVM에 같이 띄우고 DB 요청 큐(transport=jdbc)로 파티션을 주고받아서
+// expiredPassJob, addPassesJob이 원격 파티션 모드로 끝까지 실행되는지 확인
+@SpringBootTest(properties = { "batch.remote-partitioning.manager=true", "batch.remote-partitioning.worker=true",
+		"batch.remote-partitioning.transport=jdbc", "batch.remote-partitioning.poll-interval-ms=50",
+		"batch.remote-partitioning.timeout-ms=60000", "batch.expired-pass.grid-size=3" })
+@ActiveProfiles("test")
+@ContextConfiguration(classes = { ExpiredPassJobConfig.class, AddPassesJobConfig.class, AddPassesTasklet.class,
+		RemotePartitioningConfig.class, TestBatchConfig.class })
+public class RemotePartitioningTest {
+	@Autowired
+	private JobLauncher jobLauncher;
+
+	@Autowired
+	@Qualifier("expiredPassJob")
+	private Job expiredPassJob;
+
+	@Autowired
+	@Qualifier("addPassesJob")
+	private Job addPassesJob;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	@AfterEach
+	public void clear() {
+		jdbcTemplate.update("delete from pass where pass_seq between 2001 and 2030 or bulk_pass_seq in (951, 952)");
+		jdbcTemplate.update("delete from bulk_pass where bulk_pass_seq in (951, 952)");
+		jdbcTemplate.update("delete from user_group_mapping where user_group_id = 'REMOTE'");
+		jdbcTemplate.update("delete from job_watermark where job_name like 'expiredPassJob%'");
+	}
+
+	@Test
+	public void test_expiredPassJob() throws Exception {
+		// given 만료 대상 30건
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+		for (long passSeq = 2001; passSeq <= 2030; passSeq++) {
+			jdbcTemplate.update("insert into pass (pass_seq, package_seq, user_id, status, remaining_count, started_at, ended_at)"
+					+ " values (?, 1, ?, 'PROGRESSED', 10, ?, ?)", passSeq, "A" + passSeq, now.minusDays(60), now.minusDays(1));
+		}
+
+		// when
+		JobExecution jobExecution = jobLauncher.run(expiredPassJob, new JobParametersBuilder()
+				.addString(ExpiredPassJobConfig.CUTOFF, now.toString()).toJobParameters());
+
+		// then 워커 step 3개(파티션)가 실행되고 모두 만료
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		assertEquals(3, jobExecution.getStepExecutions().stream().filter(s -> s.getStepName().startsWith("expiredPassWorkerStep")).count());
+		assertEquals(30, (int) jdbcTemplate.queryForObject(
+				"select count(*) from pass where pass_seq between 2001 and 2030 and status = 'EXPIRED'", Integer.class));
+		assertQueueEmpty();
+	}
+
+	@Test
+	public void test_addPassesJob() throws Exception {
+		// given 사용자 5명 그룹에 대량 이용권 2건
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < 5; i++) {
+			jdbcTemplate.update("insert into user_group_mapping (user_group_id, user_id, create_at, modified_at) values ('REMOTE', ?, ?, ?)",
+					"M" + i, now, now);
+		}
+		for (long bulkPassSeq = 951; bulkPassSeq <= 952; bulkPassSeq++) {
+			jdbcTemplate.update("insert into bulk_pass (bulk_pass_seq, package_seq, user_group_id, status, count, started_at, ended_at)"
+					+ " values (?, 1, 'REMOTE', 'READY', 10, ?, ?)", bulkPassSeq, now.plusDays(1), now.plusDays(30));
+		}
+
+		// when
+		JobExecution jobExecution = jobLauncher.run(addPassesJob, new JobParametersBuilder()
+				.addLong("run.id", System.nanoTime()).toJobParameters());
+
+		// then 대량 이용권마다 파티션 하나씩, 사용자마다 한 장씩 발급
+		assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+		assertEquals(2, jobExecution.getStepExecutions().stream().filter(s -> s.getStepName().startsWith("addPassFanOutWorkerStep")).count());
+		assertEquals(10, (int) jdbcTemplate.queryForObject("select count(*) from pass where bulk_pass_seq in (951, 952)", Integer.class));
+		assertEquals(2, (int) jdbcTemplate.queryForObject(
+				"select count(*) from bulk_pass where bulk_pass_seq in (951, 952) and status = 'COMPLETED'", Integer.class));
+		assertQueueEmpty();
+	}
+
+	// 워커가 요청을 모두 꺼내갔는지
+	private void assertQueueEmpty() {
+		assertTrue(jdbcTemplate.queryForObject("select count(*) from INT_CHANNEL_MESSAGE", Integer.class) == 0);
+	}
+}
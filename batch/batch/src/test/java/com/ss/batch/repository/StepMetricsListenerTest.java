@@ -0,0 +1,46 @@
+package com.ss.batch.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import com.ss.batch.metrics.StepMetricsListener;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StepMetricsListenerTest {
+
+	@Test
+	public void test_chunk() {
+		// given 파티션 워커 step의 청크 하나 (아이템 3건 쓰기)
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		StepMetricsListener listener = new StepMetricsListener(registry);
+		StepExecution stepExecution = MetaDataInstanceFactory.createJobExecution("expiredPassJob", 1L, 1L)
+				.createStepExecution("expiredPassWorkerStep:partition0");
+		ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+		// when
+		listener.beforeChunk(chunkContext);
+		stepExecution.setWriteCount(stepExecution.getWriteCount() + 3);
+		listener.afterChunk(chunkContext);
+
+		listener.beforeChunk(chunkContext);
+		listener.afterChunkError(chunkContext);
+
+		// then 파티션 번호를 뗀 step 이름으로 기록
+		String[] tags = { "job", "expiredPassJob", "step", "expiredPassWorkerStep" };
+		assertEquals(1, registry.get("batch.chunk").tags(tags).timer().count());
+		assertEquals(1, registry.get("batch.chunk.jdbc").tags(tags).timer().count());
+		assertEquals(1.0, registry.get("batch.chunk.commit").tags(tags).counter().count());
+		assertEquals(1.0, registry.get("batch.chunk.rollback").tags(tags).counter().count());
+		assertEquals(3.0, registry.get("batch.step.items").tags(tags).counter().count());
+		assertNotNull(registry.find("batch.step.items.per.second").tags(tags).gauge());
+		assertTrue(registry.get("batch.step.items.per.second").tags(tags).gauge().value() > 0.0);
+	}
+}